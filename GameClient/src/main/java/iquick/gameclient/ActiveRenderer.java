@@ -0,0 +1,208 @@
+package iquick.gameclient;
+
+import java.awt.Canvas;
+import java.awt.EventQueue;
+import java.awt.Graphics2D;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Renderizado activo: un hilo propio dibuja GamePanel sobre un Canvas con
+ * BufferStrategy a un ritmo fijo, en lugar de esperar a los repaint() que
+ * dispara cada mensaje del servidor.
+ *
+ * El reloj de frames usa System.nanoTime(): cada frame tiene su instante
+ * previsto (inicio + n * período) y el hilo duerme hasta el siguiente. Si un
+ * frame se atrasa más de un período no se intenta recuperar dibujando seguido:
+ * se cuenta como atrasado y el reloj se reajusta al instante actual.
+ *
+ * Si falla la BufferStrategy o el dibujo, el hilo termina, isActive() pasa a
+ * false y se llama a fallback para volver a mostrar el GamePanel (modo pasivo).
+ */
+public class ActiveRenderer {
+    private static final Log LOG = Log.get("ui");
+    private static final int BUFFERS = 2;
+
+    private final GamePanel panel;
+    private final Canvas canvas = new Canvas();
+    private final long periodNanos;
+    private final Runnable fallback;
+    private volatile boolean running = false;
+    private volatile boolean active = false;
+    private Thread thread;
+
+    // Métricas
+    private volatile long frames = 0;
+    private volatile long lateFrames = 0;         // Frames que empezaron más de un período tarde
+    private volatile long contentsLost = 0;       // Veces que hubo que repetir un frame
+    private volatile long lastFrameNanos = 0;     // Duración del último frame
+
+    /**
+     * @param panel Panel que sabe dibujar el juego (no se agrega a la ventana)
+     * @param targetFps Frames por segundo buscados
+     * @param fallback Se ejecuta en el EDT si el modo activo falla, para volver al modo pasivo
+     */
+    public ActiveRenderer(GamePanel panel, double targetFps, Runnable fallback) {
+        this.panel = panel;
+        this.periodNanos = (long) (1_000_000_000L / Math.max(1, targetFps));
+        this.fallback = fallback;
+        canvas.setIgnoreRepaint(true);      // Solo dibuja el hilo de renderizado
+        canvas.setFocusable(false);         // El teclado lo recibe la ventana
+        canvas.setBackground(panel.getBackground());
+    }
+
+    /**
+     * @return Canvas que se agrega a la ventana en lugar del panel
+     */
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    /**
+     * Inicia el hilo de renderizado (el Canvas ya debe estar en una ventana visible)
+     */
+    public void start() {
+        running = true;
+        active = true;
+        thread = new Thread(this::renderLoop, "render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Detiene el hilo y espera a que termine el frame en curso
+     */
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return false si el modo activo falló (o se detuvo)
+     */
+    public boolean isActive() {
+        return active;
+    }
+
+    private void renderLoop() {
+        BufferStrategy strategy = null;
+        boolean failed = false;
+        try {
+            long next = System.nanoTime();
+            while (running) {
+                if (strategy == null) {
+                    strategy = createStrategy();
+                    if (strategy == null) {
+                        // Todavía no se muestra la ventana
+                        LockSupport.parkNanos(periodNanos);
+                        next = System.nanoTime();
+                        continue;
+                    }
+                }
+
+                long start = System.nanoTime();
+                renderFrame(strategy);
+                frames++;
+                lastFrameNanos = System.nanoTime() - start;
+
+                next += periodNanos;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > periodNanos) {
+                    // Atrasado más de un frame: no se dibujan frames seguidos para alcanzar
+                    lateFrames++;
+                    next = System.nanoTime();
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Falló el renderizado activo, se vuelve al modo pasivo", e);
+            failed = true;
+        } finally {
+            // El lector de snapshots y las imágenes son de este hilo
+            panel.releaseResources();
+            if (strategy != null) {
+                strategy.dispose();
+            }
+            active = false;
+        }
+        // Recién ahora el panel puede volver a dibujarse en el EDT
+        if (failed && running && fallback != null) {
+            EventQueue.invokeLater(fallback);
+        }
+    }
+
+    /**
+     * @return BufferStrategy del Canvas, o null si todavía no se puede crear
+     */
+    private BufferStrategy createStrategy() {
+        if (!canvas.isDisplayable() || canvas.getWidth() <= 0 || canvas.getHeight() <= 0) {
+            return null;
+        }
+        canvas.createBufferStrategy(BUFFERS);
+        LOG.info("Renderizado activo", "fps", 1_000_000_000L / periodNanos);
+        return canvas.getBufferStrategy();
+    }
+
+    /**
+     * Dibuja y muestra un frame, repitiéndolo si se pierde el contenido del buffer
+     */
+    private void renderFrame(BufferStrategy strategy) {
+        boolean lost;
+        do {
+            boolean restored;
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    panel.paintTo(g2d, canvas.getWidth(), canvas.getHeight(), canvas.getGraphicsConfiguration());
+                } finally {
+                    g2d.dispose();
+                }
+                restored = strategy.contentsRestored();
+                if (restored) contentsLost++;
+            } while (restored);
+            strategy.show();
+            lost = strategy.contentsLost();
+            if (lost) contentsLost++;
+        } while (lost);
+        // Algunos sistemas (X11) encolan el dibujo: enviarlo ahora evita saltos
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getFrames() {
+        return frames;
+    }
+
+    public long getLateFrames() {
+        return lateFrames;
+    }
+
+    public long getContentsLost() {
+        return contentsLost;
+    }
+
+    public long getLastFrameNanos() {
+        return lastFrameNanos;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frames=%d atrasados=%d perdidos=%d ultimo=%.2fms objetivo=%.2fms",
+                frames, lateFrames, contentsLost, lastFrameNanos / 1e6, periodNanos / 1e6);
+    }
+}
@@ -0,0 +1,94 @@
+package iquick.gameclient;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Transporte clásico basado en Socket: un hilo daemon bloqueado en readLine()
+ * y un PrintWriter con auto-flush para la salida.
+ */
+public class BlockingTransport implements Transport {
+    private static final Log LOG = Log.get("net");
+
+    private final Socket socket;             // Socket TCP para la conexión
+    private final PrintWriter out;           // Stream de salida para enviar mensajes
+    private final BufferedReader in;         // Stream de entrada para recibir mensajes
+    private final Consumer<String> handler;  // Receptor de cada mensaje completo
+
+    // Contadores para comparar con NioTransport
+    private volatile long messagesReceived = 0;
+    private volatile long bytesReceived = 0;
+
+    /**
+     * Abre la conexión TCP con el servidor
+     * @param host Dirección IP o hostname del servidor
+     * @param port Puerto del servidor
+     * @param handler Receptor de los mensajes recibidos
+     */
+    public BlockingTransport(String host, int port, Consumer<String> handler) throws IOException {
+        this.handler = handler;
+        socket = new Socket(host, port);
+        out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), true);
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start() {
+        // Crear hilo separado para escuchar mensajes del servidor
+        Thread thread = new Thread(() -> {
+            try {
+                String line;
+                // Bucle infinito para recibir mensajes
+                while ((line = in.readLine()) != null) {
+                    messagesReceived++;
+                    bytesReceived += line.length() + 1; // Aproximado: mensajes ASCII + '\n'
+                    handler.accept(line);
+                }
+            } catch (IOException e) {
+                LOG.warn("Error recibiendo del servidor", "error", e.getMessage());
+            }
+        }, "server-reader");
+        thread.setDaemon(true); // Hilo daemon (termina cuando termina la aplicación)
+        thread.start();
+    }
+
+    @Override
+    public void send(String msg) {
+        if (!socket.isClosed()) {
+            out.println(msg);
+            out.flush(); // Asegurar que se envíe inmediatamente
+        }
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        if (!socket.isClosed()) {
+            out.append(lines);
+            out.flush(); // Un solo flush para todo el lote
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!socket.isClosed()) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return !socket.isClosed();
+    }
+
+    @Override
+    public long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+}
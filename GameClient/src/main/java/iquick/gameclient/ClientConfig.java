@@ -0,0 +1,138 @@
+package iquick.gameclient;
+
+/**
+ * Opciones de configuración del cliente, leídas de propiedades del sistema
+ * (por ejemplo: java -Diquick.transport=blocking -jar GameClient.jar).
+ */
+public final class ClientConfig {
+
+    // Transporte de red: "nio" (SocketChannel) o "blocking" (Socket + readLine)
+    public static final String TRANSPORT = System.getProperty("iquick.transport", "nio");
+
+    // Codificación de PLAYER_UPDATE: "json" (por defecto) o "binary", que la negocia al conectar con
+    // respaldo a JSON; es opcional porque el servidor incluido todavía no responde a PROTOCOL
+    public static final String PROTOCOL = System.getProperty("iquick.protocol", "json");
+
+    // Predicción local de POPO/NANA: "on" u "off"; duración del tick del servidor y demora
+    // inicial entre enviar una entrada y verla en un PLAYER_UPDATE (después se mide)
+    public static final String PREDICTION = System.getProperty("iquick.prediction", "on");
+    public static final String PREDICTION_TICK_MS = System.getProperty("iquick.prediction.tickMs", "16");
+    public static final String PREDICTION_ACK_DELAY_MS = System.getProperty("iquick.prediction.ackDelayMs", "50");
+
+    // Interpolación de enemigos: "on" u "off", retardo de reproducción y extrapolación máxima
+    // cuando los PLAYER_UPDATE se atrasan
+    public static final String INTERPOLATION = System.getProperty("iquick.interpolation", "on");
+    public static final String INTERPOLATION_DELAY_MS = System.getProperty("iquick.interpolation.delayMs", "50");
+    public static final String MAX_EXTRAPOLATION_MS = System.getProperty("iquick.interpolation.maxExtrapolationMs", "200");
+
+    // Registro: nivel mínimo (DEBUG, INFO, WARN, ERROR) y registros por segundo de cada categoría
+    // (0 = sin límite); se ajustan por categoría con el sufijo, por ejemplo -Diquick.log.level.net=DEBUG
+    public static final String LOG_LEVEL = System.getProperty("iquick.log.level", "INFO");
+    public static final String LOG_RATE = System.getProperty("iquick.log.rate", "20");
+
+    // Sprites: "volatile" (copias pre-escaladas en memoria de video), "buffered" (copias
+    // pre-escaladas en BufferedImage) o "scaled" (escalar el original en cada dibujo)
+    public static final String SPRITES = System.getProperty("iquick.sprites", "volatile");
+
+    // Renderizado: "passive" (JPanel + repaint por mensaje) o "active" (Canvas + BufferStrategy
+    // con un hilo propio a FPS fijos); si el modo activo no se puede usar se vuelve al pasivo.
+    // En modo pasivo los FPS también marcan el ritmo de redibujado mientras hay enemigos interpolándose
+    public static final String RENDER = System.getProperty("iquick.render", "passive");
+    public static final String RENDER_FPS = System.getProperty("iquick.render.fps", "60");
+
+    // Panel de diagnóstico de frames (FPS, percentiles, tiempo por fase): "on" lo muestra al
+    // iniciar; en el juego se alterna con F3
+    public static final String STATS_OVERLAY = System.getProperty("iquick.overlay", "off");
+
+    private ClientConfig() {
+    }
+
+    /**
+     * @return true si se debe usar el transporte NIO
+     */
+    public static boolean useNioTransport() {
+        return !"blocking".equalsIgnoreCase(TRANSPORT);
+    }
+
+    /**
+     * @return true si se debe negociar el protocolo binario al conectar
+     */
+    public static boolean requestBinaryProtocol() {
+        return "binary".equalsIgnoreCase(PROTOCOL);
+    }
+
+    /**
+     * @return true si se predice localmente el movimiento de los jugadores
+     */
+    public static boolean usePrediction() {
+        return !"off".equalsIgnoreCase(PREDICTION);
+    }
+
+    public static long predictionTickMillis() {
+        return (long) parseDouble(PREDICTION_TICK_MS, 16);
+    }
+
+    public static long predictionAckDelayMillis() {
+        return (long) parseDouble(PREDICTION_ACK_DELAY_MS, 50);
+    }
+
+    /**
+     * @return true si los enemigos se dibujan interpolados
+     */
+    public static boolean useInterpolation() {
+        return !"off".equalsIgnoreCase(INTERPOLATION);
+    }
+
+    public static long interpolationDelayMillis() {
+        return (long) parseDouble(INTERPOLATION_DELAY_MS, 50);
+    }
+
+    public static long maxExtrapolationMillis() {
+        return (long) parseDouble(MAX_EXTRAPOLATION_MS, 200);
+    }
+
+    /**
+     * @return true si se pidió el renderizado activo
+     */
+    public static boolean useActiveRendering() {
+        return "active".equalsIgnoreCase(RENDER);
+    }
+
+    public static double renderFps() {
+        return parseDouble(RENDER_FPS, 60);
+    }
+
+    /**
+     * @return true si el panel de diagnóstico de frames se muestra al iniciar
+     */
+    public static boolean showStatsOverlay() {
+        return "on".equalsIgnoreCase(STATS_OVERLAY);
+    }
+
+    /**
+     * @param category Categoría de Log
+     * @return Nivel mínimo de la categoría (iquick.log.level.categoria o iquick.log.level)
+     */
+    public static LogLevel logLevel(String category) {
+        LogLevel defaultLevel = LogLevel.parse(LOG_LEVEL, LogLevel.INFO);
+        return LogLevel.parse(System.getProperty("iquick.log.level." + category), defaultLevel);
+    }
+
+    /**
+     * @param category Categoría de Log
+     * @return Registros por segundo de la categoría (iquick.log.rate.categoria o iquick.log.rate)
+     */
+    public static double logRate(String category) {
+        double defaultRate = parseDouble(LOG_RATE, 20);
+        return parseDouble(System.getProperty("iquick.log.rate." + category), defaultRate);
+    }
+
+    private static double parseDouble(String value, double defaultValue) {
+        if (value == null) return defaultValue;
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package iquick.gameclient;
+
+/**
+ * Predicción del lado del cliente para POPO (jugador 1) y NANA (jugador 2).
+ *
+ * Las entradas de movimiento se numeran y se aplican localmente al enviarlas;
+ * cada PLAYER_UPDATE se reconcilia con PlayerPredictor. El servidor no confirma
+ * entradas, así que la confirmación se infiere por tiempo: un mensaje recibido
+ * en t refleja las entradas enviadas antes de t - demora, donde la demora
+ * (ida, tick del servidor y vuelta) se estima midiendo cuánto tarda en verse
+ * en la posición del servidor un cambio de dirección o un salto.
+ *
+ * Se desactiva con -Diquick.prediction=off (ver ClientConfig).
+ */
+public class ClientPrediction {
+    private static final int SNAP_DISTANCE = 2;   // Error (en tiles) que cuenta como salto brusco
+
+    private final boolean enabled;
+    private final long tickNanos;                 // Duración de un tick simulado
+    private final long epoch = System.nanoTime(); // Origen de la numeración de ticks
+    private final PlayerPredictor[] players = {null, new PlayerPredictor(), new PlayerPredictor()};
+
+    private volatile GameMap map;                 // Mapa del último snapshot, sin copiar
+    private int[][] mapTiles;                     // Matriz envuelta por map (solo hilo de red)
+    private long nextSeq = 0;                     // Número de secuencia de la próxima entrada
+    private volatile long ackDelayNanos;          // Demora estimada entre envío y confirmación
+
+    // Métricas (escritas solo por el hilo de red, salvo inputs)
+    private volatile long inputs = 0;
+    private volatile long reconciliations = 0;
+    private volatile long replayedInputs = 0;     // Entradas simuladas de nuevo en total
+    private volatile long snaps = 0;              // Reconciliaciones con error mayor a SNAP_DISTANCE
+    private volatile float lastError = 0;         // Error de predicción (tiles) en el tick confirmado
+    private volatile float maxError = 0;
+    private volatile double totalError = 0;
+    private volatile long errorSamples = 0;
+    private volatile float lastCorrection = 0;    // Desplazamiento (tiles) de la posición predicha actual
+    private volatile float maxCorrection = 0;
+    private volatile double totalCorrection = 0;
+
+    public ClientPrediction() {
+        this(ClientConfig.usePrediction(), ClientConfig.predictionTickMillis(),
+                ClientConfig.predictionAckDelayMillis());
+    }
+
+    /**
+     * @param enabled false para dibujar siempre la posición del servidor
+     * @param tickMillis Duración del tick del servidor
+     * @param initialAckDelayMillis Demora de confirmación inicial, hasta medir una
+     */
+    public ClientPrediction(boolean enabled, long tickMillis, long initialAckDelayMillis) {
+        this.enabled = enabled;
+        this.tickNanos = Math.max(1, tickMillis) * 1_000_000L;
+        this.ackDelayNanos = Math.max(0, initialAckDelayMillis) * 1_000_000L;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra una entrada de movimiento que el escritor aceptó como comando nuevo
+     * (hilo input-sender). Las que reemplazaron a otra o se descartaron no se registran.
+     * @param playerId 1 o 2
+     * @param action PlayerPredictor.MOVE_LEFT, MOVE_RIGHT o JUMP
+     * @return Número de secuencia asignado, o -1 si la predicción está desactivada
+     */
+    public long recordInput(int playerId, int action) {
+        if (!enabled) return -1;
+        GameMap current = map;
+        if (current == null) return -1;
+        long now = System.nanoTime();
+        long seq;
+        synchronized (this) {
+            seq = nextSeq++;
+        }
+        players[playerId].recordInput(seq, action, tickAt(now), now, current);
+        inputs++;
+        return seq;
+    }
+
+    /**
+     * Reconcilia ambos jugadores con un snapshot recién publicado (hilo de red)
+     */
+    public void reconcile(WorldSnapshot snapshot) {
+        if (!enabled) return;
+        if (snapshot.map == null) {
+            map = null;
+            players[1].reset();
+            players[2].reset();
+            return;
+        }
+        if (snapshot.map != mapTiles) {
+            mapTiles = snapshot.map;
+            map = new GameMap(snapshot.map, snapshot.mapWidth, snapshot.mapHeight);
+        }
+
+        long now = System.nanoTime();
+        long nowTick = tickAt(now);
+        reconcilePlayer(players[1], snapshot.player1, true, now, nowTick);
+        reconcilePlayer(players[2], snapshot.player2, snapshot.isPlayer2Active, now, nowTick);
+    }
+
+    private void reconcilePlayer(PlayerPredictor predictor, Player authoritative, boolean active,
+                                 long now, long nowTick) {
+        if (!active || authoritative == null || !authoritative.isAlive) {
+            predictor.reset();
+            return;
+        }
+        long ackTick = tickAt(now - ackDelayNanos);
+        predictor.reconcile(authoritative, ackTick, nowTick, now, map);
+
+        long sample = predictor.takeAckSample();
+        if (sample >= 0 && sample < 1_000_000_000L) {
+            // Promedio móvil: 1/8 de la muestra nueva
+            ackDelayNanos += (sample - ackDelayNanos) / 8;
+        }
+
+        reconciliations++;
+        replayedInputs += predictor.getLastReplayed();
+        float error = predictor.getLastError();
+        if (!Float.isNaN(error)) {
+            lastError = error;
+            maxError = Math.max(maxError, error);
+            totalError += error;
+            errorSamples++;
+            if (error > SNAP_DISTANCE) snaps++;
+        }
+        float correction = predictor.getLastCorrection();
+        lastCorrection = correction;
+        maxCorrection = Math.max(maxCorrection, correction);
+        totalCorrection += correction;
+    }
+
+    /**
+     * Posición a dibujar para un jugador (hilo de dibujo)
+     * @param out Recibe x en out[0] e y en out[1]
+     * @return false si no hay predicción y se debe usar la posición del servidor
+     */
+    public boolean predict(int playerId, float[] out) {
+        return predict(playerId, System.nanoTime(), out);
+    }
+
+    /**
+     * Posición a dibujar para un jugador en un instante dado
+     * @param now System.nanoTime() del frame
+     */
+    public boolean predict(int playerId, long now, float[] out) {
+        GameMap current = map;
+        if (!enabled || current == null) return false;
+        return players[playerId].predict(tickAt(now), current, out);
+    }
+
+    private long tickAt(long nanos) {
+        return Math.floorDiv(nanos - epoch, tickNanos);
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getInputs() {
+        return inputs;
+    }
+
+    public long getReconciliations() {
+        return reconciliations;
+    }
+
+    public long getReplayedInputs() {
+        return replayedInputs;
+    }
+
+    public long getSnaps() {
+        return snaps;
+    }
+
+    public float getLastError() {
+        return lastError;
+    }
+
+    public float getMaxError() {
+        return maxError;
+    }
+
+    public double getAverageError() {
+        long samples = errorSamples;
+        return samples == 0 ? 0 : totalError / samples;
+    }
+
+    public float getLastCorrection() {
+        return lastCorrection;
+    }
+
+    public float getMaxCorrection() {
+        return maxCorrection;
+    }
+
+    public double getAverageCorrection() {
+        long count = reconciliations;
+        return count == 0 ? 0 : totalCorrection / count;
+    }
+
+    public long getAckDelayNanos() {
+        return ackDelayNanos;
+    }
+
+    /**
+     * @return Entradas todavía sin confirmar del jugador
+     */
+    public int getPendingInputs(int playerId) {
+        return players[playerId].getPendingInputs();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("entradas=%d reconciliaciones=%d resimuladas=%d error(prom/max)=%.3f/%.3f "
+                        + "corrección(prom/max)=%.3f/%.3f saltos=%d demora=%.1fms",
+                inputs, reconciliations, replayedInputs, getAverageError(), maxError,
+                getAverageCorrection(), maxCorrection, snaps, ackDelayNanos / 1e6);
+    }
+}
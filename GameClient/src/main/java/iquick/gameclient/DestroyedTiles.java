@@ -0,0 +1,114 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * Tiles destruidos que esperan regenerarse, con su índice espacial.
+ *
+ * Cambia pocas veces (al destruir o regenerar un tile) y se lee en cada frame,
+ * así que funciona como copia-en-escritura: cada cambio arma una vista nueva
+ * (arreglo + SpatialGrid) y la publica con un solo cambio de referencia. Los
+ * cambios se hacen en el EDT; la vista se puede leer desde cualquier hilo
+ * (también el de renderizado activo).
+ */
+public class DestroyedTiles implements Iterable<DestroyedTile> {
+    private volatile View view = View.EMPTY;
+
+    /**
+     * Tiles destruidos en un momento dado (no se modifica)
+     */
+    public static final class View {
+        static final View EMPTY = new View(new DestroyedTile[0]);
+
+        private final DestroyedTile[] tiles;
+        private final SpatialGrid grid = new SpatialGrid();
+
+        private View(DestroyedTile[] tiles) {
+            this.tiles = tiles;
+            for (DestroyedTile tile : tiles) {
+                grid.add(tile.x, tile.y);
+            }
+        }
+
+        public int size() {
+            return tiles.length;
+        }
+
+        public DestroyedTile get(int index) {
+            return tiles[index];
+        }
+
+        /**
+         * @return Índice espacial de los tiles (los resultados son índices para get())
+         */
+        public SpatialGrid getGrid() {
+            return grid;
+        }
+    }
+
+    /**
+     * @return Vista actual (para recorrer o consultar sin que cambie)
+     */
+    public View current() {
+        return view;
+    }
+
+    /**
+     * Registra un tile destruido ahora
+     */
+    public void add(int x, int y) {
+        DestroyedTile[] tiles = view.tiles;
+        DestroyedTile[] updated = Arrays.copyOf(tiles, tiles.length + 1);
+        updated[tiles.length] = new DestroyedTile(x, y);
+        view = new View(updated);
+    }
+
+    /**
+     * Quita el tile destruido de esa posición (si lo hay)
+     */
+    public void remove(int x, int y) {
+        DestroyedTile[] tiles = view.tiles;
+        int kept = 0;
+        DestroyedTile[] updated = new DestroyedTile[tiles.length];
+        for (DestroyedTile tile : tiles) {
+            if (tile.x != x || tile.y != y) {
+                updated[kept++] = tile;
+            }
+        }
+        if (kept != tiles.length) {
+            view = new View(Arrays.copyOf(updated, kept));
+        }
+    }
+
+    /**
+     * Quita varios tiles (por ejemplo los que empezaron a regenerarse)
+     */
+    public void removeAll(Collection<DestroyedTile> removed) {
+        if (removed.isEmpty()) return;
+        DestroyedTile[] tiles = view.tiles;
+        int kept = 0;
+        DestroyedTile[] updated = new DestroyedTile[tiles.length];
+        for (DestroyedTile tile : tiles) {
+            if (!removed.contains(tile)) {
+                updated[kept++] = tile;
+            }
+        }
+        if (kept != tiles.length) {
+            view = new View(Arrays.copyOf(updated, kept));
+        }
+    }
+
+    public int size() {
+        return view.tiles.length;
+    }
+
+    /**
+     * Recorre la vista actual (los cambios posteriores no la afectan)
+     */
+    @Override
+    public Iterator<DestroyedTile> iterator() {
+        return Arrays.asList(view.tiles).iterator();
+    }
+}
@@ -0,0 +1,308 @@
+package iquick.gameclient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Zonas de la pantalla que cambiaron desde el último frame dibujado.
+ *
+ * Mientras GamePanel dibuja, registra el rectángulo (en coordenadas del mundo)
+ * de cada jugador, enemigo, fruta y tile destruido visible, junto con un valor
+ * "aspecto" que resume lo que cambia su dibujo sin moverlo (atacando, brillo...).
+ * Cuando llega un mensaje, GamePanel calcula dónde quedaría cada uno y los
+ * compara aquí por id: los que aparecieron, se movieron, cambiaron de aspecto o
+ * desaparecieron aportan su rectángulo anterior y el nuevo a la unión.
+ * Las filas del mapa se comparan por referencia (se copian al cambiar), así
+ * que los tiles modificados también se agregan sin recorrer todo el mapa.
+ *
+ * Solo lo usa el EDT.
+ */
+public class DirtyRegions {
+    public static final int PLAYER = 0;
+    public static final int ENEMY = 1;
+    public static final int FRUIT = 2;
+    public static final int DESTROYED_TILE = 3;
+    private static final int KINDS = 4;
+
+    private final int tileSize;
+
+    // Lo dibujado en el último frame (doble buffer por tipo, igual que EnemyInterpolator)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final IdIndex<Box>[] painted = new IdIndex[KINDS];
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final IdIndex<Box>[] painting = new IdIndex[KINDS];
+    private ArrayList<Box> paintedBoxes = new ArrayList<>();
+    private ArrayList<Box> paintingBoxes = new ArrayList<>();
+    private final ArrayDeque<Box> free = new ArrayDeque<>();
+    private boolean hasPainted = false;
+    private boolean untracked = false;     // Se dibujó algo sin id: no se puede comparar
+    private int[][] paintedMap;
+
+    // Vista del frame (dibujado o comparado)
+    private int viewX;
+    private int viewY;
+    private int viewWidth;
+    private int viewHeight;
+
+    // Unión de las zonas sucias (coordenadas del mundo)
+    private int minX;
+    private int minY;
+    private int maxX;
+    private int maxY;
+    private boolean full;
+    private long checkGeneration = 0;
+
+    // Métricas
+    private long partialRepaints = 0;
+    private long fullRepaints = 0;
+    private long skippedRepaints = 0;
+
+    /**
+     * Rectángulo de una entidad en el último frame
+     */
+    private static final class Box {
+        int x;
+        int y;
+        int width;
+        int height;
+        int look;
+        long checked;       // Última comparación en que se encontró
+    }
+
+    public DirtyRegions(int tileSize) {
+        this.tileSize = tileSize;
+        for (int kind = 0; kind < KINDS; kind++) {
+            painted[kind] = new IdIndex<>();
+            painting[kind] = new IdIndex<>();
+        }
+    }
+
+    // ===== REGISTRO DURANTE EL DIBUJO =====
+
+    /**
+     * Empieza a registrar un frame
+     * @param cameraX Posición de la cámara
+     * @param map Mapa que se dibuja
+     */
+    public void beginPaint(int cameraX, int cameraY, int width, int height, int[][] map) {
+        setView(cameraX, cameraY, width, height);
+        for (int kind = 0; kind < KINDS; kind++) {
+            painting[kind].clear();
+        }
+        paintingBoxes.clear();
+        untracked = false;
+        paintedMap = map;
+    }
+
+    /**
+     * Registra una entidad dibujada (las que quedan fuera de la vista se ignoran)
+     * @param id Id dentro de su tipo, o EntityIds.NONE
+     */
+    public void painted(int kind, int id, int x, int y, int width, int height, int look) {
+        if (!isVisible(x, y, width, height)) return;
+        if (id == EntityIds.NONE) {
+            untracked = true;
+            return;
+        }
+        Box box = free.isEmpty() ? new Box() : free.poll();
+        box.x = x;
+        box.y = y;
+        box.width = width;
+        box.height = height;
+        box.look = look;
+        box.checked = 0;
+        painting[kind].put(id, box);
+        paintingBoxes.add(box);
+    }
+
+    /**
+     * Termina el frame: lo registrado pasa a ser lo dibujado
+     */
+    public void endPaint() {
+        free.addAll(paintedBoxes);
+        paintedBoxes.clear();
+        for (int kind = 0; kind < KINDS; kind++) {
+            IdIndex<Box> swap = painted[kind];
+            painted[kind] = painting[kind];
+            painting[kind] = swap;
+        }
+        ArrayList<Box> swapBoxes = paintedBoxes;
+        paintedBoxes = paintingBoxes;
+        paintingBoxes = swapBoxes;
+        hasPainted = true;
+    }
+
+    /**
+     * Olvida lo dibujado (el próximo redibujado será completo)
+     */
+    public void reset() {
+        hasPainted = false;
+        paintedMap = null;
+    }
+
+    // ===== COMPARACIÓN AL LLEGAR UN MENSAJE =====
+
+    /**
+     * Empieza a comparar contra lo dibujado
+     * @param cameraX Posición que tendría la cámara con el estado nuevo
+     * @return false si hay que redibujar todo (no hay frame anterior o la cámara se movió)
+     */
+    public boolean beginCheck(int cameraX, int cameraY, int width, int height) {
+        minX = Integer.MAX_VALUE;
+        minY = Integer.MAX_VALUE;
+        maxX = Integer.MIN_VALUE;
+        maxY = Integer.MIN_VALUE;
+        checkGeneration++;
+        full = !hasPainted || untracked || cameraX != viewX || cameraY != viewY
+                || width != viewWidth || height != viewHeight;
+        return !full;
+    }
+
+    /**
+     * Pide redibujar todo (cambió algo que no se registra por zona)
+     */
+    public void markFull() {
+        full = true;
+    }
+
+    /**
+     * Compara dónde quedaría una entidad con dónde se dibujó
+     */
+    public void expect(int kind, int id, int x, int y, int width, int height, int look) {
+        if (full || !isVisible(x, y, width, height)) return;
+        if (id == EntityIds.NONE) {
+            full = true;
+            return;
+        }
+        Box box = painted[kind].get(id);
+        if (box == null) {
+            add(x, y, width, height);  // Apareció
+            return;
+        }
+        box.checked = checkGeneration;
+        if (box.x != x || box.y != y || box.width != width || box.height != height || box.look != look) {
+            add(box.x, box.y, box.width, box.height);
+            add(x, y, width, height);
+        }
+    }
+
+    /**
+     * Agrega los tiles visibles que cambiaron respecto del mapa dibujado
+     */
+    public void expectMap(int[][] map, int mapWidth, int mapHeight) {
+        if (full || map == paintedMap) return;
+        if (paintedMap == null || map == null || paintedMap.length != map.length) {
+            full = true;
+            return;
+        }
+        int startX = Math.max(0, viewX / tileSize);
+        int endX = Math.min(mapWidth, (viewX + viewWidth) / tileSize + 1);
+        int startY = Math.max(0, viewY / tileSize);
+        int endY = Math.min(mapHeight, (viewY + viewHeight) / tileSize + 1);
+        for (int y = startY; y < endY; y++) {
+            int[] row = map[y];
+            int[] old = paintedMap[y];
+            if (row == old) continue;
+            if (old.length != row.length) {
+                full = true;
+                return;
+            }
+            int first = Arrays.mismatch(row, startX, endX, old, startX, endX);
+            if (first < 0) continue;
+            int last = endX - 1;
+            while (row[last] == old[last]) {
+                last--;
+            }
+            // El borde de 1 px de cada tile sobresale hacia el siguiente
+            add((startX + first) * tileSize, y * tileSize,
+                    (last - startX - first + 1) * tileSize + 1, tileSize + 1);
+        }
+    }
+
+    /**
+     * Termina la comparación: lo dibujado que ya no está también se agrega
+     * @return true si hay algo que redibujar
+     */
+    public boolean endCheck() {
+        if (full) {
+            fullRepaints++;
+            return true;
+        }
+        for (int i = 0; i < paintedBoxes.size(); i++) {
+            Box box = paintedBoxes.get(i);
+            if (box.checked != checkGeneration) {
+                add(box.x, box.y, box.width, box.height);  // Desapareció o salió de la vista
+            }
+        }
+        if (minX > maxX) {
+            skippedRepaints++;
+            return false;
+        }
+        partialRepaints++;
+        return true;
+    }
+
+    /**
+     * @return true si la última comparación pide redibujar todo
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    // Unión en coordenadas de pantalla (respecto de la cámara del último frame)
+
+    public int getX() {
+        return minX - viewX;
+    }
+
+    public int getY() {
+        return minY - viewY;
+    }
+
+    public int getWidth() {
+        return maxX - minX;
+    }
+
+    public int getHeight() {
+        return maxY - minY;
+    }
+
+    private void setView(int x, int y, int width, int height) {
+        viewX = x;
+        viewY = y;
+        viewWidth = width;
+        viewHeight = height;
+    }
+
+    private boolean isVisible(int x, int y, int width, int height) {
+        return x + width >= viewX && x <= viewX + viewWidth
+                && y + height >= viewY && y <= viewY + viewHeight;
+    }
+
+    private void add(int x, int y, int width, int height) {
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x + width);
+        maxY = Math.max(maxY, y + height);
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getPartialRepaints() {
+        return partialRepaints;
+    }
+
+    public long getFullRepaints() {
+        return fullRepaints;
+    }
+
+    public long getSkippedRepaints() {
+        return skippedRepaints;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("parciales=%d completos=%d omitidos=%d", partialRepaints, fullRepaints, skippedRepaints);
+    }
+}
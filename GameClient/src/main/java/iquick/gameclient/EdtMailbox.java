@@ -0,0 +1,185 @@
+package iquick.gameclient;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+/**
+ * Buzón entre el hilo de red y el EDT.
+ * En lugar de un invokeLater por mensaje, el hilo de red deja tareas aquí y el EDT
+ * las procesa en una sola pasada (como máximo un invokeLater pendiente a la vez).
+ *
+ * Hay dos tipos de tareas:
+ * - Ordenadas (post): eventos que no se pueden perder ni reordenar
+ *   (TILE_DESTROYED, TILE_REGENERATED, GAME_OVER, PLAYER2_ACTIVATED...).
+ * - Última gana (postLatest): actualizaciones de estado completo (PLAYER_UPDATE, MAP).
+ *   Si llega una nueva antes de que el EDT procese la anterior del mismo tipo,
+ *   la anterior se descarta y la nueva ocupa su lugar al final de la cola,
+ *   así el orden relativo con los eventos ordenados se mantiene.
+ */
+public class EdtMailbox {
+    private static final Log LOG = Log.get("ui");
+
+    // Tipos de tarea "última gana"
+    public static final int SLOT_PLAYER_UPDATE = 0;
+    public static final int SLOT_MAP = 1;
+    public static final int SLOT_REPAINT = 2;
+    private static final int SLOT_COUNT = 3;
+    private static final int ORDERED = -1;
+
+    private final ConcurrentLinkedQueue<Message> queue = new ConcurrentLinkedQueue<>();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final AtomicReference<Message>[] latest = new AtomicReference[SLOT_COUNT];
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    // Métricas
+    private final AtomicLong posted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();     // Tareas reemplazadas antes de ejecutarse
+    private long delivered = 0;                               // Solo lo escribe el EDT
+    private long drains = 0;                                  // Pasadas del EDT (invokeLater reales)
+    private volatile long lastLagNanos = 0;                   // Tiempo entre post y ejecución en el EDT
+    private volatile long maxLagNanos = 0;
+    private volatile long totalLagNanos = 0;
+
+    /**
+     * Tarea pendiente. "claimed" la toma quien llegue primero:
+     * el EDT para ejecutarla o un post posterior para descartarla.
+     */
+    private static class Message {
+        final Runnable action;
+        final int slot;
+        final long postedAt;
+        final AtomicBoolean claimed = new AtomicBoolean(false);
+
+        Message(Runnable action, int slot, long postedAt) {
+            this.action = action;
+            this.slot = slot;
+            this.postedAt = postedAt;
+        }
+    }
+
+    public EdtMailbox() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            latest[i] = new AtomicReference<>();
+        }
+    }
+
+    /**
+     * Agrega un evento ordenado (nunca se descarta)
+     * @param action Tarea a ejecutar en el EDT
+     */
+    public void post(Runnable action) {
+        enqueue(new Message(action, ORDERED, System.nanoTime()));
+    }
+
+    /**
+     * Agrega una actualización que reemplaza a la pendiente del mismo tipo
+     * @param slot Tipo de actualización (SLOT_*)
+     * @param action Tarea a ejecutar en el EDT
+     */
+    public void postLatest(int slot, Runnable action) {
+        Message message = new Message(action, slot, System.nanoTime());
+        Message previous = latest[slot].getAndSet(message);
+        if (previous != null && previous.claimed.compareAndSet(false, true)) {
+            dropped.incrementAndGet();
+        }
+        enqueue(message);
+    }
+
+    private void enqueue(Message message) {
+        posted.incrementAndGet();
+        queue.add(message);
+        if (scheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    /**
+     * Ejecuta en el EDT todas las tareas vigentes en orden de llegada
+     */
+    private void drain() {
+        // Se libera antes de vaciar: un post durante la pasada programa la siguiente
+        scheduled.set(false);
+        drains++;
+
+        Message message;
+        while ((message = queue.poll()) != null) {
+            if (message.slot != ORDERED) {
+                latest[message.slot].compareAndSet(message, null);
+            }
+            if (!message.claimed.compareAndSet(false, true)) {
+                continue; // Reemplazada por una más nueva
+            }
+
+            long lag = System.nanoTime() - message.postedAt;
+            lastLagNanos = lag;
+            totalLagNanos += lag;
+            if (lag > maxLagNanos) {
+                maxLagNanos = lag;
+            }
+            delivered++;
+
+            try {
+                message.action.run();
+            } catch (RuntimeException e) {
+                LOG.error("Error aplicando actualización en la UI", e);
+            }
+        }
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getPosted() {
+        return posted.get();
+    }
+
+    /**
+     * @return Actualizaciones descartadas porque llegó una más nueva del mismo tipo
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * @return Cantidad de pasadas del EDT (invokeLater efectivamente encolados)
+     */
+    public long getDrains() {
+        return drains;
+    }
+
+    /**
+     * @return Tareas esperando en el buzón (incluye las ya descartadas)
+     */
+    public int getPending() {
+        return queue.size();
+    }
+
+    /**
+     * @return Retraso del EDT (post a ejecución) de la última tarea, en nanosegundos
+     */
+    public long getLastLagNanos() {
+        return lastLagNanos;
+    }
+
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+
+    public long getAverageLagNanos() {
+        long count = delivered;
+        return count == 0 ? 0 : totalLagNanos / count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("publicadas=%d entregadas=%d descartadas=%d pasadas=%d retraso EDT prom=%.2fms max=%.2fms",
+                getPosted(), delivered, getDropped(), drains,
+                getAverageLagNanos() / 1e6, maxLagNanos / 1e6);
+    }
+}
@@ -1,9 +1,20 @@
 package iquick.gameclient;
 
 public class Enemy {
-    public String id;
+    public int id = EntityIds.NONE;     // Id entero (ver EntityIds)
     public float x;
     public float y;
     public boolean isActive = true;
-    public String enemyType = "GROUND";
+    public EnemyKind kind = EnemyKind.GROUND;
+
+    /**
+     * Restablece los valores por defecto (instancia reciclada por EntityStore)
+     */
+    public void reset() {
+        this.id = EntityIds.NONE;
+        this.x = 0;
+        this.y = 0;
+        this.isActive = true;
+        this.kind = EnemyKind.GROUND;
+    }
 }
@@ -0,0 +1,269 @@
+package iquick.gameclient;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Interpolación de posiciones de enemigos entre PLAYER_UPDATE.
+ *
+ * Guarda por id los últimos SAMPLES puntos (instante de recepción, x, y) y
+ * dibuja cada enemigo en el instante "ahora - retardo de reproducción",
+ * interpolando entre los dos puntos que lo rodean. Así el jitter de la red
+ * queda absorbido por el retardo y el dibujo no depende del ritmo del servidor.
+ * Si los mensajes se atrasan más que el retardo, se extrapola con la velocidad
+ * de los dos últimos puntos durante un tiempo máximo y luego se queda quieto.
+ *
+ * El hilo de red registra cada snapshot y el EDT consulta una vez por frame;
+ * ambos métodos están sincronizados. Mientras algún enemigo se sigue moviendo
+ * en el dibujo (isAnimating) el panel pasivo redibuja al ritmo de la pantalla
+ * aunque no lleguen mensajes.
+ */
+public class EnemyInterpolator {
+    static final int SAMPLES = 8;                       // Puntos guardados por enemigo
+    private static final float TELEPORT_DISTANCE = 2f;  // Salto (tiles) que no se interpola
+
+    private final boolean enabled;
+    private final long delayNanos;                      // Retardo de reproducción
+    private final long maxExtrapolationNanos;           // Tiempo máximo de extrapolación
+
+    // Trayectorias por id (doble buffer, igual que EntityStore)
+    private IdIndex<Track> front = new IdIndex<>();
+    private IdIndex<Track> back = new IdIndex<>();
+    private ArrayList<Track> frontTracks = new ArrayList<>();
+    private ArrayList<Track> backTracks = new ArrayList<>();
+    private final ArrayDeque<Track> free = new ArrayDeque<>();
+    private long generation = 0;
+    private long animatingUntil = Long.MIN_VALUE;     // Instante de reproducción en que todos quedan quietos
+
+    // Métricas
+    private long interpolated = 0;
+    private long extrapolated = 0;
+    private long held = 0;              // Atrasados más que el máximo de extrapolación
+
+    /**
+     * Puntos recientes de un enemigo (buffer circular)
+     */
+    private static final class Track {
+        final long[] times = new long[SAMPLES];
+        final float[] xs = new float[SAMPLES];
+        final float[] ys = new float[SAMPLES];
+        int head = 0;           // Punto más antiguo
+        int count = 0;
+        long generation;        // Último registro en que apareció
+        long movingUntil;       // Instante de reproducción hasta el que el dibujo se mueve
+
+        /**
+         * @param maxExtrapolation Tiempo que se sigue extrapolando después del último punto
+         */
+        void add(long time, float x, float y, long maxExtrapolation) {
+            if (count > 0) {
+                int newest = (head + count - 1) % SAMPLES;
+                if (Math.abs(x - xs[newest]) + Math.abs(y - ys[newest]) > TELEPORT_DISTANCE) {
+                    count = 0;  // Reapareció en otro lugar: no se interpola el salto
+                    movingUntil = Long.MIN_VALUE;
+                } else {
+                    if (time <= times[newest]) {
+                        time = times[newest] + 1;  // Mensajes que llegaron juntos
+                    }
+                    if (x != xs[newest] || y != ys[newest]) {
+                        // Se interpola hasta este punto y, si no llegan más, se extrapola
+                        movingUntil = time + maxExtrapolation;
+                    }
+                }
+            } else {
+                movingUntil = Long.MIN_VALUE;
+            }
+            int index;
+            if (count < SAMPLES) {
+                index = (head + count) % SAMPLES;
+                count++;
+            } else {
+                index = head;
+                head = (head + 1) % SAMPLES;
+            }
+            times[index] = time;
+            xs[index] = x;
+            ys[index] = y;
+        }
+    }
+
+    public EnemyInterpolator() {
+        this(ClientConfig.useInterpolation(), ClientConfig.interpolationDelayMillis(),
+                ClientConfig.maxExtrapolationMillis());
+    }
+
+    /**
+     * @param enabled false para dibujar siempre la última posición recibida
+     * @param delayMillis Retardo de reproducción
+     * @param maxExtrapolationMillis Tiempo máximo que se extrapola cuando faltan mensajes
+     */
+    public EnemyInterpolator(boolean enabled, long delayMillis, long maxExtrapolationMillis) {
+        this.enabled = enabled;
+        this.delayNanos = Math.max(0, delayMillis) * 1_000_000L;
+        this.maxExtrapolationNanos = Math.max(0, maxExtrapolationMillis) * 1_000_000L;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Agrega los enemigos de un snapshot recién publicado (hilo de red)
+     */
+    public synchronized void record(WorldSnapshot snapshot) {
+        if (!enabled) return;
+        generation++;
+        back.clear();
+        backTracks.clear();
+        long until = Long.MIN_VALUE;
+
+        List<Enemy> enemies = snapshot.enemies;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.id == EntityIds.NONE) continue;
+            Track track = front.get(enemy.id);
+            if (track == null) {
+                track = free.isEmpty() ? new Track() : free.poll();
+                track.count = 0;
+            }
+            track.add(snapshot.createdAt, enemy.x, enemy.y, maxExtrapolationNanos);
+            if (track.generation != generation) {
+                track.generation = generation;
+                back.put(enemy.id, track);
+                backTracks.add(track);
+            }
+            until = Math.max(until, track.movingUntil);
+        }
+        animatingUntil = until;
+
+        // Los que ya no vienen vuelven al pool
+        for (int i = 0; i < frontTracks.size(); i++) {
+            Track track = frontTracks.get(i);
+            if (track.generation != generation) {
+                free.add(track);
+            }
+        }
+
+        IdIndex<Track> swap = front;
+        front = back;
+        back = swap;
+        ArrayList<Track> swapTracks = frontTracks;
+        frontTracks = backTracks;
+        backTracks = swapTracks;
+    }
+
+    /**
+     * @param now System.nanoTime() del frame
+     * @return true si algún enemigo se dibuja en otra posición que en el frame anterior
+     *         (se interpola o se extrapola); false si todos quedaron quietos
+     */
+    public synchronized boolean isAnimating(long now) {
+        return enabled && now - delayNanos < animatingUntil;
+    }
+
+    /**
+     * Calcula la posición a dibujar de cada enemigo de la lista (EDT, una vez por frame)
+     * @param enemies Enemigos del snapshot que se dibuja
+     * @param now System.nanoTime() del frame
+     * @param xs Recibe la x de cada enemigo (mismo índice que en la lista)
+     * @param ys Recibe la y de cada enemigo
+     */
+    public synchronized void sample(List<Enemy> enemies, long now, float[] xs, float[] ys) {
+        long renderTime = now - delayNanos;
+        for (int i = 0; i < enemies.size(); i++) {
+            sampleEnemy(enemies.get(i), renderTime, xs, ys, i);
+        }
+    }
+
+    /**
+     * Igual que sample(), pero solo para los enemigos que encontró una consulta del índice espacial
+     * @param hits Índices en enemies de los enemigos a calcular
+     * @param xs Recibe la x del resultado k de hits en xs[k]
+     */
+    public synchronized void sample(List<Enemy> enemies, SpatialGrid.Hits hits, long now, float[] xs, float[] ys) {
+        long renderTime = now - delayNanos;
+        for (int k = 0; k < hits.size(); k++) {
+            sampleEnemy(enemies.get(hits.get(k)), renderTime, xs, ys, k);
+        }
+    }
+
+    private void sampleEnemy(Enemy enemy, long renderTime, float[] xs, float[] ys, int out) {
+        Track track = enabled && enemy.id != EntityIds.NONE ? front.get(enemy.id) : null;
+        if (track == null || track.count == 0) {
+            xs[out] = enemy.x;
+            ys[out] = enemy.y;
+        } else {
+            sampleTrack(track, renderTime, xs, ys, out);
+        }
+    }
+
+    private void sampleTrack(Track track, long renderTime, float[] xs, float[] ys, int out) {
+        int newest = (track.head + track.count - 1) % SAMPLES;
+        if (track.count == 1 || renderTime <= track.times[track.head]) {
+            // Sin dos puntos para interpolar, o más atrás que lo guardado
+            int index = track.count == 1 ? newest : track.head;
+            xs[out] = track.xs[index];
+            ys[out] = track.ys[index];
+            return;
+        }
+
+        if (renderTime >= track.times[newest]) {
+            // Faltan mensajes: extrapolar con la velocidad de los dos últimos puntos
+            int previous = (newest + SAMPLES - 1) % SAMPLES;
+            long late = renderTime - track.times[newest];
+            if (late > maxExtrapolationNanos) {
+                late = maxExtrapolationNanos;
+                held++;
+            } else {
+                extrapolated++;
+            }
+            float span = track.times[newest] - track.times[previous];
+            float t = late / span;
+            xs[out] = track.xs[newest] + (track.xs[newest] - track.xs[previous]) * t;
+            ys[out] = track.ys[newest] + (track.ys[newest] - track.ys[previous]) * t;
+            return;
+        }
+
+        // Buscar desde el más nuevo el primer punto anterior a renderTime
+        int after = newest;
+        for (int k = track.count - 2; k >= 0; k--) {
+            int before = (track.head + k) % SAMPLES;
+            if (track.times[before] <= renderTime) {
+                float t = (float) (renderTime - track.times[before])
+                        / (track.times[after] - track.times[before]);
+                xs[out] = track.xs[before] + (track.xs[after] - track.xs[before]) * t;
+                ys[out] = track.ys[before] + (track.ys[after] - track.ys[before]) * t;
+                interpolated++;
+                return;
+            }
+            after = before;
+        }
+        xs[out] = track.xs[track.head];
+        ys[out] = track.ys[track.head];
+    }
+
+    // ===== MÉTRICAS =====
+
+    public synchronized long getInterpolated() {
+        return interpolated;
+    }
+
+    public synchronized long getExtrapolated() {
+        return extrapolated;
+    }
+
+    public synchronized long getHeld() {
+        return held;
+    }
+
+    public long getDelayNanos() {
+        return delayNanos;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("interpolados=%d extrapolados=%d detenidos=%d retardo=%.0fms",
+                interpolated, extrapolated, held, delayNanos / 1e6);
+    }
+}
@@ -0,0 +1,45 @@
+package iquick.gameclient;
+
+/**
+ * Tipo de enemigo, resuelto una sola vez al decodificar.
+ * El orden coincide con EnemyType del servidor (C#) y el ordinal es el código
+ * usado por PlayerUpdateCodec y el índice del sprite en GamePanel.
+ */
+public enum EnemyKind {
+    GROUND("Ground"),   // Foca
+    BIRD("Bird"),       // Pájaro
+    ICE("Ice"),         // Témpano
+    FRUIT("Fruit"),     // Tipo base de las frutas en el servidor (no se dibuja como enemigo)
+    UNKNOWN("");        // Nombre o código que el cliente no conoce (no se dibuja)
+
+    private static final EnemyKind[] VALUES = values();
+
+    private final String wireName;   // Nombre tal como lo envía el servidor
+
+    EnemyKind(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    /**
+     * Convierte el nombre recibido del servidor (sin distinguir mayúsculas)
+     * @return Tipo correspondiente, o UNKNOWN si no se reconoce
+     */
+    public static EnemyKind fromWire(String name) {
+        for (EnemyKind kind : VALUES) {
+            if (kind.wireName.equalsIgnoreCase(name)) return kind;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Convierte el código binario (ordinal)
+     * @return Tipo correspondiente, o UNKNOWN si el código no existe
+     */
+    public static EnemyKind fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+}
@@ -0,0 +1,90 @@
+package iquick.gameclient;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Entidades (enemigos o frutas) de un PLAYER_UPDATE junto con lo que cambió
+ * respecto al PLAYER_UPDATE anterior: aparecidas, movidas y desaparecidas.
+ *
+ * Lo arma EntityStore y queda dentro de un WorldSnapshot; mientras ese snapshot
+ * esté publicado o algún lector lo tenga tomado, no se modifica.
+ * Las listas de cambios son relativas al snapshot getFromSequence(): quien se haya
+ * salteado snapshots intermedios debe tratar getItems() como estado completo.
+ */
+public class EntityChanges<T> {
+    final ArrayList<T> items = new ArrayList<>();      // Todas las entidades del mensaje
+    final ArrayList<T> spawned = new ArrayList<>();    // Ids que no estaban en el mensaje anterior
+    final ArrayList<T> moved = new ArrayList<>();      // Ids que cambiaron de posición
+    final ArrayList<T> despawned = new ArrayList<>();  // Instancias anteriores de ids que ya no vienen
+    final SpatialGrid grid = new SpatialGrid();        // Posición de items (mismo índice que en la lista)
+
+    private final List<T> itemsView = Collections.unmodifiableList(items);
+    private final List<T> spawnedView = Collections.unmodifiableList(spawned);
+    private final List<T> movedView = Collections.unmodifiableList(moved);
+    private final List<T> despawnedView = Collections.unmodifiableList(despawned);
+
+    long fromSequence;   // Snapshot contra el que se calcularon los cambios
+    long sequence;       // Snapshot que contiene estas entidades
+    long reusableAt;     // Se recicla cuando nadie lee snapshots anteriores a este número
+
+    /**
+     * @return Conjunto vacío (para el snapshot inicial)
+     */
+    public static <T> EntityChanges<T> empty() {
+        return new EntityChanges<>();
+    }
+
+    void clear() {
+        items.clear();
+        spawned.clear();
+        moved.clear();
+        despawned.clear();
+        grid.clear();
+    }
+
+    /**
+     * @return Todas las entidades (lista no modificable)
+     */
+    public List<T> getItems() {
+        return itemsView;
+    }
+
+    public List<T> getSpawned() {
+        return spawnedView;
+    }
+
+    public List<T> getMoved() {
+        return movedView;
+    }
+
+    /**
+     * @return Última instancia conocida de cada entidad que desapareció
+     */
+    public List<T> getDespawned() {
+        return despawnedView;
+    }
+
+    /**
+     * @return Índice espacial de getItems() (los resultados son índices en esa lista)
+     */
+    public SpatialGrid getGrid() {
+        return grid;
+    }
+
+    public long getFromSequence() {
+        return fromSequence;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return true si no apareció, se movió ni desapareció ninguna entidad
+     */
+    public boolean isUnchanged() {
+        return spawned.isEmpty() && moved.isEmpty() && despawned.isEmpty();
+    }
+}
@@ -0,0 +1,105 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Traduce los ids del servidor a enteros compactos: los GUID en texto de los
+ * mensajes JSON y los ids cortos (u16) de las tramas binarias de PlayerUpdateCodec.
+ * Los dos formatos comparten la numeración, así un id de JSON nunca coincide
+ * con uno binario aunque lleguen mezclados.
+ * Cada id recibe un número la primera vez que aparece y lo conserva mientras
+ * la entidad exista, así las entidades guardan un int en lugar de un String.
+ * Cuando la entidad desaparece (release) el número vuelve a quedar libre, de
+ * modo que la tabla crece con las entidades vivas y no con todas las vistas.
+ * Solo lo usa el hilo de red.
+ */
+public class EntityIds {
+    public static final int NONE = -1;   // Entidad sin id
+    private static final int SHORT_IDS = 1 << 16;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private int[] shortIds;              // Id corto -> id entero + 1 (0 si no tiene); se crea con el primero
+
+    // Id entero -> id del servidor, para poder liberarlo
+    private String[] wireIds = new String[64];
+    private int[] wireShortIds = new int[64];    // -1 si el id no es corto
+
+    private int next = 0;                // Próximo id entero nunca usado
+    private int[] free = new int[16];    // Ids liberados, se reutilizan primero
+    private int freeCount = 0;
+
+    /**
+     * @param wireId Id tal como lo envía el servidor
+     * @return Id entero estable para ese id
+     */
+    public int resolve(String wireId) {
+        Integer id = ids.get(wireId);
+        if (id == null) {
+            id = allocate();
+            ids.put(wireId, id);
+            wireIds[id] = wireId;
+        }
+        return id;
+    }
+
+    /**
+     * @param shortId Id corto de una trama binaria (0 a 65535)
+     * @return Id entero estable para ese id
+     */
+    public int resolveShort(int shortId) {
+        if (shortIds == null) {
+            shortIds = new int[SHORT_IDS];
+        }
+        int id = shortIds[shortId] - 1;
+        if (id < 0) {
+            id = allocate();
+            shortIds[shortId] = id + 1;
+            wireShortIds[id] = shortId;
+        }
+        return id;
+    }
+
+    /**
+     * Libera el id de una entidad que desapareció; si el servidor lo vuelve a
+     * enviar recibe un número nuevo. Liberar un id que no está asignado no hace nada.
+     * @param id Id entero devuelto por resolve o resolveShort
+     */
+    public void release(int id) {
+        if (id < 0 || id >= next) return;
+        if (wireIds[id] != null) {
+            ids.remove(wireIds[id]);
+            wireIds[id] = null;
+        } else if (wireShortIds[id] >= 0) {
+            shortIds[wireShortIds[id]] = 0;
+            wireShortIds[id] = -1;
+        } else {
+            return;
+        }
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = id;
+    }
+
+    private int allocate() {
+        if (freeCount > 0) {
+            return free[--freeCount];
+        }
+        if (next == wireIds.length) {
+            wireIds = Arrays.copyOf(wireIds, next * 2);
+            wireShortIds = Arrays.copyOf(wireShortIds, next * 2);
+            Arrays.fill(wireShortIds, next, next * 2, -1);
+        }
+        wireShortIds[next] = -1;
+        return next++;
+    }
+
+    /**
+     * @return Cantidad de ids asignados (entidades vivas)
+     */
+    public int size() {
+        return next - freeCount;
+    }
+}
@@ -0,0 +1,208 @@
+package iquick.gameclient;
+
+import java.util.ArrayDeque;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Almacén reutilizable de entidades (Enemy o Fruit) indexadas por id entero.
+ *
+ * Cada PLAYER_UPDATE se decodifica sobre instancias sacadas del pool y se
+ * reconcilia por id contra el mensaje anterior para armar un EntityChanges.
+ * Las instancias del mensaje anterior siguen publicadas en un snapshot, así que
+ * no se reescriben: se retiran y vuelven al pool recién cuando ningún lector de
+ * WorldState tiene tomado un snapshot que las contenga.
+ * También arma el índice espacial (SpatialGrid) de las entidades del mensaje
+ * a medida que se agregan.
+ * En régimen estable no se crea ningún objeto por mensaje.
+ *
+ * Solo lo usa el hilo de red.
+ *
+ * Uso: begin(), obtain() + commit() por entidad, finish(...) y publicar el snapshot.
+ */
+public class EntityStore<T> {
+    private final WorldState world;               // Para saber qué snapshots siguen en uso
+    private final Supplier<T> factory;
+    private final Consumer<T> reset;              // Restablece una instancia reciclada
+    private final ToIntFunction<T> idOf;
+    private final BiPredicate<T, T> samePosition;
+    private final ToDoubleFunction<T> xOf;
+    private final ToDoubleFunction<T> yOf;
+
+    private IdIndex<T> front = new IdIndex<>();   // Id -> instancia del último mensaje
+    private IdIndex<T> back = new IdIndex<>();    // Id -> instancia del mensaje en curso
+    private EntityChanges<T> current;             // Último resultado de finish()
+    private EntityChanges<T> replaced;            // Resultado anterior (lo nombran los desaparecidos de current)
+    private EntityChanges<T> building;            // Resultado en construcción
+
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+    private final ArrayDeque<EntityChanges<T>> freeChanges = new ArrayDeque<>();
+    private final ArrayDeque<EntityChanges<T>> retired = new ArrayDeque<>(); // En orden de reusableAt
+
+    // Métricas
+    private long allocated = 0;   // Instancias creadas con factory
+    private long recycled = 0;    // Instancias reutilizadas del pool
+    private long spawnedTotal = 0;
+    private long despawnedTotal = 0;
+
+    /**
+     * @param world Estado donde se publican los snapshots que contienen las entidades
+     * @param factory Crea una instancia nueva cuando el pool está vacío
+     * @param reset Restablece los valores por defecto de una instancia reciclada
+     * @param idOf Obtiene el id de una entidad (EntityIds.NONE si no tiene)
+     * @param samePosition true si dos instancias del mismo id están en la misma posición
+     * @param xOf Posición x en tiles (para el índice espacial)
+     * @param yOf Posición y en tiles
+     */
+    public EntityStore(WorldState world, Supplier<T> factory, Consumer<T> reset,
+                       ToIntFunction<T> idOf, BiPredicate<T, T> samePosition,
+                       ToDoubleFunction<T> xOf, ToDoubleFunction<T> yOf) {
+        this.world = world;
+        this.factory = factory;
+        this.reset = reset;
+        this.idOf = idOf;
+        this.samePosition = samePosition;
+        this.xOf = xOf;
+        this.yOf = yOf;
+    }
+
+    /**
+     * Empieza un mensaje nuevo
+     */
+    public void begin() {
+        reclaim();
+
+        if (building != null) {
+            // El mensaje anterior no terminó (error al decodificar): sus instancias vuelven al pool
+            free.addAll(building.items);
+            building.clear();
+        } else {
+            building = freeChanges.isEmpty() ? new EntityChanges<>() : freeChanges.poll();
+        }
+        back.clear();
+    }
+
+    /**
+     * @return Instancia lista para llenar con los datos de una entidad del mensaje
+     */
+    public T obtain() {
+        T entity = free.poll();
+        if (entity == null) {
+            allocated++;
+            return factory.get();
+        }
+        recycled++;
+        reset.accept(entity);
+        return entity;
+    }
+
+    /**
+     * Agrega al mensaje una entidad ya llenada y la reconcilia por id
+     * @param entity Instancia obtenida con obtain()
+     */
+    public void commit(T entity) {
+        building.items.add(entity);
+        building.grid.add((float) xOf.applyAsDouble(entity), (float) yOf.applyAsDouble(entity));
+
+        int id = idOf.applyAsInt(entity);
+        if (id == EntityIds.NONE) {
+            building.spawned.add(entity);
+            return;
+        }
+
+        T previous = front.get(id);
+        if (previous == null) {
+            building.spawned.add(entity);
+        } else if (!samePosition.test(previous, entity)) {
+            building.moved.add(entity);
+        }
+        back.put(id, entity);
+    }
+
+    /**
+     * Termina el mensaje: calcula las entidades desaparecidas y retira las del mensaje anterior
+     * @param fromSequence Snapshot del que se partió
+     * @param sequence Snapshot que se va a publicar con el resultado
+     * @return Entidades y cambios del mensaje (van dentro del snapshot)
+     */
+    public EntityChanges<T> finish(long fromSequence, long sequence) {
+        EntityChanges<T> result = building;
+        building = null;
+        result.fromSequence = fromSequence;
+        result.sequence = sequence;
+
+        if (current != null) {
+            for (T entity : current.items) {
+                int id = idOf.applyAsInt(entity);
+                if (id != EntityIds.NONE && back.get(id) == null) {
+                    result.despawned.add(entity);
+                }
+            }
+        }
+        // El resultado de hace dos mensajes ya no es alcanzable desde el snapshot nuevo
+        // (los desaparecidos de este mensaje nombran instancias del anterior, no de ese):
+        // se recicla cuando nadie lea snapshots anteriores al que se va a publicar
+        if (replaced != null) {
+            replaced.reusableAt = sequence;
+            retired.add(replaced);
+        }
+        spawnedTotal += result.spawned.size();
+        despawnedTotal += result.despawned.size();
+
+        replaced = current;
+        current = result;
+        IdIndex<T> swap = front;
+        front = back;
+        back = swap;
+        return result;
+    }
+
+    /**
+     * Devuelve al pool lo retirado que ya no puede estar leyendo nadie
+     */
+    private void reclaim() {
+        if (retired.isEmpty()) return;
+        // Ni lo que tiene tomado un lector ni lo que sigue publicado
+        long oldest = Math.min(world.getOldestSequenceInUse(), world.current().sequence);
+        while (!retired.isEmpty() && retired.peek().reusableAt <= oldest) {
+            EntityChanges<T> old = retired.poll();
+            free.addAll(old.items);
+            old.clear();
+            freeChanges.add(old);
+        }
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getAllocated() {
+        return allocated;
+    }
+
+    public long getRecycled() {
+        return recycled;
+    }
+
+    public long getSpawnedTotal() {
+        return spawnedTotal;
+    }
+
+    public long getDespawnedTotal() {
+        return despawnedTotal;
+    }
+
+    /**
+     * @return Instancias libres en el pool
+     */
+    public int getPoolSize() {
+        return free.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("creadas=%d recicladas=%d pool=%d aparecidas=%d desaparecidas=%d",
+                allocated, recycled, free.size(), spawnedTotal, despawnedTotal);
+    }
+}
@@ -0,0 +1,224 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+
+/**
+ * Tiempos de los últimos WINDOW frames dibujados: duración total, tiempo de
+ * cada fase del dibujo, edad del snapshot dibujado y espera en el EDT.
+ *
+ * Sirve para separar las causas de un tirón: si el frame tardó en dibujarse
+ * (fases), si el paint esperó en la cola del EDT (espera) o si el estado ya
+ * llegó viejo (edad del snapshot menos la espera = red + hilo de red).
+ *
+ * El registro no crea objetos: todo vive en arreglos circulares creados al
+ * principio, y la duración de cada frame se cuenta además en un histograma de
+ * 0,1 ms (hasta 50 ms) para calcular percentiles sin ordenar.
+ * Registra un solo hilo (el que dibuja); las consultas pueden hacerse desde
+ * cualquier hilo.
+ */
+public class FrameStats {
+    // Fases del dibujo
+    public static final int MAP = 0;          // Mapa y tiles destruidos
+    public static final int ENEMIES = 1;
+    public static final int FRUITS = 2;
+    public static final int PLAYERS = 3;
+    public static final int UI = 4;
+    public static final int PHASES = 5;
+    static final String[] PHASE_NAMES = {"mapa", "enemigos", "frutas", "jugadores", "HUD"};
+
+    public static final int WINDOW = 240;                   // Frames que se recuerdan (~4 s a 60 FPS)
+    static final long BUCKET_NANOS = 100_000L;              // Resolución del histograma (0,1 ms)
+    static final int BUCKETS = 500;                         // Hasta 50 ms; el último junta los mayores
+    private static final long NO_WAIT = -1;                 // El frame no venía de un pedido con hora
+
+    // Ventana de frames (arreglos circulares)
+    private final long[] starts = new long[WINDOW];
+    private final long[] durations = new long[WINDOW];
+    private final long[][] phases = new long[PHASES][WINDOW];
+    private final long[] ages = new long[WINDOW];
+    private final long[] waits = new long[WINDOW];
+    private final int[] histogram = new int[BUCKETS + 1];
+    private int head = 0;                                   // Próxima posición a escribir
+    private int count = 0;
+    private long frames = 0;
+
+    // Frame en curso (solo el hilo que dibuja)
+    private long frameStart;
+    private long frameAge;
+    private long frameWait;
+    private final long[] framePhases = new long[PHASES];
+
+    /**
+     * Empieza a medir un frame
+     * @param stateAgeNanos Edad del snapshot que se va a dibujar
+     * @param edtWaitNanos Tiempo desde que se pidió el paint, o -1 si no se sabe
+     * @return Instante de inicio (para medir la primera fase)
+     */
+    public long beginFrame(long stateAgeNanos, long edtWaitNanos) {
+        frameStart = System.nanoTime();
+        frameAge = stateAgeNanos;
+        frameWait = edtWaitNanos < 0 ? NO_WAIT : edtWaitNanos;
+        Arrays.fill(framePhases, 0);
+        return frameStart;
+    }
+
+    /**
+     * Suma a una fase el tiempo desde start
+     * @return Instante actual (inicio de la fase siguiente)
+     */
+    public long endPhase(int phase, long start) {
+        long now = System.nanoTime();
+        framePhases[phase] += now - start;
+        return now;
+    }
+
+    /**
+     * Termina el frame y lo agrega a la ventana
+     */
+    public synchronized void endFrame() {
+        long duration = System.nanoTime() - frameStart;
+        if (count == WINDOW) {
+            histogram[bucket(durations[head])]--;
+        } else {
+            count++;
+        }
+        starts[head] = frameStart;
+        durations[head] = duration;
+        for (int phase = 0; phase < PHASES; phase++) {
+            phases[phase][head] = framePhases[phase];
+        }
+        ages[head] = frameAge;
+        waits[head] = frameWait;
+        histogram[bucket(duration)]++;
+        head = (head + 1) % WINDOW;
+        frames++;
+    }
+
+    private static int bucket(long nanos) {
+        return (int) Math.min(BUCKETS, nanos / BUCKET_NANOS);
+    }
+
+    // ===== CONSULTAS =====
+
+    /**
+     * @return Frames registrados desde el inicio
+     */
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return Frames por segundo en la ventana (0 si hay menos de dos frames)
+     */
+    public synchronized double getFps() {
+        if (count < 2) return 0;
+        long newest = starts[(head + WINDOW - 1) % WINDOW];
+        long oldest = starts[(head + WINDOW - count) % WINDOW];
+        return newest == oldest ? 0 : (count - 1) * 1e9 / (newest - oldest);
+    }
+
+    /**
+     * @param quantile Entre 0 y 1 (0.5 = mediana, 0.99 = p99)
+     * @return Duración de frame de ese percentil (límite superior de su intervalo de 0,1 ms)
+     */
+    public synchronized long getPercentileNanos(double quantile) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i <= BUCKETS; i++) {
+            seen += histogram[i];
+            if (seen >= rank) {
+                return i == BUCKETS ? getMaxNanos() : (i + 1) * BUCKET_NANOS;
+            }
+        }
+        return getMaxNanos();
+    }
+
+    /**
+     * @return Frame más lento de la ventana
+     */
+    public synchronized long getMaxNanos() {
+        return max(durations, false);
+    }
+
+    /**
+     * @return Frames de la ventana que duraron entre fromNanos (incluido) y toNanos (excluido)
+     */
+    public synchronized int countBetween(long fromNanos, long toNanos) {
+        int from = bucket(fromNanos);
+        int to = toNanos == Long.MAX_VALUE ? BUCKETS + 1 : bucket(toNanos);
+        int total = 0;
+        for (int i = from; i < to; i++) {
+            total += histogram[i];
+        }
+        return total;
+    }
+
+    public synchronized long getPhaseAverageNanos(int phase) {
+        return average(phases[phase], false);
+    }
+
+    public synchronized long getPhaseMaxNanos(int phase) {
+        return max(phases[phase], false);
+    }
+
+    /**
+     * @return Edad promedio del snapshot al empezar a dibujarlo
+     */
+    public synchronized long getStateAgeAverageNanos() {
+        return average(ages, false);
+    }
+
+    public synchronized long getStateAgeMaxNanos() {
+        return max(ages, false);
+    }
+
+    /**
+     * @return Espera promedio entre el pedido de repaint y el paint (solo frames con pedido)
+     */
+    public synchronized long getEdtWaitAverageNanos() {
+        return average(waits, true);
+    }
+
+    public synchronized long getEdtWaitMaxNanos() {
+        return max(waits, true);
+    }
+
+    /**
+     * Olvida los frames registrados
+     */
+    public synchronized void reset() {
+        Arrays.fill(histogram, 0);
+        head = 0;
+        count = 0;
+    }
+
+    private long average(long[] values, boolean skipUnknown) {
+        long total = 0;
+        int samples = 0;
+        for (int k = 0; k < count; k++) {
+            long value = values[(head + WINDOW - 1 - k) % WINDOW];
+            if (skipUnknown && value == NO_WAIT) continue;
+            total += value;
+            samples++;
+        }
+        return samples == 0 ? 0 : total / samples;
+    }
+
+    private long max(long[] values, boolean skipUnknown) {
+        long max = 0;
+        for (int k = 0; k < count; k++) {
+            long value = values[(head + WINDOW - 1 - k) % WINDOW];
+            if (skipUnknown && value == NO_WAIT) continue;
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("fps=%.1f p50=%.2fms p99=%.2fms max=%.2fms edad=%.2fms espera=%.2fms",
+                getFps(), getPercentileNanos(0.5) / 1e6, getPercentileNanos(0.99) / 1e6, getMaxNanos() / 1e6,
+                getStateAgeAverageNanos() / 1e6, getEdtWaitAverageNanos() / 1e6);
+    }
+}
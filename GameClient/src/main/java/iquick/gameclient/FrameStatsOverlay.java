@@ -0,0 +1,194 @@
+package iquick.gameclient;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Panel de diagnóstico sobre el juego con los datos de FrameStats: FPS,
+ * percentiles y un histograma de la duración de los frames, el tiempo de cada
+ * fase del dibujo, la edad del estado dibujado y la espera en el EDT.
+ *
+ * El panel se vuelve a armar cuatro veces por segundo en una imagen (el texto
+ * en arreglos de char reutilizados); los demás frames solo copian la imagen,
+ * así que mostrarlo casi no altera lo que mide.
+ */
+public class FrameStatsOverlay {
+    // Posición y tamaño en pantalla (esquina superior izquierda)
+    static final int X = 10;
+    static final int Y = 10;
+    static final int WIDTH = 330;
+    static final int HEIGHT = 168;
+
+    private static final long REFRESH_NANOS = 250_000_000L;
+    private static final int LINES = 6;
+    private static final int LINE_HEIGHT = 14;
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+    private static final Color TEXT = Color.WHITE;
+    private static final Color BAR = new Color(80, 200, 120);
+    private static final Color SLOW_BAR = new Color(230, 80, 60);
+
+    // Intervalos del histograma (ms): los que pasan de un frame a 60 FPS se pintan de rojo
+    private static final long[] BAR_LIMITS = {1_000_000L, 2_000_000L, 4_000_000L, 8_000_000L,
+            16_000_000L, 33_000_000L, Long.MAX_VALUE};
+    private static final String[] BAR_LABELS = {"<1", "<2", "<4", "<8", "<16", "<33", "33+"};
+    private static final int BAR_AREA_HEIGHT = 40;
+
+    private final FrameStats stats;
+    private final StringBuilder builder = new StringBuilder(64);
+    private final char[][] lines = new char[LINES][80];
+    private final int[] lengths = new int[LINES];
+    private final int[] bars = new int[BAR_LIMITS.length];
+    private long lastRefresh = 0;
+    private BufferedImage image;
+    private GraphicsConfiguration config;      // Configuración con la que se creó la imagen
+
+    public FrameStatsOverlay(FrameStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * Dibuja el panel en coordenadas de pantalla
+     * @param config Configuración gráfica del destino (null en modo headless)
+     */
+    public void draw(Graphics2D g2d, GraphicsConfiguration config) {
+        long now = System.nanoTime();
+        if (image == null || config != this.config) {
+            if (image != null) {
+                image.flush();
+            }
+            this.config = config;
+            image = config != null
+                    ? config.createCompatibleImage(WIDTH, HEIGHT, Transparency.TRANSLUCENT)
+                    : new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            lastRefresh = now - REFRESH_NANOS;
+        }
+        if (now - lastRefresh >= REFRESH_NANOS) {
+            refresh();
+            Graphics2D g = image.createGraphics();
+            try {
+                render(g);
+            } finally {
+                g.dispose();
+            }
+            lastRefresh = now;
+        }
+        g2d.drawImage(image, X, Y, null);
+    }
+
+    /**
+     * Dibuja el panel en la imagen (coordenadas relativas a la imagen)
+     */
+    private void render(Graphics2D g2d) {
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setFont(FONT);
+        g2d.setColor(TEXT);
+        int baseline = LINE_HEIGHT;
+        for (int i = 0; i < LINES; i++) {
+            g2d.drawChars(lines[i], 0, lengths[i], 6, baseline);
+            baseline += LINE_HEIGHT;
+        }
+
+        // Histograma de la duración de los frames de la ventana
+        int max = 1;
+        for (int count : bars) {
+            max = Math.max(max, count);
+        }
+        int barWidth = (WIDTH - 12) / bars.length;
+        int bottom = HEIGHT - 16;
+        for (int i = 0; i < bars.length; i++) {
+            int x = 6 + i * barWidth;
+            int height = bars[i] == 0 ? 0 : Math.max(1, bars[i] * BAR_AREA_HEIGHT / max);
+            g2d.setColor(BAR_LIMITS[i] > 16_000_000L ? SLOW_BAR : BAR);
+            g2d.fillRect(x, bottom - height, barWidth - 4, height);
+            g2d.setColor(TEXT);
+            g2d.drawString(BAR_LABELS[i], x, bottom + 12);
+        }
+    }
+
+    /**
+     * Vuelve a armar el texto y las barras con los valores actuales
+     */
+    private void refresh() {
+        StringBuilder sb = builder;
+        sb.setLength(0);
+        sb.append("FPS ");
+        appendFixed(sb, (long) (stats.getFps() * 10), 10);
+        sb.append("  frames ").append(stats.getFrames());
+        store(0);
+
+        sb.append("frame p50 ");
+        appendMillis(sb, stats.getPercentileNanos(0.5));
+        sb.append(" p99 ");
+        appendMillis(sb, stats.getPercentileNanos(0.99));
+        sb.append(" max ");
+        appendMillis(sb, stats.getMaxNanos());
+        store(1);
+
+        for (int phase = 0; phase < FrameStats.PHASES; phase++) {
+            if (phase == 3) {
+                store(2);
+            }
+            sb.append(FrameStats.PHASE_NAMES[phase]).append(' ');
+            appendMillis(sb, stats.getPhaseAverageNanos(phase));
+            sb.append("  ");
+        }
+        sb.append("(prom.)");
+        store(3);
+
+        sb.append("edad estado ");
+        appendMillis(sb, stats.getStateAgeAverageNanos());
+        sb.append(" max ");
+        appendMillis(sb, stats.getStateAgeMaxNanos());
+        store(4);
+
+        sb.append("espera EDT  ");
+        appendMillis(sb, stats.getEdtWaitAverageNanos());
+        sb.append(" max ");
+        appendMillis(sb, stats.getEdtWaitMaxNanos());
+        store(5);
+
+        long from = 0;
+        for (int i = 0; i < BAR_LIMITS.length; i++) {
+            bars[i] = stats.countBetween(from, BAR_LIMITS[i]);
+            from = BAR_LIMITS[i];
+        }
+    }
+
+    /**
+     * Copia el texto armado a una línea y vacía el builder
+     */
+    private void store(int line) {
+        int length = Math.min(builder.length(), lines[line].length);
+        builder.getChars(0, length, lines[line], 0);
+        lengths[line] = length;
+        builder.setLength(0);
+    }
+
+    /**
+     * Agrega nanosegundos como milisegundos con dos decimales (sin crear Strings)
+     */
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        appendFixed(sb, nanos / 10_000, 100);
+        sb.append("ms");
+    }
+
+    /**
+     * Agrega value / scale con tantos decimales como ceros tiene scale
+     */
+    private static void appendFixed(StringBuilder sb, long value, long scale) {
+        sb.append(value / scale).append('.');
+        long fraction = value % scale;
+        for (long digit = scale / 10; digit > 0; digit /= 10) {
+            sb.append((char) ('0' + fraction / digit % 10));
+        }
+    }
+}
@@ -1,10 +1,22 @@
 package iquick.gameclient;
 
 public class Fruit {
-    public String id;
+    public int id = EntityIds.NONE;     // Id entero (ver EntityIds)
     public float x;
     public float y;
     public boolean isActive;
-    public String fruitType = "Orange"; // Orange, Banana, Eggplant, Lettuce
+    public FruitKind kind = FruitKind.ORANGE;
     public int points = 100;
-}
\ No newline at end of file
+
+    /**
+     * Restablece los valores por defecto (instancia reciclada por EntityStore)
+     */
+    public void reset() {
+        this.id = EntityIds.NONE;
+        this.x = 0;
+        this.y = 0;
+        this.isActive = false;
+        this.kind = FruitKind.ORANGE;
+        this.points = 100;
+    }
+}
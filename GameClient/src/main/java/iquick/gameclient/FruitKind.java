@@ -0,0 +1,45 @@
+package iquick.gameclient;
+
+/**
+ * Tipo de fruta, resuelto una sola vez al decodificar.
+ * El orden coincide con FruitType del servidor (C#) y el ordinal es el código
+ * usado por PlayerUpdateCodec y el índice del sprite en GamePanel.
+ */
+public enum FruitKind {
+    ORANGE("Orange"),       // Naranja
+    BANANA("Banana"),       // Banano
+    EGGPLANT("Eggplant"),   // Berenjena
+    LETTUCE("Lettuce"),     // Lechuga
+    UNKNOWN("");            // Nombre o código que el cliente no conoce (no se dibuja)
+
+    private static final FruitKind[] VALUES = values();
+
+    private final String wireName;   // Nombre tal como lo envía el servidor
+
+    FruitKind(String wireName) {
+        this.wireName = wireName;
+    }
+
+    public String getWireName() {
+        return wireName;
+    }
+
+    /**
+     * Convierte el nombre recibido del servidor (sin distinguir mayúsculas)
+     * @return Tipo correspondiente, o UNKNOWN si no se reconoce
+     */
+    public static FruitKind fromWire(String name) {
+        for (FruitKind kind : VALUES) {
+            if (kind.wireName.equalsIgnoreCase(name)) return kind;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Convierte el código binario (ordinal)
+     * @return Tipo correspondiente, o UNKNOWN si el código no existe
+     */
+    public static FruitKind fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : UNKNOWN;
+    }
+}
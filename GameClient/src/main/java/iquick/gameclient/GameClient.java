@@ -6,6 +6,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import java.awt.Canvas;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
@@ -22,50 +23,39 @@ public class GameClient extends JFrame {
     // Constantes de configuración de la ventana y del juego
     private static final int WINDOW_WIDTH = 1100;      // Ancho de la ventana
     private static final int WINDOW_HEIGHT = 400;      // Alto de la ventana
-    private static final long INPUT_DELAY = 50;        // Delay entre inputs en milisegundos
-    private static final long ATTACK_DELAY = 500;      // Delay entre ataques en milisegundos
+    private static final Log LOG = Log.get("game");
 
     // Componentes principales del juego
     private ServerConnection server;        // Conexión con el servidor
     private GamePanel gamePanel;           // Panel donde se dibuja el juego
-    private Player player1;               // Primer jugador
-    private Player player2;               // Segundo jugador
-    private Integer playerAbove = null;    // Indica qué jugador está arriba del otro
-    private boolean isPlayer2Active = false;  // Indica si el jugador 2 está activo
+    private ActiveRenderer activeRenderer; // Hilo que dibuja a FPS fijos (null en modo pasivo)
     
-    // Listas de elementos del juego
-    private List<DestroyedTile> destroyedTiles;  // Tiles destruidos que se regenerarán
-    private List<Enemy> enemies;                 // Lista de enemigos
-    private List<Fruit> fruits;                  // Lista de frutas (power-ups)
+    // Estado del mundo publicado por ServerConnection (jugadores, enemigos, frutas, mapa, bonus)
+    private final WorldState world = new WorldState();
+    
+    // Predicción local de los jugadores (se reconcilia con cada PLAYER_UPDATE)
+    private final ClientPrediction prediction = new ClientPrediction();
+    
+    // Historial de posiciones de enemigos para dibujarlos interpolados
+    private final EnemyInterpolator enemyInterpolator = new EnemyInterpolator();
+    
+    // Tiles destruidos que se regenerarán (los modifica el EDT; en modo activo
+    // también los recorre el hilo de renderizado, por eso es copy-on-write)
+    private DestroyedTiles destroyedTiles;
     
     // Timers para control de eventos
-    private Timer inputTimer;           // Timer para procesar inputs
     private Timer regenerationTimer;    // Timer para regenerar tiles
 
     // Manejador de entrada del usuario
     private InputHandler inputHandler;
-    
-    // Control de timing para evitar spam de inputs
-    private long lastInputTime = 0;
-    private long lastPlayer1AttackTime = 0;
-    private long lastPlayer2AttackTime = 0;
-
-    // Datos del mapa del juego
-    private int[][] gameMap;    // Matriz que representa el mapa
-    private int mapWidth;       // Ancho del mapa
-    private int mapHeight;      // Alto del mapa
-    
+    private InputDispatcher inputDispatcher;  // Hilo que envía los comandos al llegar cada tecla
+
     // Componentes para la pantalla de Game Over
     private boolean gameOverState = false;
     private JPanel gameOverPanel;
     private JButton restartButton;
     private JLayeredPane layeredPane;  // Panel en capas para superponer Game Over
     
-    // Variables para la fase bonus del juego
-    private boolean isBonusPhase = false;    // Indica si estamos en fase bonus
-    private int bonusPlayerId = -1;          // ID del jugador que tiene el bonus
-    private int bonusTimeRemaining = 0;      // Tiempo restante de la fase bonus
-    
     // Sistema de observadores para espectadores
     private final List<GameObserver> observers = new ArrayList<>();
     private static int spectatorCount = 0;
@@ -77,11 +67,7 @@ public class GameClient extends JFrame {
      */
     public GameClient() {
         // Inicializar objetos del juego
-        this.player1 = new Player();
-        this.player2 = new Player();
-        this.destroyedTiles = new ArrayList<>();
-        this.enemies = new ArrayList<>();
-        this.fruits = new ArrayList<>();
+        this.destroyedTiles = new DestroyedTiles();
         this.inputHandler = new InputHandler();
 
         // Configurar la interfaz de usuario
@@ -90,8 +76,8 @@ public class GameClient extends JFrame {
         // Conectar al servidor
         connectToServer();
         
-        // Iniciar los timers del juego
-        startInputTimer();
+        // Iniciar el envío de entradas y el timer de regeneración
+        startInputDispatcher();
         startRegenerationTimer();
         
         // Configurar el atajo para espectadores
@@ -111,7 +97,9 @@ public class GameClient extends JFrame {
         setLocationRelativeTo(null);  // Centrar la ventana
 
         // Crear el panel principal del juego
-        gamePanel = new GamePanel(player1, player2, destroyedTiles, enemies, fruits);
+        gamePanel = new GamePanel(world, destroyedTiles);
+        gamePanel.setPrediction(prediction);
+        gamePanel.setEnemyInterpolator(enemyInterpolator);
 
         // Crear el panel de Game Over
         createGameOverPanel();
@@ -124,7 +112,15 @@ public class GameClient extends JFrame {
         gamePanel.setBounds(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
         gameOverPanel.setBounds(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
 
-        layeredPane.add(gamePanel, JLayeredPane.DEFAULT_LAYER);    // Capa base
+        if (ClientConfig.useActiveRendering()) {
+            // Modo activo: se muestra un Canvas y el panel solo se usa para dibujar
+            activeRenderer = new ActiveRenderer(gamePanel, ClientConfig.renderFps(), this::usePassiveRendering);
+            Canvas canvas = activeRenderer.getCanvas();
+            canvas.setBounds(0, 0, WINDOW_WIDTH, WINDOW_HEIGHT);
+            layeredPane.add(canvas, JLayeredPane.DEFAULT_LAYER);
+        } else {
+            layeredPane.add(gamePanel, JLayeredPane.DEFAULT_LAYER);    // Capa base
+        }
         layeredPane.add(gameOverPanel, JLayeredPane.POPUP_LAYER);  // Capa superior
 
         add(layeredPane);
@@ -134,6 +130,22 @@ public class GameClient extends JFrame {
         setFocusable(true);
         requestFocus();
         setVisible(true);
+        
+        if (activeRenderer != null) {
+            activeRenderer.start();
+        }
+    }
+    
+    /**
+     * Vuelve al renderizado pasivo (JPanel + repaint) cuando el modo activo falla
+     */
+    private void usePassiveRendering() {
+        if (activeRenderer == null) return;
+        layeredPane.remove(activeRenderer.getCanvas());
+        activeRenderer = null;
+        layeredPane.add(gamePanel, JLayeredPane.DEFAULT_LAYER);
+        layeredPane.revalidate();
+        gamePanel.repaint();
     }
     
     /**
@@ -144,7 +156,7 @@ public class GameClient extends JFrame {
         try {
             server = new ServerConnection("localhost", 8888, this);
             gamePanel.setConnectionStatus(true);
-            System.out.println("Conectado al servidor.");
+            LOG.info("Conectado al servidor", "transporte", ClientConfig.TRANSPORT);
         } catch (IOException e) {
             JOptionPane.showMessageDialog(this,
                 "No se pudo conectar al servidor.",
@@ -154,22 +166,45 @@ public class GameClient extends JFrame {
         }
     }
 
-    // ===== MÉTODOS GETTER Y SETTER PARA ACCESO DESDE SERVERCONNECTION =====
+    // ===== MÉTODOS GETTER PARA ACCESO DESDE SERVERCONNECTION Y ESPECTADORES =====
+    
+    /**
+     * Obtiene el punto de publicación del estado del mundo.
+     * ServerConnection publica allí cada snapshot; los paneles solo lo leen.
+     * @return Estado del mundo
+     */
+    public WorldState getWorld() {
+        return world;
+    }
     
     /**
-     * Obtiene la referencia del jugador 1.
+     * @return Predicción local de los jugadores
+     */
+    public ClientPrediction getPrediction() {
+        return prediction;
+    }
+    
+    /**
+     * @return Interpolación de enemigos (compartida con los espectadores)
+     */
+    public EnemyInterpolator getEnemyInterpolator() {
+        return enemyInterpolator;
+    }
+    
+    /**
+     * Obtiene el jugador 1 del último snapshot (no debe modificarse).
      * @return Objeto Player del jugador 1
      */
     public Player getPlayer1() {
-        return player1;
+        return world.current().player1;
     }
     
     /**
-     * Obtiene la referencia del jugador 2.
+     * Obtiene el jugador 2 del último snapshot (no debe modificarse).
      * @return Objeto Player del jugador 2
      */
     public Player getPlayer2() {
-        return player2;
+        return world.current().player2;
     }
     
     /**
@@ -177,7 +212,8 @@ public class GameClient extends JFrame {
      * @return ID del jugador superior o null si no hay superposición
      */
     public Integer getPlayerAbove() {
-        return playerAbove;
+        int above = world.current().playerAbove;
+        return above > 0 ? above : null;
     }
     
     /**
@@ -187,30 +223,13 @@ public class GameClient extends JFrame {
     public GamePanel getGamePanel() {
         return gamePanel;
     }
- 
-    /**
-     * Establece qué jugador está encima del otro.
-     * @param playerAbove ID del jugador superior
-     */
-    public void setPlayerAbove(Integer playerAbove) {
-        this.playerAbove = playerAbove;
-    }
     
     /**
      * Verifica si el jugador 2 está activo en el juego.
      * @return true si el jugador 2 está activo
      */
     public boolean isPlayer2Active() {
-        return isPlayer2Active;
-    }
-    
-    /**
-     * Activa o desactiva el jugador 2.
-     * @param active true para activar el jugador 2
-     */
-    public void setPlayer2Active(boolean active) {
-        this.isPlayer2Active = active;
-        gamePanel.setPlayer2Active(active);
+        return world.current().isPlayer2Active;
     }
     
     /**
@@ -218,16 +237,7 @@ public class GameClient extends JFrame {
      * @return true si está en fase bonus
      */
     public boolean isBonusPhase() {
-        return isBonusPhase;
-    }
-
-    /**
-     * Establece si el juego está en fase bonus.
-     * @param bonusPhase true para activar la fase bonus
-     */
-    public void setBonusPhase(boolean bonusPhase) {
-        this.isBonusPhase = bonusPhase;
-        gamePanel.setBonusPhase(bonusPhase);
+        return world.current().isBonusPhase;
     }
 
     /**
@@ -235,16 +245,7 @@ public class GameClient extends JFrame {
      * @return ID del jugador con bonus (-1 si no hay)
      */
     public int getBonusPlayerId() {
-        return bonusPlayerId;
-    }
-
-    /**
-     * Establece el ID del jugador que tiene el bonus.
-     * @param bonusPlayerId ID del jugador con bonus
-     */
-    public void setBonusPlayerId(int bonusPlayerId) {
-        this.bonusPlayerId = bonusPlayerId;
-        gamePanel.setBonusPlayerId(bonusPlayerId);
+        return world.current().bonusPlayerId;
     }
 
     /**
@@ -252,54 +253,48 @@ public class GameClient extends JFrame {
      * @return Tiempo restante en segundos
      */
     public int getBonusTimeRemaining() {
-        return bonusTimeRemaining;
-    }
-
-    /**
-     * Establece el tiempo restante de la fase bonus.
-     * @param bonusTimeRemaining Tiempo restante en segundos
-     */
-    public void setBonusTimeRemaining(int bonusTimeRemaining) {
-        this.bonusTimeRemaining = bonusTimeRemaining;
-        gamePanel.setBonusTimeRemaining(bonusTimeRemaining);
+        return world.current().bonusTimeRemaining;
     }
     
     /**
-     * Obtiene la lista de enemigos del juego.
+     * Obtiene la lista de enemigos del último snapshot (no modificable).
      * @return Lista de enemigos
      */
     public List<Enemy> getEnemies() {
-        return enemies;
+        return world.current().enemies;
     }
     
     /**
-     * Obtiene la lista de frutas del juego.
+     * Obtiene la lista de frutas del último snapshot (no modificable).
      * @return Lista de frutas
      */
     public List<Fruit> getFruits() {
-        return fruits;
+        return world.current().fruits;
     }
     
     /**
-     * Actualiza el mapa del juego con nuevos datos del servidor.
-     * @param gameMap Matriz del mapa
-     * @param mapWidth Ancho del mapa
-     * @param mapHeight Alto del mapa
+     * Se llama cuando llegó un mapa completo nuevo (ya publicado en el snapshot).
      */
-    public void updateMap(int[][] gameMap, int mapWidth, int mapHeight) {
-        this.gameMap = gameMap;
-        this.mapWidth = mapWidth;
-        this.mapHeight = mapHeight;
-        gamePanel.updateMap(gameMap, mapWidth, mapHeight);
+    public void updateMap() {
+        gamePanel.repaint();
         notifyObservers();  // Notificar a los espectadores
     }
     
     /**
-     * Obtiene la matriz del mapa del juego.
+     * Aplica un MAP incremental: el snapshot publicado ya contiene los tiles
+     * modificados, que los paneles ubican al comparar sus filas con las dibujadas.
+     */
+    public void applyMapChanges() {
+        gamePanel.repaintChanged();
+        notifyObservers();  // Notificar a los espectadores
+    }
+    
+    /**
+     * Obtiene la matriz del mapa del último snapshot (no debe modificarse).
      * @return Matriz bidimensional del mapa
      */
     public int[][] getGameMap() {
-        return gameMap;
+        return world.current().map;
     }
 
     /**
@@ -307,7 +302,7 @@ public class GameClient extends JFrame {
      * @return Ancho del mapa en tiles
      */
     public int getMapWidth() {
-        return mapWidth;
+        return world.current().mapWidth;
     }
 
     /**
@@ -315,14 +310,14 @@ public class GameClient extends JFrame {
      * @return Alto del mapa en tiles
      */
     public int getMapHeight() {
-        return mapHeight;
+        return world.current().mapHeight;
     }
 
     /**
-     * Obtiene la lista de tiles destruidos.
-     * @return Lista de tiles destruidos
+     * Obtiene los tiles destruidos.
+     * @return Tiles destruidos (con su índice espacial)
      */
-    public List<DestroyedTile> getDestroyedTiles() {
+    public DestroyedTiles getDestroyedTiles() {
         return destroyedTiles;
     }
 
@@ -332,7 +327,7 @@ public class GameClient extends JFrame {
      * @param y Coordenada Y del tile
      */
     public void addDestroyedTile(int x, int y) {
-        destroyedTiles.add(new DestroyedTile(x, y));
+        destroyedTiles.add(x, y);
     }
     
     /**
@@ -341,19 +336,7 @@ public class GameClient extends JFrame {
      * @param y Coordenada Y del tile
      */
     public void removeDestroyedTile(int x, int y) {
-        destroyedTiles.removeIf(tile -> tile.x == x && tile.y == y);
-    }
-    
-    /**
-     * Actualiza un tile específico del mapa.
-     * @param x Coordenada X del tile
-     * @param y Coordenada Y del tile
-     * @param value Nuevo valor del tile
-     */
-    public void updateMapTile(int x, int y, int value) {
-        if (validTile(x, y)) {
-            gameMap[y][x] = value;
-        }
+        destroyedTiles.remove(x, y);
     }
     
     // ===== SISTEMA DE OBSERVADORES PARA ESPECTADORES =====
@@ -387,7 +370,10 @@ public class GameClient extends JFrame {
      * Redibuja el panel del juego y notifica a los observadores.
      */
     public void repaintGame() {
-        gamePanel.repaint();
+        // En modo activo el hilo de renderizado dibuja a su ritmo; el panel no está en la ventana
+        if (activeRenderer == null) {
+            gamePanel.repaintChanged();
+        }
         notifyObservers();  // Notificar a los espectadores
     }
     
@@ -401,22 +387,13 @@ public class GameClient extends JFrame {
     }
 
     /**
-     * Verifica si las coordenadas de un tile son válidas.
-     * @param x Coordenada X
-     * @param y Coordenada Y
-     * @return true si las coordenadas están dentro del mapa
+     * Conecta el teclado con el hilo que envía los comandos.
+     * Cada tecla sale en cuanto llega su evento, sin esperar a un timer.
      */
-    private boolean validTile(int x, int y) {
-        return x >= 0 && x < mapWidth && y >= 0 && y < mapHeight;
-    }
-
-    /**
-     * Inicia el timer que procesa los inputs del usuario.
-     * Se ejecuta cada 16ms (aproximadamente 60 FPS).
-     */
-    private void startInputTimer() {
-        inputTimer = new Timer(16, e -> handleInput());
-        inputTimer.start();
+    private void startInputDispatcher() {
+        inputDispatcher = new InputDispatcher(world, server, prediction);
+        inputDispatcher.start();
+        inputHandler.setListener(inputDispatcher);
     }
 
     /**
@@ -480,126 +457,6 @@ public class GameClient extends JFrame {
         });
     }
 
-    /**
-     * Procesa los inputs del usuario y los envía al servidor.
-     * Maneja diferentes lógicas para fase normal y fase bonus.
-     */
-    private void handleInput() {
-        long now = System.currentTimeMillis();
-        // Control de delay entre inputs para evitar spam
-        if (now - lastInputTime < INPUT_DELAY) return;
-
-        boolean sent = false;
-
-        // LÓGICA PARA FASE BONUS
-        if (isBonusPhase) {
-            // Solo el jugador con bonus puede controlar en esta fase
-            if (bonusPlayerId == 1) {
-                // Player 1 controla en fase bonus
-                if (inputHandler.isPlayer1AttackPressed() && now - lastPlayer1AttackTime >= ATTACK_DELAY) {
-                    server.send("X");
-                    inputHandler.resetPlayer1Attack();
-                    lastPlayer1AttackTime = now;
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer1LeftPressed()) {
-                    server.send("A");
-                    sent = true;
-                } else if (inputHandler.isPlayer1RightPressed()) {
-                    server.send("D");
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer1JumpPressed()) {
-                    server.send("W");
-                    inputHandler.resetPlayer1Jump();
-                    sent = true;
-                }
-            } else if (bonusPlayerId == 2 && isPlayer2Active) {
-                // Player 2 controla en fase bonus (solo si está activo)
-                if (inputHandler.isPlayer2AttackPressed() && now - lastPlayer2AttackTime >= ATTACK_DELAY) {
-                    server.send("SPACE");
-                    inputHandler.resetPlayer2Attack();
-                    lastPlayer2AttackTime = now;
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer2LeftPressed()) {
-                    server.send("LEFT");
-                    sent = true;
-                } else if (inputHandler.isPlayer2RightPressed()) {
-                    server.send("RIGHT");
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer2JumpPressed()) {
-                    server.send("JUMP");
-                    inputHandler.resetPlayer2Jump();
-                    sent = true;
-                }
-            }
-        } else {
-            // LÓGICA NORMAL DEL JUEGO
-            
-            // Verificar si se presionó 'I' para activar Player 2
-            if (inputHandler.isActivatePlayer2Pressed() && !isPlayer2Active) {
-                server.send("P");
-                inputHandler.resetActivatePlayer2();
-                sent = true;
-            }
-
-            // Manejar input del Player 1
-            if (inputHandler.isPlayer1AttackPressed() && now - lastPlayer1AttackTime >= ATTACK_DELAY) {
-                server.send("X");
-                inputHandler.resetPlayer1Attack();
-                lastPlayer1AttackTime = now;
-                sent = true;
-            }
-
-            if (inputHandler.isPlayer1LeftPressed()) {
-                server.send("A");
-                sent = true;
-            } else if (inputHandler.isPlayer1RightPressed()) {
-                server.send("D");
-                sent = true;
-            }
-
-            if (inputHandler.isPlayer1JumpPressed()) {
-                server.send("W");
-                inputHandler.resetPlayer1Jump();
-                sent = true;
-            }
-
-            // Manejar input del Player 2 (solo si está activo)
-            if (isPlayer2Active) {
-                if (inputHandler.isPlayer2AttackPressed() && now - lastPlayer2AttackTime >= ATTACK_DELAY) {
-                    server.send("P");  // Nota: Parece ser un error, debería ser "SPACE"
-                    inputHandler.resetPlayer2Attack();
-                    lastPlayer2AttackTime = now;
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer2LeftPressed()) {
-                    server.send("LEFT");
-                    sent = true;
-                } else if (inputHandler.isPlayer2RightPressed()) {
-                    server.send("RIGHT");
-                    sent = true;
-                }
-
-                if (inputHandler.isPlayer2JumpPressed()) {
-                    server.send("JUMP");
-                    inputHandler.resetPlayer2Jump();
-                    sent = true;
-                }
-            }
-        }
-
-        // Actualizar timestamp del último input enviado
-        if (sent) lastInputTime = now;
-    }
-
     /**
      * Inicia el timer que maneja la regeneración de tiles destruidos.
      * Se ejecuta cada 100ms para verificar qué tiles están listos para regenerarse.
@@ -622,7 +479,7 @@ public class GameClient extends JFrame {
             
             // Redibujar si hubo cambios
             if (!ready.isEmpty()) {
-                SwingUtilities.invokeLater(() -> gamePanel.repaint());
+                SwingUtilities.invokeLater(gamePanel::repaintChanged);
             }
         });
         regenerationTimer.start();
@@ -631,12 +488,15 @@ public class GameClient extends JFrame {
     /**
      * Configura el atajo de teclado para abrir ventanas de espectador.
      * Presionar 'O' abre una nueva ventana de espectador (máximo 2 por cliente).
+     * F3 muestra u oculta el panel de diagnóstico de frames.
      */
     private void setupSpectatorShortcut() {
         addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_O) {
+                if (e.getKeyCode() == KeyEvent.VK_F3) {
+                    gamePanel.toggleStatsOverlay();
+                } else if (e.getKeyCode() == KeyEvent.VK_O) {
                     // Verificar límite de espectadores
                     if (spectatorCount >= MAX_SPECTATORS_PER_CLIENT) {
                         JOptionPane.showMessageDialog(null, 
@@ -661,13 +521,14 @@ public class GameClient extends JFrame {
     public void dispose() {
         // Detener timers
         if (regenerationTimer != null) regenerationTimer.stop();
-        if (inputTimer != null) inputTimer.stop();
+        if (inputDispatcher != null) inputDispatcher.close();
+        if (activeRenderer != null) activeRenderer.stop();
         
         // Cerrar conexión con el servidor
         try {
             if (server != null) server.close();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.error("Error cerrando la conexión", e);
         }
         
         super.dispose();
@@ -684,7 +545,7 @@ public class GameClient extends JFrame {
                 // Usar el Look & Feel del sistema operativo
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
             } catch (Exception e) {
-                System.out.println("Usando L&F por defecto");
+                LOG.info("Usando L&F por defecto");
             }
 
             // Verificar si se intenta ejecutar en modo espectador directamente
@@ -13,6 +13,26 @@ public class GameMap {
     // Alto del mapa (número de filas)
     private int height;
 
+    /**
+     * Crea un mapa vacío, que se carga con loadFromJson.
+     */
+    public GameMap() {
+    }
+
+    /**
+     * Crea un mapa sobre una matriz ya cargada, sin copiarla
+     * (por ejemplo el mapa de un WorldSnapshot, cuyas filas no se modifican).
+     *
+     * @param tiles Matriz de tiles indexada como tiles[y][x]
+     * @param width Ancho del mapa (número de columnas)
+     * @param height Alto del mapa (número de filas)
+     */
+    public GameMap(int[][] tiles, int width, int height) {
+        this.tiles = tiles;
+        this.width = width;
+        this.height = height;
+    }
+
     /**
      * Carga el mapa desde un objeto JSON que contiene las dimensiones y los datos del mapa.
      * 
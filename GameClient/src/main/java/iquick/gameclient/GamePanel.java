@@ -2,6 +2,8 @@ package iquick.gameclient;
 
 import javax.swing.*;
 import java.awt.*;
+import java.net.URL;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -9,36 +11,75 @@ import java.util.List;
  * Incluye jugadores, enemigos, frutas, mapa y efectos especiales
  */
 public class GamePanel extends JPanel {
+    private static final Log LOG = Log.get("ui");
+    private static final String ASSETS = "/iquick/gameclient/assets/";
+    
     // Constantes para definir el tamaño de los elementos del juego
     private static final int TILE_SIZE = 30;     // Tamaño de cada casilla del mapa
     private static final int PLAYER_SIZE = 30;   // Tamaño de los jugadores
     private static final int ENEMY_SIZE = 25;    // Tamaño base de los enemigos
+    private static final int FRUIT_SIZE = 25;    // Tamaño de las frutas
+    
+    // Margen (en tiles) de las consultas al índice espacial alrededor de la vista
+    private static final float ENEMY_MARGIN_TILES = 4f;  // La interpolación los dibuja lejos de la última posición
+    private static final float FRUIT_MARGIN_TILES = 1f;  // Brillo y puntos alrededor del sprite
+    
+    // Recursos fijos del dibujo (se crean una sola vez, no por frame)
+    private static final Color FRUIT_GLOW = new Color(255, 255, 255, 80);
+    private static final Color DESTROYED_TILE_COLOR = new Color(255, 255, 0, 100); // Amarillo semi-transparente
+    private static final Color INVULNERABLE_COLOR = new Color(255, 255, 255, 100);
+    private static final Font MESSAGE_FONT = new Font("Arial", Font.BOLD, 24);
+    
+    // Etiquetas "+puntos" de las frutas y "P1"/"P2" de los jugadores, ya dibujadas
+    private final LabelCache fruitLabels = new LabelCache("+", new Font("Arial", Font.BOLD, 8), Color.BLACK);
+    private final LabelCache playerLabels = new LabelCache("P", new Font("Arial", Font.BOLD, 12), Color.WHITE);
+    
+    // HUD (se vuelve a armar solo cuando cambian los valores que muestra)
+    private final HudLayer hud = new HudLayer();
+    
+    // Estado del mundo: jugadores, enemigos, frutas, mapa y fase bonus
+    private final WorldState world;              // Snapshots publicados por ServerConnection
+    private WorldState.Reader reader;            // Toma el snapshot mientras se dibuja (sus entidades no se reciclan)
+    private WorldSnapshot frame = WorldSnapshot.EMPTY; // Snapshot que se está dibujando (uno por frame)
     
-    // Referencias a los elementos del juego
-    private Player player1;                      // Jugador 1 (POPO - controlado con WASD)
-    private Player player2;                      // Jugador 2 (NANA - controlado con flechas)
-    private Integer playerAbove = null;          // Indica qué jugador está "encima" (prioridad de cámara)
-    private boolean isPlayer2Active = false;     // Si el jugador 2 está activo en la partida
+    // Predicción local de los jugadores (null en espectadores: se dibuja la posición del servidor)
+    private ClientPrediction prediction;
+    private final float[] predicted = new float[2];  // Posición predicha del jugador que se dibuja
     
-    // Listas de elementos del juego
-    private List<DestroyedTile> destroyedTiles;  // Tiles que han sido destruidos
-    private List<Enemy> enemies;                 // Lista de enemigos activos
-    private List<Fruit> fruits;                  // Lista de frutas coleccionables
+    // Interpolación de enemigos (null = última posición recibida)
+    private EnemyInterpolator enemyInterpolator;
+    private float[] enemyXs = new float[64];     // Posición a dibujar de cada enemigo visible
+    private float[] enemyYs = new float[64];
     
-    // Datos del mapa
-    private int[][] gameMap;                     // Matriz que representa el mapa del juego
-    private int mapWidth;                        // Ancho del mapa en tiles
-    private int mapHeight;                       // Alto del mapa en tiles
+    // Entidades cerca de la vista, según el índice espacial del snapshot
+    private final SpatialGrid.Hits hits = new SpatialGrid.Hits();
+    
+    // Tiles que han sido destruidos (estado local del EDT)
+    private final DestroyedTiles destroyedTiles;
     
     // Sistema de cámara
     private int cameraX = 0;                     // Posición X de la cámara
     private int cameraY = 0;                     // Posición Y de la cámara
     
     // Estados del juego
-    private boolean isConnected = false;         // Estado de conexión al servidor
-    private boolean isBonusPhase = false;        // Si está en fase bonus
-    private int bonusPlayerId = -1;              // ID del jugador que activó la fase bonus
-    private int bonusTimeRemaining = 0;          // Tiempo restante de la fase bonus
+    private volatile boolean isConnected = false; // Estado de conexión al servidor
+    
+    // Superficie del frame en curso (el panel, o el Canvas en modo de renderizado activo)
+    private int viewWidth;
+    private int viewHeight;
+    private GraphicsConfiguration viewConfig;    // null en modo headless
+    private long frameNanos;                     // Instante del frame (interpolación, predicción)
+    private long frameMillis;                    // Instante del frame (parpadeos)
+    
+    // Zonas que cambiaron desde el último frame (solo modo pasivo, en el EDT)
+    private final DirtyRegions dirty = new DirtyRegions(TILE_SIZE);
+    private boolean tracking = false;            // El frame en curso registra lo que dibuja
+    private boolean checking = false;            // repaintChanged() está comparando
+    private WorldSnapshot pendingFrame;          // Snapshot ya comparado que dibuja el próximo paint
+    private boolean repaintPending = false;      // repaintChanged() pidió un paint que no llegó
+    private boolean blinkShown;                  // Fase del parpadeo de tiles bonus del último frame
+    private final Timer animationTimer;          // Redibuja a FPS de pantalla mientras hay enemigos interpolándose
+    private final Rectangle clip = new Rectangle();
     
     private Image tileSolidImg;
     private Image player1Img;
@@ -51,55 +92,216 @@ public class GamePanel extends JPanel {
     private Image tempanoImg;
     private Image birdImg;
     
+    // Copias pre-escaladas de las imágenes al tamaño en que se dibujan
+    private final SpriteCache sprites = new SpriteCache();
+    private final int player1Sprite;
+    private final int player2Sprite;
+    
+    // Sprites indexados por ordinal de EnemyKind / FruitKind (SpriteCache.NONE = no se dibuja)
+    private final int[] enemySprites = new int[EnemyKind.values().length];
+    private final int[] fruitSprites = new int[FruitKind.values().length];
+    
+    // Mapa pre-dibujado en bloques (se redibuja solo el bloque donde cambia un tile)
+    private final TileLayerCache tileLayer;
+    
+    // Tiempos de los frames y panel de diagnóstico (se muestra u oculta con F3)
+    private final FrameStats frameStats = new FrameStats();
+    private final FrameStatsOverlay statsOverlay = new FrameStatsOverlay(frameStats);
+    private volatile boolean statsVisible = ClientConfig.showStatsOverlay();
+    
     /**
      * Constructor del panel de juego
      * Inicializa todas las referencias y configura el panel
+     * @param world Estado del mundo del que se lee un snapshot por frame
+     * @param destroyedTiles Tiles destruidos (los modifica el EDT)
      */
-    public GamePanel(Player player1, Player player2, List<DestroyedTile> destroyedTiles, 
-                     List<Enemy> enemies, List<Fruit> fruits) {
-        this.player1 = player1;
-        this.player2 = player2;
+    public GamePanel(WorldState world, DestroyedTiles destroyedTiles) {
+        this.world = world;
         this.destroyedTiles = destroyedTiles;
-        this.enemies = enemies;
-        this.fruits = fruits;
         setBackground(Color.WHITE);              // Fondo blanco para el juego
         setPreferredSize(new Dimension(1100, 400)); // Tamaño fijo del panel
-        tileSolidImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/tileSolidImg.png")).getImage();
-        player1Img = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/POPO.jpg")).getImage();
-        player2Img = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/NANA.png")).getImage();
-        naranjaImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/naranja.png")).getImage();
-        bananoImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/banano.png")).getImage();
-        berenjenaImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/berenjena.png")).getImage();
-        lechugaImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/lechuga.jpg")).getImage();
-        focaImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/foca.png")).getImage();
-        birdImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/bird.png")).getImage();
-        tempanoImg = new ImageIcon(getClass().getResource("/iquick/gameclient/assets/tempano.png")).getImage();
+        tileSolidImg = loadImage("tileSolidImg.png");
+        player1Img = loadImage("POPO.jpg");
+        player2Img = loadImage("NANA.png");
+        naranjaImg = loadImage("naranja.png");
+        bananoImg = loadImage("banano.png");
+        berenjenaImg = loadImage("berenjena.png");
+        lechugaImg = loadImage("lechuga.jpg");
+        focaImg = loadImage("foca.png");
+        birdImg = loadImage("bird.png");
+        tempanoImg = loadImage("tempano.png");
+        tileLayer = new TileLayerCache(TILE_SIZE, sprites, sprites.register(tileSolidImg, TILE_SIZE, TILE_SIZE));
+        player1Sprite = sprites.register(player1Img, PLAYER_SIZE, PLAYER_SIZE);
+        player2Sprite = sprites.register(player2Img, PLAYER_SIZE, PLAYER_SIZE);
+        
+        Arrays.fill(enemySprites, SpriteCache.NONE);
+        Arrays.fill(fruitSprites, SpriteCache.NONE);
+        enemySprites[EnemyKind.GROUND.ordinal()] = sprites.register(focaImg, ENEMY_SIZE, ENEMY_SIZE);
+        enemySprites[EnemyKind.BIRD.ordinal()] = sprites.register(birdImg, ENEMY_SIZE, ENEMY_SIZE);
+        enemySprites[EnemyKind.ICE.ordinal()] = sprites.register(tempanoImg, ENEMY_SIZE, ENEMY_SIZE);
+        fruitSprites[FruitKind.ORANGE.ordinal()] = sprites.register(naranjaImg, FRUIT_SIZE, FRUIT_SIZE);
+        fruitSprites[FruitKind.BANANA.ordinal()] = sprites.register(bananoImg, FRUIT_SIZE, FRUIT_SIZE);
+        fruitSprites[FruitKind.EGGPLANT.ordinal()] = sprites.register(berenjenaImg, FRUIT_SIZE, FRUIT_SIZE);
+        fruitSprites[FruitKind.LETTUCE.ordinal()] = sprites.register(lechugaImg, FRUIT_SIZE, FRUIT_SIZE);
+        
+        int periodMillis = (int) Math.max(1, Math.round(1000 / ClientConfig.renderFps()));
+        animationTimer = new Timer(periodMillis, e -> repaintChanged());
     }
     
     /**
-     * Actualiza los datos del mapa y dispara un repaint
+     * Carga una imagen de los assets
+     * @return La imagen, o null si no está (su sprite no se dibuja)
      */
-    public void updateMap(int[][] gameMap, int mapWidth, int mapHeight) {
-        this.gameMap = gameMap;
-        this.mapWidth = mapWidth;
-        this.mapHeight = mapHeight;
-        repaint(); // Redibuja el panel
+    private static Image loadImage(String asset) {
+        URL url = GamePanel.class.getResource(ASSETS + asset);
+        if (url == null) {
+            LOG.warn("Falta una imagen, no se dibujará", "asset", asset);
+            return null;
+        }
+        return new ImageIcon(url).getImage();
     }
     
-    // Métodos para controlar la fase bonus
-    public void setBonusPhase(boolean bonusPhase) {
-        this.isBonusPhase = bonusPhase;
-        repaint();
+    /**
+     * Dibuja los jugadores en la posición predicha en lugar de la última del servidor
+     * @param prediction Predicción local, o null para desactivarla
+     */
+    public void setPrediction(ClientPrediction prediction) {
+        this.prediction = prediction;
     }
-
-    public void setBonusPlayerId(int bonusPlayerId) {
-        this.bonusPlayerId = bonusPlayerId;
-        repaint();
+    
+    /**
+     * Dibuja los enemigos interpolados entre mensajes del servidor
+     * @param enemyInterpolator Historial de posiciones, o null para desactivarlo
+     */
+    public void setEnemyInterpolator(EnemyInterpolator enemyInterpolator) {
+        this.enemyInterpolator = enemyInterpolator;
     }
-
-    public void setBonusTimeRemaining(int bonusTimeRemaining) {
-        this.bonusTimeRemaining = bonusTimeRemaining;
-        repaint();
+    
+    /**
+     * Redibuja solo las zonas que cambiaron con el último snapshot publicado
+     * (modo pasivo). Si cambió algo que no se puede ubicar (la cámara, el HUD,
+     * el parpadeo de los tiles bonus) redibuja todo el panel.
+     * Puede llamarse desde cualquier hilo: la comparación se hace en el EDT.
+     */
+    public void repaintChanged() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::repaintChanged);
+            return;
+        }
+        if (!isShowing()) {
+            // No se va a dibujar pronto: no retener un snapshot
+            animationTimer.stop();
+            repaint();
+            return;
+        }
+        if (reader == null) {
+            reader = world.newReader();
+        }
+        // El snapshot comparado es el que se dibuja después, con el mismo instante
+        WorldSnapshot next = reader.acquire();
+        long nanos = System.nanoTime();
+        long millis = System.currentTimeMillis();
+        boolean changed = checkChanges(next, nanos, millis);
+        keepAnimating(nanos);
+        boolean overlay = statsVisible;
+        if (!changed && !overlay && !repaintPending) {
+            reader.release();
+            return;
+        }
+        pendingFrame = next;
+        frameNanos = nanos;
+        frameMillis = millis;
+        repaintPending = true;
+        if (overlay) {
+            // El panel de diagnóstico cambia en cada frame
+            repaint(FrameStatsOverlay.X, FrameStatsOverlay.Y, FrameStatsOverlay.WIDTH, FrameStatsOverlay.HEIGHT);
+        }
+        if (!changed) return;
+        if (dirty.isFull()) {
+            repaint();
+        } else {
+            repaint(dirty.getX(), dirty.getY(), dirty.getWidth(), dirty.getHeight());
+        }
+    }
+    
+    /**
+     * Los enemigos interpolados se mueven entre mensajes: mientras alguno no esté
+     * quieto se sigue comparando y redibujando al ritmo de la pantalla, no del servidor
+     */
+    private void keepAnimating(long nanos) {
+        boolean animating = enemyInterpolator != null && enemyInterpolator.isAnimating(nanos);
+        if (animating && !animationTimer.isRunning()) {
+            animationTimer.start();
+        } else if (!animating && animationTimer.isRunning()) {
+            animationTimer.stop();
+        }
+    }
+    
+    /**
+     * Compara un snapshot con lo dibujado en el último frame
+     * @return true si hay que redibujar (dirty tiene la zona, o isFull())
+     */
+    private boolean checkChanges(WorldSnapshot snapshot, long nanos, long millis) {
+        int width = getWidth();
+        int height = getHeight();
+        if (snapshot.map != null) {
+            updateCamera(snapshot, width, height);
+        }
+        if (!dirty.beginCheck(cameraX, cameraY, width, height)) {
+            return dirty.endCheck();
+        }
+        boolean blink = (millis / 300) % 2 == 0;
+        if (!isConnected || snapshot.map == null || hud.isStale(snapshot)
+                || (blink != blinkShown && tileLayer.hasVisibleBonusTiles())) {
+            dirty.markFull();
+            return dirty.endCheck();
+        }
+        dirty.expectMap(snapshot.map, snapshot.mapWidth, snapshot.mapHeight);
+        WorldSnapshot drawn = frame;
+        checking = true;
+        try {
+            frame = snapshot;
+            frameNanos = nanos;
+            frameMillis = millis;
+            // Las mismas cuentas que al dibujar, pero comparando en lugar de dibujar
+            DestroyedTiles.View tiles = destroyedTiles.current();
+            queryView(tiles.getGrid(), 0);
+            for (int k = 0; k < hits.size(); k++) {
+                tileRegion(tiles.get(hits.get(k)));
+            }
+            List<Enemy> enemies = snapshot.enemies;
+            queryView(snapshot.enemyChanges.getGrid(), ENEMY_MARGIN_TILES);
+            sampleEnemies(enemies);
+            for (int k = 0; k < hits.size(); k++) {
+                Enemy enemy = enemies.get(hits.get(k));
+                if (enemy.isActive && enemy.kind != EnemyKind.UNKNOWN) {
+                    enemyRegion(enemy, enemyDrawX(k), enemyDrawY(k));
+                }
+            }
+            List<Fruit> fruits = snapshot.fruits;
+            queryView(snapshot.fruitChanges.getGrid(), FRUIT_MARGIN_TILES);
+            boolean glow = isFruitGlowing();
+            for (int k = 0; k < hits.size(); k++) {
+                Fruit fruit = fruits.get(hits.get(k));
+                if (fruit.isActive && fruit.kind != FruitKind.UNKNOWN) {
+                    fruitRegion(fruit, toScreen(fruit.x, FRUIT_SIZE), toScreen(fruit.y, FRUIT_SIZE), glow);
+                }
+            }
+            checkPlayer(snapshot.player1, 1);
+            if (snapshot.isPlayer2Active && snapshot.player2 != null) {
+                checkPlayer(snapshot.player2, 2);
+            }
+        } finally {
+            frame = drawn;
+            checking = false;
+        }
+        return dirty.endCheck();
+    }
+    
+    private void checkPlayer(Player player, int playerId) {
+        if (!isPlayerShown(player, playerId)) return;
+        predictPlayer(player, playerId);
+        playerRegion(player, playerId, toScreen(predicted[0], PLAYER_SIZE), toScreen(predicted[1], PLAYER_SIZE));
     }
     
     /**
@@ -107,10 +309,15 @@ public class GamePanel extends JPanel {
      * En fase bonus sigue solo al jugador que la activó
      * En juego normal sigue al jugador con prioridad o al que esté vivo
      */
-    private void updateCamera() {
+    private void updateCamera(WorldSnapshot snapshot, int width, int height) {
+        Player player1 = snapshot.player1;
+        Player player2 = snapshot.player2;
+        boolean isPlayer2Active = snapshot.isPlayer2Active;
+        int bonusPlayerId = snapshot.bonusPlayerId;
+        int playerAbove = snapshot.playerAbove;
         Player targetPlayer = null;
 
-        if (isBonusPhase) {
+        if (snapshot.isBonusPhase) {
             // En fase bonus, seguir solo al jugador que la activó
             if (bonusPlayerId == 1 && player1.isAlive) {
                 targetPlayer = player1;
@@ -119,9 +326,9 @@ public class GamePanel extends JPanel {
             }
         } else {
             // Lógica normal de cámara basada en prioridad y estado de jugadores
-            if (playerAbove != null && playerAbove == 2 && isPlayer2Active && player2.isAlive) {
+            if (playerAbove == 2 && isPlayer2Active && player2.isAlive) {
                 targetPlayer = player2;
-            } else if (playerAbove != null && playerAbove == 1 && player1.isAlive) {
+            } else if (playerAbove == 1 && player1.isAlive) {
                 targetPlayer = player1;
             } else if (player1.isAlive) {
                 targetPlayer = player1;
@@ -132,12 +339,12 @@ public class GamePanel extends JPanel {
 
         // Calcular posición de cámara centrada en el jugador objetivo
         if (targetPlayer != null) {
-            int targetX = (int)(targetPlayer.x * TILE_SIZE) - getWidth() / 2;
-            int targetY = (int)(targetPlayer.y * TILE_SIZE) - (getHeight() / 3);
+            int targetX = (int)(targetPlayer.x * TILE_SIZE) - width / 2;
+            int targetY = (int)(targetPlayer.y * TILE_SIZE) - (height / 3);
 
             // Límites para que la cámara no se salga del mapa
-            int maxCameraX = (mapWidth * TILE_SIZE) - getWidth();
-            int maxCameraY = (mapHeight * TILE_SIZE) - getHeight() / 2;
+            int maxCameraX = (snapshot.mapWidth * TILE_SIZE) - width;
+            int maxCameraY = (snapshot.mapHeight * TILE_SIZE) - height / 2;
 
             // Aplicar los límites
             cameraX = Math.max(0, Math.min(targetX, maxCameraX));
@@ -145,19 +352,33 @@ public class GamePanel extends JPanel {
         }
     }
     
-    // Métodos para actualizar el estado del juego
-    public void setConnectionStatus(boolean connected) {
-        this.isConnected = connected;
-        repaint();
+    /**
+     * @return Tiempos de los últimos frames dibujados por este panel
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
     }
     
-    public void setPlayer2Active(boolean active) {
-        this.isPlayer2Active = active;
+    /**
+     * Muestra u oculta el panel de diagnóstico (FPS, tiempos por fase, edad del estado)
+     */
+    public void setStatsOverlayVisible(boolean visible) {
+        statsVisible = visible;
         repaint();
     }
     
-    public void setPlayerAbove(Integer playerAbove) {
-        this.playerAbove = playerAbove;
+    public boolean isStatsOverlayVisible() {
+        return statsVisible;
+    }
+    
+    public void toggleStatsOverlay() {
+        setStatsOverlayVisible(!statsVisible);
+    }
+    
+    // Métodos para actualizar el estado del juego
+    public void setConnectionStatus(boolean connected) {
+        this.isConnected = connected;
+        repaint();
     }
     
     /**
@@ -167,115 +388,184 @@ public class GamePanel extends JPanel {
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
+        // Lo registrado solo coincide con la pantalla si se redibujó todo el panel
+        // o la zona que pidió repaintChanged()
+        clip.setBounds(0, 0, getWidth(), getHeight());
+        Rectangle bounds = g.getClipBounds(clip);
+        boolean trusted = repaintPending || bounds.contains(0, 0, getWidth(), getHeight());
+        tracking = true;
+        try {
+            render((Graphics2D) g, getWidth(), getHeight(), getGraphicsConfiguration());
+        } finally {
+            tracking = false;
+            repaintPending = false;
+        }
+        if (!trusted) {
+            dirty.reset();
+        }
+    }
+    
+    /**
+     * Dibuja un frame completo (con fondo) sobre otra superficie: el Canvas del
+     * modo de renderizado activo o una imagen. Debe llamarse siempre desde el
+     * mismo hilo, que es el que después llama a releaseResources().
+     * @param config Configuración gráfica de la superficie (null en modo headless)
+     */
+    public void paintTo(Graphics2D g2d, int width, int height, GraphicsConfiguration config) {
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, width, height);
+        render(g2d, width, height, config);
+    }
+    
+    private void render(Graphics2D g2d, int width, int height, GraphicsConfiguration config) {
+        viewWidth = width;
+        viewHeight = height;
+        viewConfig = config;
+        // Tomar el último snapshot publicado: todo el frame se dibuja con el mismo estado
+        if (reader == null) {
+            reader = world.newReader();
+        }
+        long edtWait = -1;
+        if (tracking && pendingFrame != null) {
+            // Dibujar exactamente lo que comparó repaintChanged()
+            frame = pendingFrame;
+            edtWait = System.nanoTime() - frameNanos;
+        } else {
+            frame = reader.acquire();
+            frameNanos = System.nanoTime();
+            frameMillis = System.currentTimeMillis();
+        }
+        pendingFrame = null;
+        try {
+            frameStats.beginFrame(frame.getAgeNanos(), edtWait);
+            paintFrame(g2d);
+            if (statsVisible) {
+                statsOverlay.draw(g2d, viewConfig);
+            }
+            frameStats.endFrame();
+        } finally {
+            reader.release();
+        }
+    }
+    
+    /**
+     * Libera el lector y las imágenes del mapa cuando el panel se quita de su ventana
+     * (por ejemplo al cerrar un espectador)
+     */
+    @Override
+    public void removeNotify() {
+        super.removeNotify();
+        releaseResources();
+    }
+    
+    /**
+     * Libera el lector de snapshots y las imágenes en caché
+     * (se vuelven a crear si se dibuja otro frame)
+     */
+    public void releaseResources() {
+        animationTimer.stop();
+        pendingFrame = null;
+        repaintPending = false;
+        dirty.reset();
+        tileLayer.clear();
+        sprites.clear();
+        fruitLabels.clear();
+        playerLabels.clear();
+        if (reader != null) {
+            reader.close();
+            reader = null;
+        }
+    }
+    
+    /**
+     * Dibuja el frame completo a partir del snapshot tomado
+     */
+    private void paintFrame(Graphics2D g2d) {
         // Activar antialiasing para gráficos más suaves
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // Pantalla de conexión
         if (!isConnected) {
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 24));
-            g2d.drawString("Conectando al servidor...", getWidth()/2 - 150, getHeight()/2);
+            g2d.setFont(MESSAGE_FONT);
+            g2d.drawString("Conectando al servidor...", viewWidth/2 - 150, viewHeight/2);
+            if (tracking) dirty.reset();
             return;
         }
 
         // Pantalla de error (servidor lleno)
-        if (gameMap == null) {
+        if (frame.map == null) {
             g2d.setColor(Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 24));
-            g2d.drawString("Numero maximo de juegos alcanzado, cierre esta ventana", getWidth()/2 - 300, getHeight()/2);
+            g2d.setFont(MESSAGE_FONT);
+            g2d.drawString("Numero maximo de juegos alcanzado, cierre esta ventana", viewWidth/2 - 300, viewHeight/2);
+            if (tracking) dirty.reset();
             return;
         }
 
         // Actualizar la posición de la cámara
-        updateCamera();
+        updateCamera(frame, viewWidth, viewHeight);
+        if (tracking) {
+            dirty.beginPaint(cameraX, cameraY, viewWidth, viewHeight, frame.map);
+        }
 
         // Aplicar transformación de cámara para elementos del mundo
         g2d.translate(-cameraX, -cameraY);
 
-        // Dibujar elementos del mundo (afectados por la cámara)
+        // Dibujar elementos del mundo (afectados por la cámara), midiendo cada fase
+        long time = System.nanoTime();
         drawMap(g2d);
         drawDestroyedTiles(g2d);
+        time = frameStats.endPhase(FrameStats.MAP, time);
         drawEnemies(g2d);
+        time = frameStats.endPhase(FrameStats.ENEMIES, time);
         drawFruits(g2d);
+        time = frameStats.endPhase(FrameStats.FRUITS, time);
 
         // Dibujar jugadores
-        drawPlayer(g2d, player1, Color.BLUE, "P1");
-        if (isPlayer2Active && player2 != null) {
-            drawPlayer(g2d, player2, Color.RED, "P2");
+        drawPlayer(g2d, frame.player1, Color.BLUE, "P1");
+        if (frame.isPlayer2Active && frame.player2 != null) {
+            drawPlayer(g2d, frame.player2, Color.RED, "P2");
         }
+        time = frameStats.endPhase(FrameStats.PLAYERS, time);
 
         // Resetear transformación para UI (no afectada por cámara)
         g2d.translate(cameraX, cameraY);
 
         // Dibujar interfaz de usuario (fija en pantalla)
         drawUI(g2d);
+        frameStats.endPhase(FrameStats.UI, time);
+        
+        if (tracking) {
+            dirty.endPaint();
+        }
     }
     
     /**
-     * Dibuja el mapa del juego con optimización de culling
-     * Solo dibuja los tiles visibles en pantalla
+     * Dibuja el mapa del juego a partir de los bloques pre-dibujados
+     * Solo se copian los bloques visibles en pantalla
      */
     private void drawMap(Graphics2D g2d) {
-        // Calcular qué tiles están visibles (culling)
-        int startX = Math.max(0, cameraX / TILE_SIZE - 1);
-        int endX = Math.min(mapWidth, (cameraX + getWidth()) / TILE_SIZE + 2);
-        int startY = Math.max(0, cameraY / TILE_SIZE - 1);
-        int endY = Math.min(mapHeight, (cameraY + getHeight()) / TILE_SIZE + 2);
-
-        // Dibujar solo los tiles visibles
-        for (int y = startY; y < endY; y++) {
-            for (int x = startX; x < endX; x++) {
-                int tileType = gameMap[y][x];
-                int drawX = x * TILE_SIZE;
-                int drawY = y * TILE_SIZE;
-
-                switch (tileType) {
-                    case 1: // Bloque sólido normal
-                        g2d.drawImage(tileSolidImg, drawX, drawY, TILE_SIZE, TILE_SIZE, null);
-
-                        g2d.setColor(Color.WHITE);
-                        g2d.drawRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        break;
-                        
-                    case 2: // Bloque bonus (activa fase especial)
-                        if (isBonusPhase) {
-                            // Durante fase bonus: apariencia normal
-                            g2d.setColor(Color.ORANGE);
-                            g2d.fillRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-                            g2d.setColor(Color.YELLOW);
-                            g2d.drawRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-                        } else {
-                            // Fuera de fase bonus: efecto llamativo
-                            g2d.setColor(Color.MAGENTA);
-                            g2d.fillRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-                            g2d.setColor(Color.CYAN);
-                            g2d.drawRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-
-                            // Efecto de parpadeo para llamar la atención
-                            if ((System.currentTimeMillis() / 300) % 2 == 0) {
-                                g2d.setColor(new Color(255, 255, 255, 100));
-                                g2d.fillRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
-                            }
-                        }
-                        break;
-                }
-            }
-        }
+        boolean blink = (frameMillis / 300) % 2 == 0;
+        tileLayer.draw(g2d, frame, cameraX, cameraY, viewWidth, viewHeight, blink, viewConfig);
+        blinkShown = blink;
     }
     
     /**
      * Dibuja los tiles destruidos con efecto semi-transparente
      */
     private void drawDestroyedTiles(Graphics2D g2d) {
-        g2d.setColor(new Color(255, 255, 0, 100)); // Amarillo semi-transparente
-        for (DestroyedTile tile : destroyedTiles) {
+        g2d.setColor(DESTROYED_TILE_COLOR);
+        DestroyedTiles.View tiles = destroyedTiles.current();
+        queryView(tiles.getGrid(), 0);
+        for (int k = 0; k < hits.size(); k++) {
+            DestroyedTile tile = tiles.get(hits.get(k));
             int drawX = tile.x * TILE_SIZE;
             int drawY = tile.y * TILE_SIZE;
+            tileRegion(tile);
 
             // Solo dibujar si está visible (culling)
-            if (drawX + TILE_SIZE >= cameraX && drawX <= cameraX + getWidth() &&
-                drawY + TILE_SIZE >= cameraY && drawY <= cameraY + getHeight()) {
+            if (drawX + TILE_SIZE >= cameraX && drawX <= cameraX + viewWidth &&
+                drawY + TILE_SIZE >= cameraY && drawY <= cameraY + viewHeight) {
                 g2d.fillRect(drawX, drawY, TILE_SIZE, TILE_SIZE);
             }
         }
@@ -284,37 +574,29 @@ public class GamePanel extends JPanel {
     /**
      * Dibuja enemigos con diferentes tipos y efectos visuales
      * Cada tipo de enemigo tiene su propia apariencia distintiva
+     * (foca para GROUND, témpano para ICE, pájaro para BIRD)
      */
     private void drawEnemies(Graphics2D g2d) {
-        Image foca = focaImg;
-        Image bird = birdImg;
-        Image tempano = tempanoImg;
-        for (Enemy enemy : enemies) {
-            if (enemy.isActive) {
-                int drawX = (int)(enemy.x * TILE_SIZE) + (TILE_SIZE - ENEMY_SIZE) / 2;
-                int drawY = (int)(enemy.y * TILE_SIZE) + (TILE_SIZE - ENEMY_SIZE) / 2;
+        int[] kindSprites = enemySprites;
+        GraphicsConfiguration config = viewConfig;
+        List<Enemy> enemies = frame.enemies;
+        // Solo los enemigos cerca de la vista, sin recorrer la lista entera
+        queryView(frame.enemyChanges.getGrid(), ENEMY_MARGIN_TILES);
+        sampleEnemies(enemies);
+        
+        for (int k = 0; k < hits.size(); k++) {
+            Enemy enemy = enemies.get(hits.get(k));
+            if (enemy.isActive && enemy.kind != EnemyKind.UNKNOWN) {
+                int drawX = enemyDrawX(k);
+                int drawY = enemyDrawY(k);
+                enemyRegion(enemy, drawX, drawY);
 
                 // Culling: solo dibujar si está visible
-                if (drawX + ENEMY_SIZE >= cameraX && drawX <= cameraX + getWidth() &&
-                    drawY + ENEMY_SIZE >= cameraY && drawY <= cameraY + getHeight()) {
+                if (drawX + ENEMY_SIZE >= cameraX && drawX <= cameraX + viewWidth &&
+                    drawY + ENEMY_SIZE >= cameraY && drawY <= cameraY + viewHeight) {
 
                     // Dibujar según el tipo de enemigo
-                    switch (enemy.enemyType.toUpperCase()) {
-                        case "GROUND":
-                            // Enemigo básico verde
-                            g2d.drawImage(focaImg, drawX, drawY, ENEMY_SIZE, ENEMY_SIZE, null);
-                            break;
-
-                        case "ICE":
-                            // Enemigo rápido con efecto de velocidad
-                            g2d.drawImage(tempanoImg, drawX, drawY, ENEMY_SIZE, ENEMY_SIZE, null);
-                            break;
-
-                        case "BIRD":
-                            // Enemigo volador
-                            g2d.drawImage(birdImg, drawX, drawY, ENEMY_SIZE, ENEMY_SIZE, null);
-                            break;
-                    }
+                    sprites.draw(g2d, kindSprites[enemy.kind.ordinal()], drawX, drawY, config);
                 }
             }
         }
@@ -324,55 +606,34 @@ public class GamePanel extends JPanel {
      * Dibuja las frutas coleccionables con diferentes tipos y efectos
      */
     private void drawFruits(Graphics2D g2d) {
-        Image fruit1 = naranjaImg;
-        Image fruit2 = bananoImg;
-        Image fruit3 = berenjenaImg;
-        Image fruit4 = lechugaImg;  
-        for (Fruit fruit : fruits) {
-            if (fruit.isActive) {
-                int drawX = (int)(fruit.x * TILE_SIZE) + (TILE_SIZE - 25) / 2;
-                int drawY = (int)(fruit.y * TILE_SIZE) + (TILE_SIZE - 25) / 2;
+        int[] kindSprites = fruitSprites;
+        GraphicsConfiguration config = viewConfig;
+        // El brillo parpadea igual para todas las frutas del frame
+        boolean glow = isFruitGlowing();
+        List<Fruit> fruits = frame.fruits;
+        queryView(frame.fruitChanges.getGrid(), FRUIT_MARGIN_TILES);
+        for (int k = 0; k < hits.size(); k++) {
+            Fruit fruit = fruits.get(hits.get(k));
+            if (fruit.isActive && fruit.kind != FruitKind.UNKNOWN) {
+                int drawX = toScreen(fruit.x, FRUIT_SIZE);
+                int drawY = toScreen(fruit.y, FRUIT_SIZE);
+                fruitRegion(fruit, drawX, drawY, glow);
 
                 // Culling
-                if (drawX + 25 >= cameraX && drawX <= cameraX + getWidth() &&
-                    drawY + 25 >= cameraY && drawY <= cameraY + getHeight()) {
+                if (drawX + FRUIT_SIZE >= cameraX && drawX <= cameraX + viewWidth &&
+                    drawY + FRUIT_SIZE >= cameraY && drawY <= cameraY + viewHeight) {
 
                     // Dibujar según el tipo de fruta
-                    switch (fruit.fruitType.toUpperCase()) {
-                        case "ORANGE":
-                            // Naranja con hoja
-                            g2d.drawImage(fruit1, drawX, drawY, 25, 25, null);
-                            break;
-
-                        case "BANANA":
-                            // Plátano curvo
-                            g2d.drawImage(fruit2, drawX, drawY, 25, 25, null);
-                            break;
-
-                        case "EGGPLANT":
-                            // Berenjena púrpura
-                            g2d.drawImage(fruit3, drawX, drawY, 25, 25, null);
-                            break;
-
-                        case "LETTUCE":
-                            // Lechuga con textura de hojas
-                            g2d.drawImage(fruit4, drawX, drawY, 25, 25, null);
-                            break;                    
-                    }
+                    sprites.draw(g2d, kindSprites[fruit.kind.ordinal()], drawX, drawY, config);
 
                     // Efecto de brillo para indicar que es coleccionable
-                    if ((System.currentTimeMillis() / 500) % 2 == 0) {
-                        g2d.setColor(new Color(255, 255, 255, 80));
-                        g2d.fillOval(drawX - 2, drawY - 2, 29, 29);
+                    if (glow) {
+                        g2d.setColor(FRUIT_GLOW);
+                        g2d.fillOval(drawX - 2, drawY - 2, FRUIT_SIZE + 4, FRUIT_SIZE + 4);
                     }
 
                     // Mostrar puntos que otorga
-                    g2d.setColor(Color.BLACK);
-                    g2d.setFont(new Font("Arial", Font.BOLD, 8));
-                    String pointsText = "+" + fruit.points;
-                    FontMetrics fm = g2d.getFontMetrics();
-                    int textWidth = fm.stringWidth(pointsText);
-                    g2d.drawString(pointsText, drawX + (25 - textWidth) / 2, drawY + 35);
+                    fruitLabels.drawCentered(g2d, fruit.points, drawX, FRUIT_SIZE, drawY + 35, config);
                 }
             }
         }
@@ -382,31 +643,24 @@ public class GamePanel extends JPanel {
      * Dibuja un jugador con todos sus efectos visuales
      */
     private void drawPlayer(Graphics2D g2d, Player player, Color playerColor, String playerLabel) {
-        Image img = playerLabel.equals("P1") ? player1Img : player2Img;
-        if (!player.isAlive) return;
-        
-        // Durante la fase bonus, solo mostrar el jugador activo
-        if (isBonusPhase) {
-            if (playerLabel.equals("P1") && bonusPlayerId != 1) {
-                return;
-            }
-            if (playerLabel.equals("P2") && bonusPlayerId != 2) {
-                return;
-            }
-        }
+        int sprite = playerLabel.equals("P1") ? player1Sprite : player2Sprite;
+        int playerId = playerLabel.equals("P1") ? 1 : 2;
+        if (!isPlayerShown(player, playerId)) return;
         
-        int drawX = (int)(player.x * TILE_SIZE) + (TILE_SIZE - PLAYER_SIZE) / 2;
-        int drawY = (int)(player.y * TILE_SIZE) + (TILE_SIZE - PLAYER_SIZE) / 2;
+        predictPlayer(player, playerId);
+        int drawX = toScreen(predicted[0], PLAYER_SIZE);
+        int drawY = toScreen(predicted[1], PLAYER_SIZE);
+        playerRegion(player, playerId, drawX, drawY);
         
         // Efecto de parpadeo cuando está dañado
-        if (player.isDamaged && (System.currentTimeMillis() - player.damageTime) % 200 < 100) {
+        if (isDamageBlinking(player)) {
             g2d.setColor(Color.WHITE);
         } else {
             g2d.setColor(playerColor);
         }
         
         // Cuerpo del jugador
-        g2d.drawImage(img, drawX, drawY, PLAYER_SIZE, PLAYER_SIZE, null);
+        sprites.draw(g2d, sprite, drawX, drawY, viewConfig);
         
         // Borde
         g2d.setColor(Color.WHITE);
@@ -419,15 +673,11 @@ public class GamePanel extends JPanel {
         }
         
         // Etiqueta del jugador
-        g2d.setColor(Color.WHITE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
-        FontMetrics fm = g2d.getFontMetrics();
-        int labelWidth = fm.stringWidth(playerLabel);
-        g2d.drawString(playerLabel, drawX + (PLAYER_SIZE - labelWidth) / 2, drawY - 5);
+        playerLabels.drawCentered(g2d, playerId, drawX, PLAYER_SIZE, drawY - 5, viewConfig);
         
         // Efecto de invulnerabilidad
         if (player.isInvulnerable) {
-            g2d.setColor(new Color(255, 255, 255, 100));
+            g2d.setColor(INVULNERABLE_COLOR);
             g2d.fillRect(drawX - 5, drawY - 5, PLAYER_SIZE + 10, PLAYER_SIZE + 10);
         }
     }
@@ -437,80 +687,111 @@ public class GamePanel extends JPanel {
      * Información de estadísticas, controles e instrucciones
      */
     private void drawUI(Graphics2D g2d) {
-        // Información del Player 1 (POPO)
-        g2d.setColor(Color.BLUE);
-        g2d.setFont(new Font("Arial", Font.BOLD, 16));
-        g2d.drawString("POPO (WASD + X)", 800, 30);
-        g2d.drawString("Vidas: " + player1.lives, 800, 50);
-        g2d.drawString("Score: " + player1.score, 800, 70);
-        g2d.drawString("Estado: " + (player1.isAlive ? "Vivo" : "Muerto"), 800, 90);
-        
-        // Información sobre observadores
-        g2d.setColor(Color.MAGENTA);
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString("Pulse la tecla O para agregar observers", 800, getHeight() - 170);
-
-        // Información del Player 2 (NANA) si está activo
-        if (isPlayer2Active && player2 != null) {
-            g2d.setColor(Color.RED);
-            g2d.drawString("NANA (Flechas + P)", 800, 130);
-            g2d.drawString("Vidas: " + player2.lives, 800, 150);
-            g2d.drawString("Score: " + player2.score, 800, 170);
-            g2d.drawString("Estado: " + (player2.isAlive ? "Vivo" : "Muerto"), 800, 190);
+        hud.draw(g2d, frame, viewWidth, viewHeight, viewConfig);
+    }
+    
+    // ===== POSICIONES COMPARTIDAS ENTRE EL DIBUJO Y repaintChanged() =====
+    
+    /**
+     * @return Coordenada en píxeles del mundo de un elemento de tamaño size centrado en su tile
+     */
+    private static int toScreen(float tile, int size) {
+        return (int)(tile * TILE_SIZE) + (TILE_SIZE - size) / 2;
+    }
+    
+    /**
+     * Durante la fase bonus, solo se muestra el jugador que la activó
+     */
+    private boolean isPlayerShown(Player player, int playerId) {
+        return player.isAlive && (!frame.isBonusPhase || frame.bonusPlayerId == playerId);
+    }
+    
+    /**
+     * Deja en predicted la posición predicha si hay predicción local; si no, la del servidor
+     */
+    private void predictPlayer(Player player, int playerId) {
+        if (prediction == null || !prediction.predict(playerId, frameNanos, predicted)) {
+            predicted[0] = player.x;
+            predicted[1] = player.y;
         }
-
-        // Información de la fase bonus
-        if (isBonusPhase) {
-            g2d.setColor(Color.YELLOW);
-            g2d.setFont(new Font("Arial", Font.BOLD, 18));
-            g2d.drawString("¡FASE BONUS!", getWidth() - 200, 290);
-
-            String playerName = bonusPlayerId == 1 ? "POPO" : "NANA";
-            g2d.setFont(new Font("Arial", Font.BOLD, 14));
-            g2d.drawString("Jugador: " + playerName, getWidth() - 200, 320);
-
-            // Contador de tiempo con colores según urgencia
-            int seconds = bonusTimeRemaining / 1000;
-            g2d.setColor(seconds <= 10 ? Color.RED : Color.WHITE);
-            g2d.setFont(new Font("Arial", Font.BOLD, 16));
-            g2d.drawString("Tiempo: " + seconds + "s", getWidth() -200, 350);
-
-            // Barra de progreso (código incompleto)
-            float progress = (float) bonusTimeRemaining / 30000f; // 30 segundos total
-            if (progress > 0.5f) {
-                g2d.setColor(Color.GREEN);
-            } else if (progress > 0.25f) {
-                g2d.setColor(Color.YELLOW);
-            } else {
-                g2d.setColor(Color.RED);
-            }
-            g2d.setColor(Color.WHITE);
+    }
+    
+    /**
+     * Consulta un índice espacial con la vista (en tiles) agrandada en margin tiles;
+     * el resultado queda en hits. El sprite se extiende un tile desde la posición.
+     */
+    private void queryView(SpatialGrid grid, float margin) {
+        float left = (float) cameraX / TILE_SIZE - 1 - margin;
+        float top = (float) cameraY / TILE_SIZE - 1 - margin;
+        float right = (float) (cameraX + viewWidth) / TILE_SIZE + margin;
+        float bottom = (float) (cameraY + viewHeight) / TILE_SIZE + margin;
+        grid.queryRect(left, top, right, bottom, hits);
+    }
+    
+    /**
+     * Deja en enemyXs/enemyYs la posición a dibujar de cada enemigo de hits (mismo orden)
+     */
+    private void sampleEnemies(List<Enemy> enemies) {
+        if (enemyXs.length < hits.size()) {
+            enemyXs = new float[hits.size() * 2];
+            enemyYs = new float[hits.size() * 2];
         }
-        
-        // Indicador de conexión
-        g2d.setColor(Color.GREEN);
-        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-        g2d.drawString("Conectado al servidor", getWidth() - 150, 20);
-        
-        // Información de controles (solo si no está en fase bonus)
-        if (!isBonusPhase) {
-            g2d.setColor(Color.LIGHT_GRAY);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 10));
-            int yOffset = getHeight() - 80;
-
-            // Mensaje si Player 2 no está activo
-            if (!isPlayer2Active) {
-                g2d.setColor(Color.ORANGE);
-                g2d.setFont(new Font("Arial", Font.BOLD, 14));
-                g2d.drawString("NANA: INACTIVO", 800, yOffset - 20);
-                g2d.setColor(Color.YELLOW);
-                g2d.drawString("Presiona 'I' para activar a NANA", 800, yOffset + 15);
+        if (enemyInterpolator != null) {
+            enemyInterpolator.sample(enemies, hits, frameNanos, enemyXs, enemyYs);
+        } else {
+            for (int k = 0; k < hits.size(); k++) {
+                Enemy enemy = enemies.get(hits.get(k));
+                enemyXs[k] = enemy.x;
+                enemyYs[k] = enemy.y;
             }
-
-            // Instrucciones sobre bloques bonus
-            g2d.setColor(Color.MAGENTA);
-            g2d.setFont(new Font("Arial", Font.PLAIN, 12));
-            g2d.drawString("Toca bloques brillantes para fase BONUS!", 10, getHeight() - 20);
         }
     }
-}
\ No newline at end of file
+    
+    private int enemyDrawX(int hit) {
+        return toScreen(enemyXs[hit], ENEMY_SIZE);
+    }
+    
+    private int enemyDrawY(int hit) {
+        return toScreen(enemyYs[hit], ENEMY_SIZE);
+    }
+    
+    private boolean isFruitGlowing() {
+        return (frameMillis / 500) % 2 == 0;
+    }
+    
+    private boolean isDamageBlinking(Player player) {
+        return player.isDamaged && (frameMillis - player.damageTime) % 200 < 100;
+    }
+    
+    // Rectángulos que ocupa cada elemento dibujado (con etiquetas, bordes y efectos)
+    
+    private void playerRegion(Player player, int playerId, int drawX, int drawY) {
+        // Etiqueta arriba, borde de ataque e invulnerabilidad alrededor
+        int look = (player.isAttacking ? 1 : 0) | (player.isInvulnerable ? 2 : 0)
+                | (isDamageBlinking(player) ? 4 : 0);
+        region(DirtyRegions.PLAYER, playerId, drawX - 5, drawY - 20, PLAYER_SIZE + 11, PLAYER_SIZE + 26, look);
+    }
+    
+    private void enemyRegion(Enemy enemy, int drawX, int drawY) {
+        region(DirtyRegions.ENEMY, enemy.id, drawX, drawY, ENEMY_SIZE + 1, ENEMY_SIZE + 1, enemy.kind.ordinal());
+    }
+    
+    private void fruitRegion(Fruit fruit, int drawX, int drawY, boolean glow) {
+        // Brillo alrededor y puntos debajo
+        int look = (fruit.points << 4) | (fruit.kind.ordinal() << 1) | (glow ? 1 : 0);
+        region(DirtyRegions.FRUIT, fruit.id, drawX - 10, drawY - 3, FRUIT_SIZE + 20, 43, look);
+    }
+    
+    private void tileRegion(DestroyedTile tile) {
+        int id = tile.y * frame.mapWidth + tile.x;
+        region(DirtyRegions.DESTROYED_TILE, id, tile.x * TILE_SIZE, tile.y * TILE_SIZE, TILE_SIZE, TILE_SIZE, 0);
+    }
+    
+    private void region(int kind, int id, int x, int y, int width, int height, int look) {
+        if (checking) {
+            dirty.expect(kind, id, x, y, width, height, look);
+        } else if (tracking) {
+            dirty.painted(kind, id, x, y, width, height, look);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package iquick.gameclient;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Interfaz de usuario (HUD) dibujada en una capa que se reutiliza entre frames.
+ *
+ * El texto del HUD solo cambia con las vidas, el puntaje, el estado de los
+ * jugadores, la fase bonus o los segundos que le quedan; mientras esos valores
+ * sean los mismos, cada frame solo copia los rectángulos de la capa que tienen
+ * texto, sin crear Fonts, Colors ni Strings.
+ *
+ * Solo la usa el EDT.
+ */
+public class HudLayer {
+    private static final Font PLAYER_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font INFO_FONT = new Font("Arial", Font.PLAIN, 12);
+    private static final Font BONUS_TITLE_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font BONUS_PLAYER_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final Font BONUS_TIME_FONT = new Font("Arial", Font.BOLD, 16);
+    private static final Font INACTIVE_FONT = new Font("Arial", Font.BOLD, 14);
+    private static final int MAX_TEXTS = 24;            // Textos que puede tener el HUD
+
+    private BufferedImage image;
+    private GraphicsConfiguration config;               // Configuración con la que se creó la imagen
+    private final int[] regions = new int[MAX_TEXTS * 4]; // x, y, ancho, alto de cada texto
+    private int regionCount = 0;
+    private boolean valid = false;
+
+    // Valores con los que se dibujó la capa
+    private int width;
+    private int height;
+    private int lives1;
+    private int score1;
+    private boolean alive1;
+    private boolean player2Shown;
+    private int lives2;
+    private int score2;
+    private boolean alive2;
+    private boolean bonusPhase;
+    private int bonusPlayerId;
+    private int bonusSeconds;
+
+    // Métricas
+    private long renders = 0;
+
+    /**
+     * Dibuja el HUD (la capa se vuelve a armar solo si cambió algo que muestra)
+     * @param frame Snapshot que se está dibujando
+     * @param width Ancho del panel
+     * @param height Alto del panel
+     * @param config Configuración gráfica del destino (null en modo headless)
+     */
+    public void draw(Graphics2D g2d, WorldSnapshot frame, int width, int height, GraphicsConfiguration config) {
+        if (width <= 0 || height <= 0) return;
+        if (image == null || config != this.config || width != this.width || height != this.height) {
+            if (image != null) {
+                image.flush();
+            }
+            this.config = config;
+            this.width = width;
+            this.height = height;
+            image = config != null
+                    ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            valid = false;
+        }
+        if (!valid || changed(frame)) {
+            render(frame);
+        }
+
+        for (int i = 0; i < regionCount * 4; i += 4) {
+            int x = regions[i];
+            int y = regions[i + 1];
+            int x2 = x + regions[i + 2];
+            int y2 = y + regions[i + 3];
+            g2d.drawImage(image, x, y, x2, y2, x, y, x2, y2, null);
+        }
+    }
+
+    /**
+     * Fuerza a volver a armar la capa en el próximo frame
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return true si el HUD dibujado ya no corresponde al snapshot
+     */
+    public boolean isStale(WorldSnapshot frame) {
+        return !valid || changed(frame);
+    }
+
+    /**
+     * @return true si cambió algún valor que muestra el HUD
+     */
+    private boolean changed(WorldSnapshot frame) {
+        Player player1 = frame.player1;
+        Player player2 = frame.player2;
+        boolean showPlayer2 = frame.isPlayer2Active && player2 != null;
+        if (player1.lives != lives1 || player1.score != score1 || player1.isAlive != alive1
+                || showPlayer2 != player2Shown || frame.isBonusPhase != bonusPhase) {
+            return true;
+        }
+        if (showPlayer2 && (player2.lives != lives2 || player2.score != score2 || player2.isAlive != alive2)) {
+            return true;
+        }
+        return frame.isBonusPhase
+                && (frame.bonusPlayerId != bonusPlayerId || frame.bonusTimeRemaining / 1000 != bonusSeconds);
+    }
+
+    /**
+     * Arma la capa con los valores del snapshot
+     */
+    private void render(WorldSnapshot frame) {
+        renders++;
+        Player player1 = frame.player1;
+        Player player2 = frame.player2;
+        lives1 = player1.lives;
+        score1 = player1.score;
+        alive1 = player1.isAlive;
+        player2Shown = frame.isPlayer2Active && player2 != null;
+        if (player2Shown) {
+            lives2 = player2.lives;
+            score2 = player2.score;
+            alive2 = player2.isAlive;
+        }
+        bonusPhase = frame.isBonusPhase;
+        bonusPlayerId = frame.bonusPlayerId;
+        bonusSeconds = frame.bonusTimeRemaining / 1000;
+        regionCount = 0;
+
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setComposite(AlphaComposite.Clear);
+            g2d.fillRect(0, 0, width, height);
+            g2d.setComposite(AlphaComposite.SrcOver);
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            // Información del Player 1 (POPO)
+            g2d.setColor(Color.BLUE);
+            g2d.setFont(PLAYER_FONT);
+            text(g2d, "POPO (WASD + X)", 800, 30);
+            text(g2d, "Vidas: " + lives1, 800, 50);
+            text(g2d, "Score: " + score1, 800, 70);
+            text(g2d, "Estado: " + (alive1 ? "Vivo" : "Muerto"), 800, 90);
+
+            // Información sobre observadores
+            g2d.setColor(Color.MAGENTA);
+            g2d.setFont(INFO_FONT);
+            text(g2d, "Pulse la tecla O para agregar observers", 800, height - 170);
+
+            // Información del Player 2 (NANA) si está activo
+            if (player2Shown) {
+                g2d.setColor(Color.RED);
+                text(g2d, "NANA (Flechas + P)", 800, 130);
+                text(g2d, "Vidas: " + lives2, 800, 150);
+                text(g2d, "Score: " + score2, 800, 170);
+                text(g2d, "Estado: " + (alive2 ? "Vivo" : "Muerto"), 800, 190);
+            }
+
+            // Información de la fase bonus
+            if (bonusPhase) {
+                g2d.setColor(Color.YELLOW);
+                g2d.setFont(BONUS_TITLE_FONT);
+                text(g2d, "¡FASE BONUS!", width - 200, 290);
+
+                String playerName = bonusPlayerId == 1 ? "POPO" : "NANA";
+                g2d.setFont(BONUS_PLAYER_FONT);
+                text(g2d, "Jugador: " + playerName, width - 200, 320);
+
+                // Contador de tiempo con colores según urgencia
+                g2d.setColor(bonusSeconds <= 10 ? Color.RED : Color.WHITE);
+                g2d.setFont(BONUS_TIME_FONT);
+                text(g2d, "Tiempo: " + bonusSeconds + "s", width - 200, 350);
+            }
+
+            // Indicador de conexión
+            g2d.setColor(Color.GREEN);
+            g2d.setFont(INFO_FONT);
+            text(g2d, "Conectado al servidor", width - 150, 20);
+
+            // Información de controles (solo si no está en fase bonus)
+            if (!bonusPhase) {
+                int yOffset = height - 80;
+
+                // Mensaje si Player 2 no está activo
+                if (!frame.isPlayer2Active) {
+                    g2d.setColor(Color.ORANGE);
+                    g2d.setFont(INACTIVE_FONT);
+                    text(g2d, "NANA: INACTIVO", 800, yOffset - 20);
+                    g2d.setColor(Color.YELLOW);
+                    text(g2d, "Presiona 'I' para activar a NANA", 800, yOffset + 15);
+                }
+
+                // Instrucciones sobre bloques bonus
+                g2d.setColor(Color.MAGENTA);
+                g2d.setFont(INFO_FONT);
+                text(g2d, "Toca bloques brillantes para fase BONUS!", 10, height - 20);
+            }
+        } finally {
+            g2d.dispose();
+        }
+        valid = true;
+    }
+
+    /**
+     * Dibuja un texto en la capa y guarda el rectángulo que ocupa
+     */
+    private void text(Graphics2D g2d, String text, int x, int y) {
+        g2d.drawString(text, x, y);
+        if (regionCount == MAX_TEXTS) return;
+        FontMetrics fm = g2d.getFontMetrics();
+        // Un píxel de margen para los bordes suavizados de los glifos
+        int left = Math.max(0, x - 1);
+        int top = Math.max(0, y - fm.getAscent() - 1);
+        int right = Math.min(width, x + fm.stringWidth(text) + 1);
+        int bottom = Math.min(height, y + fm.getDescent() + 1);
+        if (right <= left || bottom <= top) return;
+        int i = regionCount * 4;
+        regions[i] = left;
+        regions[i + 1] = top;
+        regions[i + 2] = right - left;
+        regions[i + 3] = bottom - top;
+        regionCount++;
+    }
+
+    /**
+     * @return Veces que se volvió a armar la capa
+     */
+    public long getRenders() {
+        return renders;
+    }
+}
@@ -0,0 +1,80 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+
+/**
+ * Tabla hash de direccionamiento abierto id -> valor, con claves int.
+ * A diferencia de HashMap no crea un nodo ni un Integer por cada put.
+ * No admite borrar: quien la usa arma una nueva por mensaje y la intercambia
+ * con la anterior (ver EntityStore).
+ */
+class IdIndex<T> {
+    private static final int EMPTY = EntityIds.NONE;
+
+    private int[] keys = newKeys(64);
+    private Object[] values = new Object[64];
+    private int size = 0;
+
+    @SuppressWarnings("unchecked")
+    T get(int id) {
+        int mask = keys.length - 1;
+        for (int i = slot(id, mask); keys[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == id) return (T) values[i];
+        }
+        return null;
+    }
+
+    void put(int id, T value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int i = slot(id, mask);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == id) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = id;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * Mezcla el id: los ids son consecutivos y con sondeo lineal
+     * formarían cadenas largas
+     */
+    private static int slot(int id, int mask) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private static int[] newKeys(int length) {
+        int[] keys = new int[length];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void grow() {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = newKeys(oldKeys.length * 2);
+        values = new Object[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], (T) oldValues[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package iquick.gameclient;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envío de comandos de teclado en cuanto llega el evento.
+ *
+ * InputHandler entrega cada flanco de tecla (en el EDT); este hilo lo traduce
+ * a comandos y los encola en OutboundWriter sin esperar a ningún timer:
+ * - Al presionar un movimiento se envía enseguida y, mientras siga presionado,
+ *   se repite cada INPUT_DELAY (el servidor aplica fricción y no tiene comando
+ *   para detenerse, así que soltar la tecla solo termina la repetición).
+ * - Salto y activación de Player 2 se envían una vez por pulsación.
+ * - El ataque respeta ATTACK_DELAY: si se presiona antes, sale apenas se cumple.
+ *
+ * Mide la latencia desde que llegó el evento de teclado hasta que el comando
+ * quedó en la cola del escritor.
+ */
+public class InputDispatcher implements InputHandler.Listener {
+    private static final long INPUT_DELAY = 50;        // Repetición de un movimiento sostenido (ms)
+    private static final long ATTACK_DELAY = 500;      // Delay entre ataques en milisegundos
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final WorldState world;                    // Fase bonus y Player 2 activo
+    private final ServerConnection server;
+    private final ClientPrediction prediction;
+    private final LinkedBlockingQueue<KeyChange> events = new LinkedBlockingQueue<>();
+    private volatile boolean running = true;
+    private Thread thread;
+
+    // Estado del hilo de entrada (índice 1 y 2 por jugador)
+    private final boolean[] held = new boolean[InputHandler.KEY_COUNT];
+    private final int[] direction = new int[3];        // Tecla de movimiento activa, o -1
+    private final long[] nextRepeatAt = {NEVER, NEVER, NEVER};
+    private final long[] lastAttackAt = new long[3];
+    private final long[] pendingAttackSince = {NEVER, NEVER, NEVER}; // Ataque esperando ATTACK_DELAY
+
+    // Métricas
+    private volatile long keyEvents = 0;
+    private volatile long commandsSent = 0;
+    private volatile long repeats = 0;
+    private volatile long deferredAttacks = 0;
+    private volatile long latencySamples = 0;
+    private volatile long totalLatencyNanos = 0;       // Evento recibido -> comando encolado
+    private volatile long maxLatencyNanos = 0;
+    private volatile long lastLatencyNanos = 0;
+    private volatile long maxEventAgeMillis = 0;       // KeyEvent.getWhen() -> comando encolado
+
+    /**
+     * Cambio de una tecla con el instante en que llegó
+     */
+    private static final class KeyChange {
+        final int key;
+        final boolean down;
+        final long when;          // KeyEvent.getWhen()
+        final long receivedAt;    // System.nanoTime() al recibirlo en el EDT
+
+        KeyChange(int key, boolean down, long when, long receivedAt) {
+            this.key = key;
+            this.down = down;
+            this.when = when;
+            this.receivedAt = receivedAt;
+        }
+    }
+
+    /**
+     * @param world Estado del mundo (para saber quién puede controlar)
+     * @param server Conexión por la que salen los comandos
+     * @param prediction Predicción local que recibe los movimientos enviados
+     */
+    public InputDispatcher(WorldState world, ServerConnection server, ClientPrediction prediction) {
+        this.world = world;
+        this.server = server;
+        this.prediction = prediction;
+        direction[1] = -1;
+        direction[2] = -1;
+        // El primer ataque de cada jugador puede salir enseguida
+        long attackReady = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ATTACK_DELAY);
+        lastAttackAt[1] = attackReady;
+        lastAttackAt[2] = attackReady;
+    }
+
+    /**
+     * Inicia el hilo virtual que envía los comandos
+     */
+    public void start() {
+        thread = Thread.ofVirtual().name("input-sender").start(this::dispatchLoop);
+    }
+
+    /**
+     * Detiene el hilo (los eventos pendientes se descartan)
+     */
+    public void close() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public void keyChanged(int key, boolean down, long when) {
+        events.offer(new KeyChange(key, down, when, System.nanoTime()));
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (running) {
+                long now = System.nanoTime();
+                long wait = nextDeadline() - now;
+                KeyChange change = wait <= 0 ? events.poll()
+                        : events.poll(Math.min(wait, TimeUnit.SECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+                if (change != null) {
+                    keyEvents++;
+                    handle(change);
+                }
+                sendDue(System.nanoTime());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Próximo instante en que hay que repetir un movimiento o soltar un ataque
+     */
+    private long nextDeadline() {
+        long deadline = NEVER;
+        for (int player = 1; player <= 2; player++) {
+            deadline = Math.min(deadline, nextRepeatAt[player]);
+            if (pendingAttackSince[player] != NEVER) {
+                deadline = Math.min(deadline, lastAttackAt[player] + TimeUnit.MILLISECONDS.toNanos(ATTACK_DELAY));
+            }
+        }
+        return deadline;
+    }
+
+    private void handle(KeyChange change) {
+        held[change.key] = change.down;
+        switch (change.key) {
+            case InputHandler.PLAYER1_LEFT:
+            case InputHandler.PLAYER1_RIGHT:
+                moveKey(1, change, InputHandler.PLAYER1_LEFT, InputHandler.PLAYER1_RIGHT);
+                break;
+            case InputHandler.PLAYER2_LEFT:
+            case InputHandler.PLAYER2_RIGHT:
+                moveKey(2, change, InputHandler.PLAYER2_LEFT, InputHandler.PLAYER2_RIGHT);
+                break;
+            case InputHandler.PLAYER1_JUMP:
+                if (change.down) sendMovement(1, PlayerPredictor.JUMP, change);
+                break;
+            case InputHandler.PLAYER2_JUMP:
+                if (change.down) sendMovement(2, PlayerPredictor.JUMP, change);
+                break;
+            case InputHandler.PLAYER1_ATTACK:
+                if (change.down) attack(1, change);
+                break;
+            case InputHandler.PLAYER2_ATTACK:
+                if (change.down) attack(2, change);
+                break;
+            case InputHandler.ACTIVATE_PLAYER2:
+                if (change.down) {
+                    WorldSnapshot snapshot = world.current();
+                    // Verificar si se presionó 'I' para activar Player 2
+                    if (!snapshot.isBonusPhase && !snapshot.isPlayer2Active) {
+                        send("P", change);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Cambio de una tecla de dirección: la última presionada manda;
+     * al soltarla se vuelve a la otra si sigue presionada
+     */
+    private void moveKey(int player, KeyChange change, int leftKey, int rightKey) {
+        if (change.down) {
+            direction[player] = change.key;
+        } else if (direction[player] == change.key) {
+            int other = change.key == leftKey ? rightKey : leftKey;
+            direction[player] = held[other] ? other : -1;
+        } else {
+            return;  // Se soltó la dirección que no estaba activa
+        }
+
+        if (direction[player] < 0) {
+            nextRepeatAt[player] = NEVER;  // Sin comando de parada: la fricción del servidor lo frena
+            return;
+        }
+        sendMovement(player, direction[player] == leftKey ? PlayerPredictor.MOVE_LEFT : PlayerPredictor.MOVE_RIGHT, change);
+        nextRepeatAt[player] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(INPUT_DELAY);
+    }
+
+    private void attack(int player, KeyChange change) {
+        long now = System.nanoTime();
+        if (now - lastAttackAt[player] >= TimeUnit.MILLISECONDS.toNanos(ATTACK_DELAY)) {
+            sendAttack(player, change);
+        } else if (pendingAttackSince[player] == NEVER) {
+            // Antes de ATTACK_DELAY: sale cuando se cumpla
+            pendingAttackSince[player] = change.receivedAt;
+            deferredAttacks++;
+        }
+    }
+
+    /**
+     * Repite los movimientos sostenidos y suelta los ataques que ya pueden salir
+     */
+    private void sendDue(long now) {
+        for (int player = 1; player <= 2; player++) {
+            if (nextRepeatAt[player] <= now) {
+                int key = direction[player];
+                boolean left = key == InputHandler.PLAYER1_LEFT || key == InputHandler.PLAYER2_LEFT;
+                repeats++;
+                sendMovement(player, left ? PlayerPredictor.MOVE_LEFT : PlayerPredictor.MOVE_RIGHT, null);
+                nextRepeatAt[player] = now + TimeUnit.MILLISECONDS.toNanos(INPUT_DELAY);
+            }
+            if (pendingAttackSince[player] != NEVER
+                    && now - lastAttackAt[player] >= TimeUnit.MILLISECONDS.toNanos(ATTACK_DELAY)) {
+                pendingAttackSince[player] = NEVER;
+                sendAttack(player, null);
+            }
+        }
+    }
+
+    /**
+     * @return true si el jugador puede controlar en el estado actual
+     *         (en fase bonus solo el jugador que la activó)
+     */
+    private static boolean canControl(WorldSnapshot snapshot, int player) {
+        if (snapshot.isBonusPhase) {
+            return snapshot.bonusPlayerId == player && (player == 1 || snapshot.isPlayer2Active);
+        }
+        return player == 1 || snapshot.isPlayer2Active;
+    }
+
+    private void sendMovement(int player, int action, KeyChange change) {
+        if (!canControl(world.current(), player)) return;
+        String command;
+        if (player == 1) {
+            command = action == PlayerPredictor.MOVE_LEFT ? "A" : action == PlayerPredictor.MOVE_RIGHT ? "D" : "W";
+        } else {
+            command = action == PlayerPredictor.MOVE_LEFT ? "LEFT" : action == PlayerPredictor.MOVE_RIGHT ? "RIGHT" : "JUMP";
+        }
+        // La predicción solo simula lo que sale como comando propio: un movimiento
+        // fusionado con el pendiente o descartado no llega como otra entrada al servidor
+        if (send(command, change)) {
+            prediction.recordInput(player, action);
+        }
+    }
+
+    private void sendAttack(int player, KeyChange change) {
+        WorldSnapshot snapshot = world.current();
+        if (!canControl(snapshot, player)) return;
+        lastAttackAt[player] = System.nanoTime();
+        if (player == 1) {
+            send("X", change);
+        } else {
+            // En fase bonus el servidor espera SPACE; en juego normal se envía P
+            send(snapshot.isBonusPhase ? "SPACE" : "P", change);
+        }
+    }
+
+    /**
+     * Encola el comando en el escritor y registra la latencia si viene de un evento
+     * @return true si el escritor lo aceptó como comando nuevo
+     */
+    private boolean send(String command, KeyChange change) {
+        OutboundWriter.Result result = server.send(command);
+        if (result == OutboundWriter.Result.DROPPED) {
+            return false;
+        }
+        commandsSent++;
+        if (change != null) {
+            long latency = System.nanoTime() - change.receivedAt;
+            lastLatencyNanos = latency;
+            totalLatencyNanos += latency;
+            latencySamples++;
+            if (latency > maxLatencyNanos) maxLatencyNanos = latency;
+            long age = System.currentTimeMillis() - change.when;
+            if (age > maxEventAgeMillis) maxEventAgeMillis = age;
+        }
+        return result == OutboundWriter.Result.QUEUED;
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getKeyEvents() {
+        return keyEvents;
+    }
+
+    public long getCommandsSent() {
+        return commandsSent;
+    }
+
+    public long getRepeats() {
+        return repeats;
+    }
+
+    public long getDeferredAttacks() {
+        return deferredAttacks;
+    }
+
+    /**
+     * @return Latencia promedio desde el evento de teclado hasta la cola del escritor
+     */
+    public long getAverageLatencyNanos() {
+        long samples = latencySamples;
+        return samples == 0 ? 0 : totalLatencyNanos / samples;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    /**
+     * @return Mayor tiempo entre KeyEvent.getWhen() y el envío (incluye la espera en el EDT)
+     */
+    public long getMaxEventAgeMillis() {
+        return maxEventAgeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("eventos=%d enviados=%d repeticiones=%d ataquesDiferidos=%d "
+                        + "latencia(prom/max)=%.3f/%.3fms antigüedadMax=%dms",
+                keyEvents, commandsSent, repeats, deferredAttacks,
+                getAverageLatencyNanos() / 1e6, maxLatencyNanos / 1e6, maxEventAgeMillis);
+    }
+}
@@ -6,104 +6,83 @@ import java.awt.event.KeyListener;
 /**
  * Clase que maneja todas las entradas del teclado para un juego de dos jugadores.
  * Implementa KeyListener para capturar eventos de teclado.
+ *
+ * Solo informa flancos: la repetición automática del sistema operativo (varios
+ * keyPressed seguidos sin keyReleased) se ignora, y cada cambio real de una tecla
+ * se entrega al Listener en el momento en que llega el evento.
+ * El estado de las teclas se guarda en una máscara volatile, así que los getters
+ * se pueden consultar desde cualquier hilo.
  */
 public class InputHandler implements KeyListener {
-    
-    // ===== VARIABLES DE ESTADO PARA JUGADOR 1 =====
+
+    // ===== TECLAS DEL JUGADOR 1 =====
     // Controles: WASD para movimiento + X para atacar
-    private boolean player1Left = false;    // Tecla A - mover izquierda
-    private boolean player1Right = false;   // Tecla D - mover derecha
-    private boolean player1Jump = false;    // Tecla W - saltar
-    private boolean player1Attack = false;  // Tecla X - atacar
-    
-    // ===== VARIABLES DE ESTADO PARA JUGADOR 2 =====
+    public static final int PLAYER1_LEFT = 0;     // Tecla A - mover izquierda
+    public static final int PLAYER1_RIGHT = 1;    // Tecla D - mover derecha
+    public static final int PLAYER1_JUMP = 2;     // Tecla W - saltar
+    public static final int PLAYER1_ATTACK = 3;   // Tecla X - atacar
+
+    // ===== TECLAS DEL JUGADOR 2 =====
     // Controles: Flechas para movimiento + P para atacar
-    private boolean player2Left = false;    // Flecha izquierda - mover izquierda
-    private boolean player2Right = false;   // Flecha derecha - mover derecha
-    private boolean player2Jump = false;    // Flecha arriba - saltar
-    private boolean player2Attack = false;  // Tecla P - atacar
-    
+    public static final int PLAYER2_LEFT = 4;     // Flecha izquierda - mover izquierda
+    public static final int PLAYER2_RIGHT = 5;    // Flecha derecha - mover derecha
+    public static final int PLAYER2_JUMP = 6;     // Flecha arriba - saltar
+    public static final int PLAYER2_ATTACK = 7;   // Tecla P - atacar
+
     // ===== CONTROLES ESPECIALES =====
-    private boolean activatePlayer2 = false; // Tecla I - activar jugador 2
-    
+    public static final int ACTIVATE_PLAYER2 = 8; // Tecla I - activar jugador 2
+
+    public static final int KEY_COUNT = 9;
+
+    /**
+     * Recibe cada cambio de estado de una tecla (se llama en el EDT)
+     */
+    public interface Listener {
+        /**
+         * @param key Una de las constantes de tecla de esta clase
+         * @param down true al presionar, false al soltar
+         * @param when Instante del evento de teclado (KeyEvent.getWhen())
+         */
+        void keyChanged(int key, boolean down, long when);
+    }
+
+    private volatile int held = 0;             // Bit por tecla presionada (solo la escribe el EDT)
+    private volatile Listener listener;
+
+    /**
+     * @param listener Receptor de los cambios de teclas, o null
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
     /**
      * Método llamado cuando se presiona una tecla.
-     * Actualiza el estado de las variables booleanas correspondientes.
+     * Solo informa la primera pulsación, no la repetición automática.
      */
     @Override
     public void keyPressed(KeyEvent e) {
-        int keyCode = e.getKeyCode();
-        
-        // ===== PROCESAMIENTO DE CONTROLES DEL JUGADOR 1 =====
-        switch (keyCode) {
-            case KeyEvent.VK_W:
-                player1Jump = true;     // W - Salto del jugador 1
-                break;
-            case KeyEvent.VK_A:
-                player1Left = true;     // A - Movimiento izquierda jugador 1
-                break;
-            case KeyEvent.VK_D:
-                player1Right = true;    // D - Movimiento derecha jugador 1
-                break;
-            case KeyEvent.VK_X:
-                player1Attack = true;   // X - Ataque del jugador 1
-                break;
-        }
-        
-        // ===== PROCESAMIENTO DE CONTROLES DEL JUGADOR 2 =====
-        switch (keyCode) {
-            case KeyEvent.VK_UP:
-                player2Jump = true;     // Flecha arriba - Salto del jugador 2
-                break;
-            case KeyEvent.VK_LEFT:
-                player2Left = true;     // Flecha izquierda - Movimiento izquierda jugador 2
-                break;
-            case KeyEvent.VK_RIGHT:
-                player2Right = true;    // Flecha derecha - Movimiento derecha jugador 2
-                break;
-            case KeyEvent.VK_P:
-                player2Attack = true;   // P - Ataque del jugador 2
-                break;
-        }
-        
-        // ===== PROCESAMIENTO DE CONTROLES ESPECIALES =====
-        switch (keyCode) {
-            case KeyEvent.VK_I:
-                activatePlayer2 = true; // I - Activar/mostrar jugador 2 en el juego
-                break;
-        }
+        int key = keyOf(e.getKeyCode());
+        if (key < 0) return;
+        int bit = 1 << key;
+        if ((held & bit) != 0) return;   // Repetición automática: la tecla ya estaba presionada
+        held |= bit;
+        notifyListener(key, true, e.getWhen());
     }
-    
+
     /**
      * Método llamado cuando se suelta una tecla.
-     * Solo se procesan las teclas de movimiento continuo (izquierda/derecha)
-     * ya que salto y ataque son acciones instantáneas.
      */
     @Override
     public void keyReleased(KeyEvent e) {
-        int keyCode = e.getKeyCode();
-        
-        // ===== LIBERACIÓN DE CONTROLES DE MOVIMIENTO JUGADOR 1 =====
-        switch (keyCode) {
-            case KeyEvent.VK_A:
-                player1Left = false;    // Dejar de mover izquierda jugador 1
-                break;
-            case KeyEvent.VK_D:
-                player1Right = false;   // Dejar de mover derecha jugador 1
-                break;
-        }
-        
-        // ===== LIBERACIÓN DE CONTROLES DE MOVIMIENTO JUGADOR 2 =====
-        switch (keyCode) {
-            case KeyEvent.VK_LEFT:
-                player2Left = false;    // Dejar de mover izquierda jugador 2
-                break;
-            case KeyEvent.VK_RIGHT:
-                player2Right = false;   // Dejar de mover derecha jugador 2
-                break;
-        }
+        int key = keyOf(e.getKeyCode());
+        if (key < 0) return;
+        int bit = 1 << key;
+        if ((held & bit) == 0) return;
+        held &= ~bit;
+        notifyListener(key, false, e.getWhen());
     }
-    
+
     /**
      * Método requerido por KeyListener pero no utilizado en esta implementación.
      */
@@ -111,72 +90,84 @@ public class InputHandler implements KeyListener {
     public void keyTyped(KeyEvent e) {
         // No se usa en este caso - solo necesitamos keyPressed y keyReleased
     }
-    
+
+    private void notifyListener(int key, boolean down, long when) {
+        Listener current = listener;
+        if (current != null) {
+            current.keyChanged(key, down, when);
+        }
+    }
+
+    /**
+     * Traduce un código de tecla de Swing a una tecla del juego
+     * @return Constante de tecla, o -1 si la tecla no se usa
+     */
+    private static int keyOf(int keyCode) {
+        switch (keyCode) {
+            // Jugador 1
+            case KeyEvent.VK_A: return PLAYER1_LEFT;
+            case KeyEvent.VK_D: return PLAYER1_RIGHT;
+            case KeyEvent.VK_W: return PLAYER1_JUMP;
+            case KeyEvent.VK_X: return PLAYER1_ATTACK;
+            // Jugador 2
+            case KeyEvent.VK_LEFT: return PLAYER2_LEFT;
+            case KeyEvent.VK_RIGHT: return PLAYER2_RIGHT;
+            case KeyEvent.VK_UP: return PLAYER2_JUMP;
+            case KeyEvent.VK_P: return PLAYER2_ATTACK;
+            // Especiales
+            case KeyEvent.VK_I: return ACTIVATE_PLAYER2;
+            default: return -1;
+        }
+    }
+
+    /**
+     * @return true si la tecla está presionada ahora
+     */
+    public boolean isHeld(int key) {
+        return (held & (1 << key)) != 0;
+    }
+
     // ===== MÉTODOS GETTER PARA JUGADOR 1 =====
     // Permiten consultar el estado actual de las teclas del jugador 1
-    
+
     public boolean isPlayer1LeftPressed() {
-        return player1Left;
+        return isHeld(PLAYER1_LEFT);
     }
-    
+
     public boolean isPlayer1RightPressed() {
-        return player1Right;
+        return isHeld(PLAYER1_RIGHT);
     }
-    
+
     public boolean isPlayer1JumpPressed() {
-        return player1Jump;
+        return isHeld(PLAYER1_JUMP);
     }
-    
+
     public boolean isPlayer1AttackPressed() {
-        return player1Attack;
+        return isHeld(PLAYER1_ATTACK);
     }
-    
+
     // ===== MÉTODOS GETTER PARA JUGADOR 2 =====
     // Permiten consultar el estado actual de las teclas del jugador 2
-    
+
     public boolean isPlayer2LeftPressed() {
-        return player2Left;
+        return isHeld(PLAYER2_LEFT);
     }
-    
+
     public boolean isPlayer2RightPressed() {
-        return player2Right;
+        return isHeld(PLAYER2_RIGHT);
     }
-    
+
     public boolean isPlayer2JumpPressed() {
-        return player2Jump;
+        return isHeld(PLAYER2_JUMP);
     }
-    
+
     public boolean isPlayer2AttackPressed() {
-        return player2Attack;
+        return isHeld(PLAYER2_ATTACK);
     }
-    
+
     // ===== MÉTODOS GETTER PARA CONTROLES ESPECIALES =====
-    
+
     public boolean isActivatePlayer2Pressed() {
-        return activatePlayer2;
-    }
-    
-    // ===== MÉTODOS DE RESET =====
-    // Estos métodos son cruciales para acciones que deben ejecutarse solo una vez
-    // por pulsación (como saltar o atacar), evitando que se repitan continuamente
-    
-    public void resetPlayer1Jump() {
-        player1Jump = false;        // Reset salto jugador 1 después de procesarlo
-    }
-    
-    public void resetPlayer1Attack() {
-        player1Attack = false;      // Reset ataque jugador 1 después de procesarlo
-    }
-    
-    public void resetPlayer2Jump() {
-        player2Jump = false;        // Reset salto jugador 2 después de procesarlo
-    }
-    
-    public void resetPlayer2Attack() {
-        player2Attack = false;      // Reset ataque jugador 2 después de procesarlo
-    }
-    
-    public void resetActivatePlayer2() {
-        activatePlayer2 = false;    // Reset activación jugador 2 después de procesarlo
+        return isHeld(ACTIVATE_PLAYER2);
     }
-}
\ No newline at end of file
+}
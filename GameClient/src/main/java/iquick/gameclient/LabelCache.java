@@ -0,0 +1,116 @@
+package iquick.gameclient;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Etiquetas de texto "prefijo + número" ya dibujadas en imágenes
+ * (por ejemplo "+300" sobre una fruta o "P1" sobre un jugador).
+ *
+ * Cada valor se arma, se mide y se dibuja una sola vez; después solo se
+ * copia la imagen, sin crear Strings ni medir con FontMetrics por frame.
+ * Los valores fuera de [0, MAX_CACHED) se dibujan como texto.
+ *
+ * Solo la usa el EDT.
+ */
+public class LabelCache {
+    private static final int MAX_CACHED = 1024;
+    private static final int PADDING = 1;
+
+    private final String prefix;
+    private final Font font;
+    private final Color color;
+    private final BufferedImage[] images = new BufferedImage[MAX_CACHED];
+    private final int[] ascents = new int[MAX_CACHED];
+    private final int[] textWidths = new int[MAX_CACHED];
+    private GraphicsConfiguration config;    // Configuración con la que se crearon las imágenes
+
+    /**
+     * @param prefix Texto antes del número
+     * @param font Fuente de la etiqueta
+     * @param color Color del texto
+     */
+    public LabelCache(String prefix, Font font, Color color) {
+        this.prefix = prefix;
+        this.font = font;
+        this.color = color;
+    }
+
+    /**
+     * Dibuja la etiqueta centrada horizontalmente sobre un área
+     * @param left Borde izquierdo del área
+     * @param areaWidth Ancho del área
+     * @param baseline Línea base del texto (como en drawString)
+     * @param config Configuración gráfica del destino (null en modo headless)
+     */
+    public void drawCentered(Graphics2D g2d, int value, int left, int areaWidth, int baseline,
+                             GraphicsConfiguration config) {
+        if (value < 0 || value >= MAX_CACHED) {
+            // Valor poco común: se dibuja como texto
+            String text = prefix + value;
+            g2d.setFont(font);
+            g2d.setColor(color);
+            g2d.drawString(text, left + (areaWidth - g2d.getFontMetrics().stringWidth(text)) / 2, baseline);
+            return;
+        }
+        if (config != this.config) {
+            clear();
+            this.config = config;
+        }
+        BufferedImage image = images[value];
+        if (image == null) {
+            image = render(value);
+        }
+        // La imagen tiene PADDING píxeles a cada lado para los bordes suavizados de los glifos
+        g2d.drawImage(image, left + (areaWidth - textWidths[value]) / 2 - PADDING,
+                baseline - ascents[value], null);
+    }
+
+    /**
+     * Descarta las imágenes (se vuelven a dibujar al usarlas)
+     */
+    public void clear() {
+        for (int i = 0; i < MAX_CACHED; i++) {
+            if (images[i] != null) {
+                images[i].flush();
+                images[i] = null;
+            }
+        }
+    }
+
+    private BufferedImage render(int value) {
+        String text = prefix + value;
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D measure = probe.createGraphics();
+        FontMetrics fm = measure.getFontMetrics(font);
+        measure.dispose();
+        int textWidth = fm.stringWidth(text);
+        int width = textWidth + 2 * PADDING;
+        int height = Math.max(1, fm.getAscent() + fm.getDescent());
+
+        BufferedImage image = config != null
+                ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(text, PADDING, fm.getAscent());
+        } finally {
+            g.dispose();
+        }
+        images[value] = image;
+        ascents[value] = fm.getAscent();
+        textWidths[value] = textWidth;
+        return image;
+    }
+}
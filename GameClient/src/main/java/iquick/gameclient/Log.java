@@ -0,0 +1,167 @@
+package iquick.gameclient;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro estructurado por categoría, con nivel mínimo y límite de tasa.
+ *
+ * Cada registro es un mensaje fijo más hasta dos pares clave=valor; el formato
+ * y la escritura los hace LogAppender en otro hilo, así que registrar desde el
+ * hilo de red no toca la consola. Un registro por debajo del nivel de la
+ * categoría no cuesta más que una comparación.
+ *
+ * El límite de tasa es un token bucket por categoría: los registros que lo
+ * exceden se descartan y su cantidad aparece en el siguiente que se escribe.
+ * Nivel y tasa se configuran en ClientConfig (por ejemplo -Diquick.log.level.net=DEBUG).
+ *
+ * Uso: private static final Log LOG = Log.get("net");
+ */
+public final class Log {
+    private static final ConcurrentHashMap<String, Log> LOGGERS = new ConcurrentHashMap<>();
+    private static final LogAppender APPENDER = startAppender();
+
+    private final String category;
+    private final LogLevel level;
+    private final RateLimiter limiter;
+
+    private Log(String category) {
+        this.category = category;
+        this.level = ClientConfig.logLevel(category);
+        this.limiter = new RateLimiter(ClientConfig.logRate(category));
+    }
+
+    /**
+     * @param category Nombre corto de la categoría (net, game, ui, ...)
+     * @return Registro de esa categoría (uno solo por nombre)
+     */
+    public static Log get(String category) {
+        return LOGGERS.computeIfAbsent(category, Log::new);
+    }
+
+    /**
+     * @return Salida compartida por todas las categorías (para métricas)
+     */
+    public static LogAppender getAppender() {
+        return APPENDER;
+    }
+
+    private static LogAppender startAppender() {
+        LogAppender appender = new LogAppender(System.out, System.err);
+        appender.start();
+        // Escribir lo pendiente al salir (el hilo escritor es daemon)
+        Runtime.getRuntime().addShutdownHook(new Thread(
+                () -> appender.close(1, TimeUnit.SECONDS), "log-shutdown"));
+        return appender;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.compareTo(this.level) >= 0;
+    }
+
+    /**
+     * Para envolver registros DEBUG cuyos valores habría que armar (boxing, concatenación)
+     */
+    public boolean isDebugEnabled() {
+        return isEnabled(LogLevel.DEBUG);
+    }
+
+    public void debug(String message) {
+        log(LogLevel.DEBUG, message, null, null, null, null, null);
+    }
+
+    public void debug(String message, String key, Object value) {
+        log(LogLevel.DEBUG, message, key, value, null, null, null);
+    }
+
+    public void debug(String message, String key1, Object value1, String key2, Object value2) {
+        log(LogLevel.DEBUG, message, key1, value1, key2, value2, null);
+    }
+
+    public void info(String message) {
+        log(LogLevel.INFO, message, null, null, null, null, null);
+    }
+
+    public void info(String message, String key, Object value) {
+        log(LogLevel.INFO, message, key, value, null, null, null);
+    }
+
+    public void info(String message, String key1, Object value1, String key2, Object value2) {
+        log(LogLevel.INFO, message, key1, value1, key2, value2, null);
+    }
+
+    public void warn(String message) {
+        log(LogLevel.WARN, message, null, null, null, null, null);
+    }
+
+    public void warn(String message, String key, Object value) {
+        log(LogLevel.WARN, message, key, value, null, null, null);
+    }
+
+    public void error(String message, Throwable thrown) {
+        log(LogLevel.ERROR, message, null, null, null, null, thrown);
+    }
+
+    public void error(String message, String key, Object value, Throwable thrown) {
+        log(LogLevel.ERROR, message, key, value, null, null, thrown);
+    }
+
+    private void log(LogLevel level, String message, String key1, Object value1,
+                     String key2, Object value2, Throwable thrown) {
+        if (!isEnabled(level)) return;
+        long suppressed = limiter.tryAcquire();
+        if (suppressed < 0) return;
+        APPENDER.append(level, category, message, key1, value1, key2, value2, thrown, suppressed);
+    }
+
+    /**
+     * @return Registros descartados por el límite de tasa que todavía no se informaron
+     */
+    public long getSuppressed() {
+        return limiter.getSuppressed();
+    }
+
+    /**
+     * Token bucket: ratePerSecond registros por segundo con ráfagas de hasta un segundo.
+     * Con una tasa de 0 o menos no limita.
+     */
+    private static final class RateLimiter {
+        private final double ratePerNano;
+        private final double burst;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+        private long suppressed = 0;
+
+        RateLimiter(double ratePerSecond) {
+            this.ratePerNano = ratePerSecond / 1_000_000_000.0;
+            this.burst = Math.max(1, ratePerSecond);
+            this.tokens = burst;
+        }
+
+        /**
+         * @return -1 si el registro se descarta; si no, cuántos se descartaron desde el último aceptado
+         */
+        synchronized long tryAcquire() {
+            if (ratePerNano <= 0) return 0;
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+            lastRefill = now;
+            if (tokens < 1) {
+                suppressed++;
+                return -1;
+            }
+            tokens -= 1;
+            long reported = suppressed;
+            suppressed = 0;
+            return reported;
+        }
+
+        synchronized long getSuppressed() {
+            return suppressed;
+        }
+    }
+}
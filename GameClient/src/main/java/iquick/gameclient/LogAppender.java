@@ -0,0 +1,268 @@
+package iquick.gameclient;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Salida asíncrona de los registros de Log.
+ * Quien registra (hilo de red, EDT, escritor) solo copia referencias en un
+ * buffer circular de registros preasignados; un hilo aparte les da formato y
+ * escribe en la consola, así una consola lenta nunca frena la lectura del socket.
+ *
+ * Si el buffer está lleno, el registro nuevo se descarta y se cuenta: registrar
+ * nunca bloquea.
+ */
+public class LogAppender {
+    public static final int DEFAULT_CAPACITY = 1024;   // Registros pendientes antes de descartar
+
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private final PrintStream out;        // DEBUG e INFO
+    private final PrintStream err;        // WARN y ERROR
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Record[] ring;          // Registros pendientes (circular)
+    private int head = 0;                 // Primer registro pendiente
+    private int size = 0;                 // Cantidad de registros pendientes
+    private boolean closed = false;
+    private Thread thread;
+
+    // Métricas
+    private volatile long appended = 0;
+    private volatile long dropped = 0;    // Descartados por buffer lleno
+    private volatile long written = 0;
+    private volatile int maxPending = 0;
+
+    /**
+     * Registro preasignado; los valores se formatean recién en el hilo escritor
+     */
+    static final class Record {
+        long timeMillis;
+        LogLevel level;
+        String category;
+        String message;
+        String key1;
+        Object value1;
+        String key2;
+        Object value2;
+        Throwable thrown;
+        long suppressed;      // Registros de la categoría descartados por límite de tasa antes de este
+
+        void clear() {
+            category = null;
+            message = null;
+            key1 = null;
+            value1 = null;
+            key2 = null;
+            value2 = null;
+            thrown = null;
+        }
+    }
+
+    public LogAppender(PrintStream out, PrintStream err) {
+        this(out, err, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param out Destino de DEBUG e INFO
+     * @param err Destino de WARN y ERROR
+     * @param capacity Registros pendientes a partir de los cuales se descartan los nuevos
+     */
+    public LogAppender(PrintStream out, PrintStream err, int capacity) {
+        this.out = out;
+        this.err = err;
+        this.capacity = capacity;
+        this.ring = newRecords(capacity);
+    }
+
+    /**
+     * Inicia el hilo que escribe en la consola.
+     * Es un hilo de plataforma: escribir en la consola bloquea y no debe retener
+     * un carrier de los hilos virtuales.
+     */
+    public void start() {
+        thread = Thread.ofPlatform().daemon().name("log-writer").start(this::writeLoop);
+    }
+
+    /**
+     * Encola un registro (no bloquea ni formatea)
+     * @return false si se descartó por buffer lleno
+     */
+    boolean append(LogLevel level, String category, String message,
+                   String key1, Object value1, String key2, Object value2,
+                   Throwable thrown, long suppressed) {
+        long now = System.currentTimeMillis();
+        lock.lock();
+        try {
+            if (closed || size == capacity) {
+                dropped++;
+                return false;
+            }
+            Record record = ring[(head + size) % capacity];
+            record.timeMillis = now;
+            record.level = level;
+            record.category = category;
+            record.message = message;
+            record.key1 = key1;
+            record.value1 = value1;
+            record.key2 = key2;
+            record.value2 = value2;
+            record.thrown = thrown;
+            record.suppressed = suppressed;
+            size++;
+            appended++;
+            if (size > maxPending) {
+                maxPending = size;
+            }
+            if (size == 1) {
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: intercambia los registros pendientes por registros
+     * vacíos y los formatea fuera del lock
+     */
+    private void writeLoop() {
+        Record[] batch = newRecords(capacity);
+        StringBuilder line = new StringBuilder(256);
+        while (true) {
+            int count;
+            lock.lock();
+            try {
+                while (size == 0 && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (size == 0) {
+                    return;  // Cerrado y sin pendientes
+                }
+                count = size;
+                for (int i = 0; i < count; i++) {
+                    int index = (head + i) % capacity;
+                    Record pending = ring[index];
+                    ring[index] = batch[i];
+                    batch[i] = pending;
+                }
+                head = (head + count) % capacity;
+                size = 0;
+            } finally {
+                lock.unlock();
+            }
+
+            for (int i = 0; i < count; i++) {
+                Record record = batch[i];
+                PrintStream stream = record.level.compareTo(LogLevel.WARN) >= 0 ? err : out;
+                line.setLength(0);
+                format(record, line);
+                stream.println(line);
+                if (record.thrown != null) {
+                    record.thrown.printStackTrace(stream);
+                }
+                record.clear();
+            }
+            out.flush();
+            err.flush();
+            written += count;
+        }
+    }
+
+    /**
+     * Formato: hora nivel [categoría] mensaje clave=valor ... suprimidos=N
+     */
+    static void format(Record record, StringBuilder line) {
+        TIME_FORMAT.formatTo(Instant.ofEpochMilli(record.timeMillis), line);
+        line.append(' ').append(record.level.name());
+        for (int i = record.level.name().length(); i < 5; i++) {
+            line.append(' ');
+        }
+        line.append(" [").append(record.category).append("] ").append(record.message);
+        if (record.key1 != null) {
+            line.append(' ').append(record.key1).append('=').append(record.value1);
+        }
+        if (record.key2 != null) {
+            line.append(' ').append(record.key2).append('=').append(record.value2);
+        }
+        if (record.thrown != null) {
+            line.append(" error=").append(record.thrown);
+        }
+        if (record.suppressed > 0) {
+            line.append(" suprimidos=").append(record.suppressed);
+        }
+    }
+
+    /**
+     * Deja de aceptar registros y espera (hasta el tiempo dado) a que se escriban los pendientes
+     */
+    public void close(long timeout, TimeUnit unit) {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        if (thread != null) {
+            try {
+                thread.join(unit.toMillis(timeout));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static Record[] newRecords(int count) {
+        Record[] records = new Record[count];
+        for (int i = 0; i < count; i++) {
+            records[i] = new Record();
+        }
+        return records;
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getAppended() {
+        return appended;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    /**
+     * @return Registros encolados que todavía no se escribieron
+     */
+    public int getPending() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("encolados=%d escritos=%d descartados=%d pendientesMax=%d",
+                appended, written, dropped, maxPending);
+    }
+}
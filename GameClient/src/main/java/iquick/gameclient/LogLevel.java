@@ -0,0 +1,24 @@
+package iquick.gameclient;
+
+/**
+ * Niveles de registro, de menor a mayor gravedad.
+ */
+public enum LogLevel {
+    DEBUG,   // Detalle por mensaje o por entidad (desactivado por defecto)
+    INFO,    // Eventos del juego: conexión, protocolo, fase bonus, game over
+    WARN,    // Mensajes inesperados que se ignoran
+    ERROR;   // Fallos al procesar o enviar
+
+    /**
+     * Convierte el nombre de una propiedad (sin distinguir mayúsculas)
+     * @return Nivel correspondiente, o defaultLevel si no se reconoce
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name != null) {
+            for (LogLevel level : values()) {
+                if (level.name().equalsIgnoreCase(name.trim())) return level;
+            }
+        }
+        return defaultLevel;
+    }
+}
@@ -0,0 +1,286 @@
+package iquick.gameclient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Transporte no bloqueante basado en SocketChannel.
+ * Lee con un ByteBuffer directo reutilizable y hace su propio framing por '\n':
+ * los bytes parciales se acumulan en un arreglo reutilizable y solo se crea
+ * un String cuando la línea está completa.
+ * También reconoce las tramas binarias de PlayerUpdateCodec ([0xB1][u16][payload])
+ * intercaladas entre las líneas de texto.
+ */
+public class NioTransport implements Transport {
+    private static final Log LOG = Log.get("net");
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;  // Tamaño del buffer directo de lectura
+    private static final int INITIAL_LINE_SIZE = 8 * 1024;  // Tamaño inicial del acumulador de línea
+    private static final long WRITE_WAIT_MILLIS = 100;       // Espera máxima por OP_WRITE antes de reintentar
+
+    private final SocketChannel channel;
+    private final Selector selector;
+    private final Selector writeSelector;    // Espera a que el socket acepte más bytes (OP_WRITE)
+    private final Consumer<String> handler;  // Receptor de cada mensaje completo
+    private Consumer<ByteBuffer> frameHandler; // Receptor de tramas binarias (opcional)
+    private final AtomicBoolean closed = new AtomicBoolean(false); // close() ya se llamó
+
+    // Buffers reutilizables (solo los usa el hilo lector)
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+    private byte[] lineBuffer = new byte[INITIAL_LINE_SIZE];
+    private int lineLength = 0;
+
+    // Estado del framing: línea de texto, longitud de trama o payload de trama
+    private static final int STATE_LINE = 0;
+    private static final int STATE_FRAME_LENGTH = 1;
+    private static final int STATE_FRAME_PAYLOAD = 2;
+    private int state = STATE_LINE;
+    private int frameLength = 0;
+    private int frameLengthBytes = 0;
+    private ByteBuffer frameBuffer = ByteBuffer.allocate(4096);
+
+    // Buffer de escritura reutilizable (protegido por writeLock)
+    private final Object writeLock = new Object();
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private ByteBuffer writeBuffer = ByteBuffer.allocateDirect(1024);
+
+    // Contadores para comparar con BlockingTransport
+    private volatile long messagesReceived = 0;
+    private volatile long bytesReceived = 0;
+
+    /**
+     * Abre la conexión con el servidor y la deja en modo no bloqueante
+     * @param host Dirección IP o hostname del servidor
+     * @param port Puerto del servidor
+     * @param handler Receptor de los mensajes recibidos
+     */
+    public NioTransport(String host, int port, Consumer<String> handler) throws IOException {
+        this.handler = handler;
+        channel = SocketChannel.open(new InetSocketAddress(host, port)); // Conexión bloqueante
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        channel.register(selector, SelectionKey.OP_READ);
+        writeSelector = Selector.open();
+        channel.register(writeSelector, SelectionKey.OP_WRITE);
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::readLoop, "server-reader-nio");
+        thread.setDaemon(true); // Hilo daemon (termina cuando termina la aplicación)
+        thread.start();
+    }
+
+    /**
+     * Bucle del hilo lector: espera datos con el Selector y los separa en líneas
+     */
+    private void readLoop() {
+        try {
+            while (channel.isOpen()) {
+                selector.select();
+                selector.selectedKeys().clear();
+
+                int read;
+                while ((read = channel.read(readBuffer)) > 0) {
+                    bytesReceived += read;
+                    readBuffer.flip();
+                    consume(readBuffer);
+                    readBuffer.clear();
+                }
+                if (read < 0) {
+                    break; // El servidor cerró la conexión
+                }
+            }
+        } catch (IOException e) {
+            if (channel.isOpen()) {
+                LOG.warn("Error recibiendo del servidor", "error", e.getMessage());
+            }
+        } catch (ClosedSelectorException e) {
+            // close() desde otro hilo mientras se esperaba en select(): fin normal
+        } finally {
+            try {
+                close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Separa los bytes recibidos en líneas completas y tramas binarias
+     * @param buffer Bytes leídos del canal (en modo lectura)
+     */
+    private void consume(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            switch (state) {
+                case STATE_LINE:
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        emitLine();
+                    } else if (b == PlayerUpdateCodec.FRAME_MARKER && lineLength == 0 && frameHandler != null) {
+                        // Inicio de una trama binaria
+                        state = STATE_FRAME_LENGTH;
+                        frameLength = 0;
+                        frameLengthBytes = 0;
+                    } else {
+                        if (lineLength == lineBuffer.length) {
+                            // Crecer el acumulador solo cuando una línea no cabe
+                            byte[] bigger = new byte[lineBuffer.length * 2];
+                            System.arraycopy(lineBuffer, 0, bigger, 0, lineLength);
+                            lineBuffer = bigger;
+                        }
+                        lineBuffer[lineLength++] = b;
+                    }
+                    break;
+
+                case STATE_FRAME_LENGTH:
+                    frameLength = (frameLength << 8) | (buffer.get() & 0xFF);
+                    if (++frameLengthBytes == 2) {
+                        if (frameBuffer.capacity() < frameLength) {
+                            frameBuffer = ByteBuffer.allocate(frameLength);
+                        }
+                        frameBuffer.clear().limit(frameLength);
+                        state = STATE_FRAME_PAYLOAD;
+                        if (frameLength == 0) {
+                            emitFrame();
+                        }
+                    }
+                    break;
+
+                case STATE_FRAME_PAYLOAD:
+                    // Copia en bloque de lo que haya disponible del payload
+                    int count = Math.min(buffer.remaining(), frameBuffer.remaining());
+                    frameBuffer.put(frameBuffer.position(), buffer, buffer.position(), count);
+                    frameBuffer.position(frameBuffer.position() + count);
+                    buffer.position(buffer.position() + count);
+                    if (!frameBuffer.hasRemaining()) {
+                        emitFrame();
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Entrega la trama binaria completa al manejador de tramas
+     */
+    private void emitFrame() {
+        state = STATE_LINE;
+        frameBuffer.flip();
+        messagesReceived++;
+        frameHandler.accept(frameBuffer);
+    }
+
+    /**
+     * Entrega la línea acumulada al manejador y reinicia el acumulador
+     */
+    private void emitLine() {
+        int length = lineLength;
+        if (length > 0 && lineBuffer[length - 1] == '\r') {
+            length--; // Tolerar finales de línea "\r\n"
+        }
+        lineLength = 0;
+        if (length == 0) return;
+
+        messagesReceived++;
+        handler.accept(new String(lineBuffer, 0, length, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void send(String msg) {
+        writeChars(msg, true);
+    }
+
+    @Override
+    public void write(CharSequence lines) {
+        writeChars(lines, false);
+    }
+
+    /**
+     * Codifica los caracteres en el buffer de escritura y los envía con una sola escritura
+     * @param chars Texto a enviar
+     * @param newline true para agregar '\n' al final
+     */
+    private void writeChars(CharSequence chars, boolean newline) {
+        if (!isConnected()) return;
+
+        synchronized (writeLock) {
+            try {
+                // Peor caso UTF-8: 3 bytes por carácter, más el '\n'
+                int needed = chars.length() * 3 + 1;
+                if (writeBuffer.capacity() < needed) {
+                    writeBuffer = ByteBuffer.allocateDirect(needed);
+                }
+                writeBuffer.clear();
+                encoder.reset();
+                encoder.encode(CharBuffer.wrap(chars), writeBuffer, true);
+                if (newline) {
+                    writeBuffer.put((byte) '\n');
+                }
+                writeBuffer.flip();
+
+                // El canal es no bloqueante: si el buffer del socket está lleno se
+                // espera OP_WRITE (sin ocupar la CPU) y se sigue con lo que falta
+                while (writeBuffer.hasRemaining()) {
+                    if (channel.write(writeBuffer) == 0) {
+                        writeSelector.select(WRITE_WAIT_MILLIS);
+                        writeSelector.selectedKeys().clear();
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                if (channel.isOpen()) {
+                    LOG.warn("Error enviando al servidor", "error", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean supportsBinaryFrames() {
+        return true;
+    }
+
+    @Override
+    public void setFrameHandler(Consumer<ByteBuffer> frameHandler) {
+        this.frameHandler = frameHandler;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // El hilo lector (fin de stream) y la UI (al salir) pueden cerrar a la vez: solo cierra uno
+        if (!closed.compareAndSet(false, true)) return;
+        try {
+            channel.close();
+        } finally {
+            try {
+                selector.close();
+            } finally {
+                writeSelector.close();
+            }
+        }
+    }
+
+    @Override
+    public boolean isConnected() {
+        return channel.isOpen() && channel.isConnected();
+    }
+
+    @Override
+    public long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    @Override
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+}
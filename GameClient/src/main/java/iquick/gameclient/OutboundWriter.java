@@ -0,0 +1,322 @@
+package iquick.gameclient;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escritor asíncrono de comandos hacia el servidor.
+ * El EDT (timers de input/regeneración, botón de reinicio) solo encola; un hilo
+ * virtual dedicado vacía la cola y escribe en el socket, así una escritura
+ * bloqueada nunca congela el renderizado.
+ *
+ * Política de cola acotada (nunca hay más de capacity comandos pendientes):
+ * - Un movimiento (A/D, LEFT/RIGHT) que todavía no salió y es el último de la
+ *   cola se reemplaza por el más reciente del mismo jugador (merge): el servidor
+ *   solo usa la última dirección. Si detrás hay otro comando (un salto, un
+ *   ataque) no se reemplaza, para no adelantar el movimiento nuevo a ese comando.
+ * - Si la cola está llena, los movimientos nuevos se descartan.
+ * - Con la cola llena, los demás comandos (saltos, ataques, RESTART,
+ *   REGENERATE_TILE) desplazan al movimiento pendiente más viejo; solo se
+ *   descartan si la cola está llena de comandos que no son movimientos.
+ * enqueue() informa qué pasó con el comando (ver Result).
+ */
+public class OutboundWriter {
+    public static final int DEFAULT_CAPACITY = 64;   // Comandos pendientes como máximo
+
+    /**
+     * Qué pasó con un comando encolado
+     */
+    public enum Result {
+        QUEUED,     // Salió a la cola como un comando nuevo
+        MERGED,     // Reemplazó al movimiento pendiente del final de la cola (el anterior no sale)
+        DROPPED     // Descartado (cola llena o escritor cerrado)
+    }
+
+    private final Transport transport;
+    private final int capacity;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>();
+    private final Entry[] pendingMove = new Entry[3];  // Movimiento pendiente por jugador (índice 1 y 2)
+    private boolean closed = false;
+
+    // Métricas (escritas bajo lock o solo por el hilo escritor)
+    private volatile int maxQueueDepth = 0;
+    private volatile long merged = 0;           // Movimientos reemplazados por uno más nuevo
+    private volatile long dropped = 0;          // Comandos descartados o desplazados por cola llena
+    private volatile long commandsWritten = 0;
+    private volatile long writes = 0;           // Escrituras reales al socket
+    private volatile long bytesWritten = 0;     // Bytes escritos, con los '\n' (los comandos son ASCII)
+    private volatile long totalLatencyNanos = 0;
+    private volatile long maxLatencyNanos = 0;
+    private volatile long lastLatencyNanos = 0;
+
+    /**
+     * Comando pendiente con el instante en que se encoló
+     */
+    private static class Entry {
+        String command;
+        long enqueuedAt;
+        final int movementPlayer;   // 1 o 2 si es un movimiento, 0 si no
+
+        Entry(String command, long enqueuedAt, int movementPlayer) {
+            this.command = command;
+            this.enqueuedAt = enqueuedAt;
+            this.movementPlayer = movementPlayer;
+        }
+    }
+
+    public OutboundWriter(Transport transport) {
+        this(transport, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param transport Transporte por el que se escriben los comandos
+     * @param capacity Cantidad máxima de comandos pendientes
+     */
+    public OutboundWriter(Transport transport, int capacity) {
+        this.transport = transport;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Inicia el hilo virtual que escribe en el socket
+     */
+    public void start() {
+        Thread.ofVirtual().name("server-writer").start(this::writeLoop);
+    }
+
+    /**
+     * Encola un comando (no bloquea ni toca el socket)
+     * @param command Comando sin salto de línea
+     * @return Si el comando sale como uno nuevo, reemplazó a otro o se descartó
+     */
+    public Result enqueue(String command) {
+        lock.lock();
+        try {
+            Result result = offer(command, System.nanoTime());
+            notEmpty.signal();
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Aplica la política de cola acotada (se llama con el lock tomado)
+     */
+    private Result offer(String command, long now) {
+        if (closed) return Result.DROPPED;
+
+        int player = movementPlayer(command);
+        if (player != 0) {
+            Entry pending = pendingMove[player];
+            if (pending != null && queue.peekLast() == pending) {
+                // El movimiento anterior todavía no salió y no tiene nada detrás: queda obsoleto
+                pending.command = command;
+                pending.enqueuedAt = now;
+                merged++;
+                return Result.MERGED;
+            }
+            if (queue.size() >= capacity) {
+                dropped++;
+                return Result.DROPPED;
+            }
+        } else if (queue.size() >= capacity && !evictOldestMovement()) {
+            dropped++;
+            return Result.DROPPED;
+        }
+
+        Entry entry = new Entry(command, now, player);
+        queue.addLast(entry);
+        if (player != 0) {
+            pendingMove[player] = entry;
+        }
+        if (queue.size() > maxQueueDepth) {
+            maxQueueDepth = queue.size();
+        }
+        return Result.QUEUED;
+    }
+
+    /**
+     * Saca de la cola el movimiento pendiente más viejo (se llama con el lock tomado)
+     * @return false si no hay ningún movimiento en la cola
+     */
+    private boolean evictOldestMovement() {
+        Iterator<Entry> entries = queue.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.movementPlayer != 0) {
+                entries.remove();
+                if (pendingMove[entry.movementPlayer] == entry) {
+                    pendingMove[entry.movementPlayer] = null;
+                }
+                dropped++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Identifica los comandos de movimiento y el jugador al que pertenecen
+     * @return 1 o 2 si es un movimiento, 0 si no
+     */
+    private static int movementPlayer(String command) {
+        switch (command) {
+            case "A":
+            case "D":
+                return 1;
+            case "LEFT":
+            case "RIGHT":
+                return 2;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Bucle del hilo escritor: vacía toda la cola en una sola escritura
+     */
+    private void writeLoop() {
+        StringBuilder batch = new StringBuilder(256);
+        Entry[] drained = new Entry[capacity];
+
+        while (true) {
+            int count;
+            lock.lock();
+            try {
+                while (queue.isEmpty() && !closed) {
+                    notEmpty.await(1, TimeUnit.SECONDS);
+                }
+                if (closed) return;
+
+                if (drained.length < queue.size()) {
+                    drained = new Entry[queue.size()];
+                }
+                count = 0;
+                Entry entry;
+                while ((entry = queue.pollFirst()) != null) {
+                    if (entry.movementPlayer != 0 && pendingMove[entry.movementPlayer] == entry) {
+                        pendingMove[entry.movementPlayer] = null;
+                    }
+                    drained[count++] = entry;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            // Escribir fuera del lock: el EDT puede seguir encolando
+            batch.setLength(0);
+            for (int i = 0; i < count; i++) {
+                batch.append(drained[i].command).append('\n');
+            }
+            transport.write(batch);
+
+            long now = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                recordLatency(now - drained[i].enqueuedAt);
+                drained[i] = null;
+            }
+            commandsWritten += count;
+            writes++;
+            bytesWritten += batch.length();
+        }
+    }
+
+    private void recordLatency(long nanos) {
+        lastLatencyNanos = nanos;
+        totalLatencyNanos += nanos;
+        if (nanos > maxLatencyNanos) {
+            maxLatencyNanos = nanos;
+        }
+    }
+
+    /**
+     * Detiene el hilo escritor (los comandos pendientes se descartan)
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            queue.clear();
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== MÉTRICAS =====
+
+    /**
+     * @return Comandos esperando ser escritos
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public long getMerged() {
+        return merged;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getCommandsWritten() {
+        return commandsWritten;
+    }
+
+    public long getWrites() {
+        return writes;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * @return Escrituras ahorradas respecto de una escritura por comando
+     */
+    public long getWritesSaved() {
+        return commandsWritten - writes;
+    }
+
+    /**
+     * @return Latencia promedio encolado-a-socket en nanosegundos
+     */
+    public long getAverageLatencyNanos() {
+        long written = commandsWritten;
+        return written == 0 ? 0 : totalLatencyNanos / written;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public long getLastLatencyNanos() {
+        return lastLatencyNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("cola=%d (max %d) escritos=%d escrituras=%d (ahorradas %d) bytes=%d fusionados=%d descartados=%d latencia prom=%.2fms max=%.2fms",
+                getQueueDepth(), maxQueueDepth, commandsWritten, writes, getWritesSaved(), bytesWritten, merged, dropped,
+                getAverageLatencyNanos() / 1e6, maxLatencyNanos / 1e6);
+    }
+}
@@ -26,4 +26,33 @@ public class Player {
         this.isAlive = true;
         this.score = 0;
     }
+    
+    /**
+     * Crea una copia del jugador (el decodificador parte del estado anterior
+     * porque no todos los campos vienen en cada mensaje)
+     */
+    public Player(Player other) {
+        this.x = other.x;
+        this.y = other.y;
+        this.isOnGround = other.isOnGround;
+        this.isJumping = other.isJumping;
+        this.isAttacking = other.isAttacking;
+        this.lives = other.lives;
+        this.isDamaged = other.isDamaged;
+        this.damageTime = other.damageTime;
+        this.isInvulnerable = other.isInvulnerable;
+        this.isAlive = other.isAlive;
+        this.score = other.score;
+    }
+    
+    /**
+     * Actualiza el estado de daño y registra el momento en que empezó
+     * (para el efecto de parpadeo)
+     */
+    public void updateDamaged(boolean damaged) {
+        if (damaged && !this.isDamaged) {
+            this.damageTime = System.currentTimeMillis();
+        }
+        this.isDamaged = damaged;
+    }
 }
\ No newline at end of file
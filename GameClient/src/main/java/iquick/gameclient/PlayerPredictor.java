@@ -0,0 +1,355 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+
+/**
+ * Predicción local del movimiento de un jugador (POPO o NANA).
+ *
+ * Reproduce la física del servidor (Player.Update y CheckCollisions en C#) en
+ * ticks fijos: cada comando de movimiento enviado se guarda con su número de
+ * secuencia en el tick en que salió, y se aplica de inmediato al estado predicho.
+ * Cuando llega la posición autoritativa se toma como el estado del tick
+ * confirmado y se vuelven a simular encima los ticks posteriores con sus
+ * entradas sin confirmar.
+ *
+ * Lo usan tres hilos: input-sender (InputDispatcher, entradas), el de dibujo
+ * (EDT o render, predict) y el de red (reconciliación); todos los métodos
+ * públicos están sincronizados.
+ */
+public class PlayerPredictor {
+    // Acciones de una entrada (se combinan por tick)
+    public static final int MOVE_LEFT = 1;
+    public static final int MOVE_RIGHT = 1 << 1;
+    public static final int JUMP = 1 << 2;
+
+    // Física del servidor (Player.cs)
+    static final float GRAVITY = 0.1f;
+    static final float JUMP_FORCE = -1.0f;
+    static final float MOVE_SPEED = 0.2f;
+    static final float GROUND_FRICTION = 0.8f;
+    static final float AIR_FRICTION = 0.95f;
+    static final int SOLID_TILE = 1;
+
+    public static final int HISTORY = 256;          // Ticks guardados (potencia de 2, unos 4 s)
+    private static final int MASK = HISTORY - 1;
+    private static final float MOTION_EPSILON = 0.01f; // Desplazamiento mínimo que cuenta como movimiento
+    private static final long NO_TICK = Long.MIN_VALUE;
+
+    // Estado predicho del último tick simulado
+    private float x;
+    private float y;
+    private float velocityX;
+    private float velocityY;
+    private boolean onGround;
+    private boolean jumping;
+    private long tick = NO_TICK;        // Último tick simulado (NO_TICK = sin estado)
+    private long firstTick = NO_TICK;   // Primer tick con historial válido
+
+    // Historial por tick (índice tick & MASK)
+    private final float[] historyX = new float[HISTORY];
+    private final float[] historyY = new float[HISTORY];
+    private final int[] inputActions = new int[HISTORY];   // Acciones enviadas en el tick
+    private final long[] inputTicks = new long[HISTORY];   // Tick al que pertenecen las acciones del índice
+
+    // Entradas sin confirmar, en orden de envío
+    private final long[] pendingSeq = new long[HISTORY];
+    private final long[] pendingTick = new long[HISTORY];
+    private int pendingHead = 0;
+    private int pendingCount = 0;
+    private long lastAckedSeq = -1;
+
+    // Último estado autoritativo (para estimar la velocidad, que el servidor no envía)
+    private boolean hasAuthoritative = false;
+    private float authoritativeX;
+    private float authoritativeY;
+
+    // Sonda para medir la demora de confirmación: una entrada cuyo efecto se reconoce
+    private int probeAction = 0;
+    private long probeSentAt;
+    private long ackSampleNanos = -1;   // Última muestra medida (la lee ClientPrediction)
+
+    // Resultado de la última reconciliación
+    private float lastError = Float.NaN;   // Distancia predicción/servidor en el tick confirmado
+    private float lastCorrection = 0;      // Cuánto se movió la posición predicha actual
+    private int lastReplayed = 0;          // Entradas sin confirmar simuladas de nuevo
+
+    public PlayerPredictor() {
+        Arrays.fill(inputTicks, NO_TICK);
+    }
+
+    /**
+     * Registra una entrada enviada al servidor y la aplica a la predicción
+     * @param seq Número de secuencia de la entrada
+     * @param action MOVE_LEFT, MOVE_RIGHT o JUMP
+     * @param inputTick Tick en que se envió
+     * @param sentAt System.nanoTime() del envío
+     */
+    public synchronized void recordInput(long seq, int action, long inputTick, long sentAt, GameMap map) {
+        if (tick == NO_TICK) return;   // Sin posición del servidor todavía
+        advance(inputTick - 1, map);
+
+        int slot = (int) (inputTick & MASK);
+        if (inputTicks[slot] != inputTick) {
+            inputTicks[slot] = inputTick;
+            inputActions[slot] = 0;
+        }
+        inputActions[slot] |= action;
+
+        if (pendingCount == HISTORY) {
+            // Nunca confirmadas en todo el historial: se olvida la más vieja
+            pendingHead = (pendingHead + 1) & MASK;
+            pendingCount--;
+        }
+        int index = (pendingHead + pendingCount) & MASK;
+        pendingSeq[index] = seq;
+        pendingTick[index] = inputTick;
+        pendingCount++;
+
+        // Un cambio de dirección o un salto se reconoce en la posición del servidor
+        if (probeAction == 0 || sentAt - probeSentAt > 1_000_000_000L) {
+            boolean turns = (action == MOVE_LEFT && velocityX >= 0)
+                    || (action == MOVE_RIGHT && velocityX <= 0)
+                    || (action == JUMP && onGround && !jumping);
+            if (turns) {
+                probeAction = action;
+                probeSentAt = sentAt;
+            }
+        }
+    }
+
+    /**
+     * Corrige la predicción con la posición autoritativa y vuelve a simular las
+     * entradas sin confirmar
+     * @param authoritative Jugador recibido del servidor
+     * @param ackTick Tick que se considera confirmado por este mensaje
+     * @param nowTick Tick actual
+     * @param receivedAt System.nanoTime() de la recepción
+     */
+    public synchronized void reconcile(Player authoritative, long ackTick, long nowTick,
+                                       long receivedAt, GameMap map) {
+        // Velocidad estimada a partir del desplazamiento entre dos mensajes (un tick del servidor)
+        float estimatedVelocityX = 0;
+        float estimatedVelocityY = 0;
+        ackSampleNanos = -1;
+        if (hasAuthoritative) {
+            float dx = authoritative.x - authoritativeX;
+            float dy = authoritative.y - authoritativeY;
+            estimatedVelocityX = dx * (authoritative.isOnGround ? GROUND_FRICTION : AIR_FRICTION);
+            estimatedVelocityY = authoritative.isOnGround ? 0 : dy;
+
+            if (probeAction != 0 && probeMatches(dx, dy)) {
+                ackSampleNanos = receivedAt - probeSentAt;
+                probeAction = 0;
+            }
+        }
+        hasAuthoritative = true;
+        authoritativeX = authoritative.x;
+        authoritativeY = authoritative.y;
+
+        ackTick = Math.min(ackTick, nowTick);
+        float previousX = x;
+        float previousY = y;
+        boolean hadState = tick != NO_TICK;
+        if (hadState) {
+            ackTick = Math.max(ackTick, Math.max(firstTick, tick - HISTORY + 1));
+            advance(ackTick, map);
+            int slot = (int) (ackTick & MASK);
+            lastError = distance(historyX[slot], historyY[slot], authoritative.x, authoritative.y);
+        } else {
+            lastError = Float.NaN;
+            firstTick = ackTick;
+        }
+
+        // El estado confirmado es el del servidor
+        x = authoritative.x;
+        y = authoritative.y;
+        velocityX = estimatedVelocityX;
+        velocityY = estimatedVelocityY;
+        onGround = authoritative.isOnGround;
+        jumping = authoritative.isJumping;
+        tick = ackTick;
+        int slot = (int) (ackTick & MASK);
+        historyX[slot] = x;
+        historyY[slot] = y;
+
+        // Descartar las entradas confirmadas y simular de nuevo las demás
+        while (pendingCount > 0 && pendingTick[pendingHead] <= ackTick) {
+            lastAckedSeq = pendingSeq[pendingHead];
+            pendingHead = (pendingHead + 1) & MASK;
+            pendingCount--;
+        }
+        lastReplayed = pendingCount;
+        advance(nowTick, map);
+
+        lastCorrection = hadState ? distance(previousX, previousY, x, y) : 0;
+    }
+
+    /**
+     * Posición predicha en un tick
+     * @param out Recibe x en out[0] e y en out[1]
+     * @return false si todavía no hay predicción
+     */
+    public synchronized boolean predict(long nowTick, GameMap map, float[] out) {
+        if (tick == NO_TICK) return false;
+        advance(nowTick, map);
+        out[0] = x;
+        out[1] = y;
+        return true;
+    }
+
+    /**
+     * Olvida la predicción (jugador muerto, inactivo o sin mapa)
+     */
+    public synchronized void reset() {
+        tick = NO_TICK;
+        firstTick = NO_TICK;
+        pendingCount = 0;
+        hasAuthoritative = false;
+        probeAction = 0;
+        ackSampleNanos = -1;
+        Arrays.fill(inputTicks, NO_TICK);
+    }
+
+    /**
+     * Simula los ticks que faltan hasta toTick
+     */
+    private void advance(long toTick, GameMap map) {
+        if (tick == NO_TICK || toTick <= tick) return;
+        if (toTick - tick > HISTORY) {
+            // Demasiado atrasado (ventana sin foco, pausa): no hay entradas que simular tan atrás
+            tick = toTick - HISTORY;
+        }
+        while (tick < toTick) {
+            tick++;
+            int slot = (int) (tick & MASK);
+            step(inputTicks[slot] == tick ? inputActions[slot] : 0, map);
+            historyX[slot] = x;
+            historyY[slot] = y;
+        }
+    }
+
+    /**
+     * Un tick del servidor: HandleInput de las entradas recibidas y luego Update
+     */
+    private void step(int actions, GameMap map) {
+        if ((actions & MOVE_LEFT) != 0) velocityX = -MOVE_SPEED;
+        if ((actions & MOVE_RIGHT) != 0) velocityX = MOVE_SPEED;
+        if ((actions & JUMP) != 0 && onGround && !jumping) {
+            velocityY = JUMP_FORCE;
+            onGround = false;
+            jumping = true;
+        }
+
+        if (!onGround) velocityY += GRAVITY;
+        x += velocityX;
+        y += velocityY;
+        checkCollisions(map);
+        velocityX *= onGround ? GROUND_FRICTION : AIR_FRICTION;
+    }
+
+    /**
+     * Misma lógica que CheckCollisions del servidor (Math.Round de C# redondea al par)
+     */
+    private void checkCollisions(GameMap map) {
+        int mapWidth = map.getWidth();
+        int mapHeight = map.getHeight();
+
+        // Límites del mapa
+        if (x < 0) x = 0;
+        if (x >= mapWidth) x = mapWidth - 0.1f;
+        if (y < 0) y = 0;
+        if (y >= mapHeight) y = mapHeight - 0.1f;
+
+        int tileX = Math.max(0, Math.min((int) Math.rint(x), mapWidth - 1));
+        int tileY = Math.max(0, Math.min((int) Math.rint(y), mapHeight - 1));
+        onGround = false;
+
+        // Colisión con bloque actual
+        if (map.getTile(tileX, tileY) == SOLID_TILE) {
+            if (velocityY < 0) {
+                y = tileY + 1;
+                velocityY = 0;
+            } else if (velocityY > 0) {
+                y = tileY - 1;
+                velocityY = 0;
+                onGround = true;
+                jumping = false;
+            } else {
+                if (velocityX > 0) x = tileX - 1;
+                else if (velocityX < 0) x = tileX + 1;
+                velocityX = 0;
+            }
+        }
+
+        // Suelo debajo
+        if (!onGround && map.getTile(tileX, tileY + 1) == SOLID_TILE && velocityY >= 0) {
+            y = tileY;
+            velocityY = 0;
+            onGround = true;
+            jumping = false;
+        }
+
+        // Techo arriba
+        if (map.getTile(tileX, tileY - 1) == SOLID_TILE && velocityY < 0) {
+            y = tileY;
+            velocityY = 0;
+        }
+
+        // Paredes
+        if (map.getTile(tileX + 1, tileY) == SOLID_TILE && velocityX > 0) {
+            x = tileX;
+            velocityX = 0;
+        }
+        if (map.getTile(tileX - 1, tileY) == SOLID_TILE && velocityX < 0) {
+            x = tileX;
+            velocityX = 0;
+        }
+    }
+
+    private boolean probeMatches(float dx, float dy) {
+        switch (probeAction) {
+            case MOVE_LEFT:
+                return dx < -MOTION_EPSILON;
+            case MOVE_RIGHT:
+                return dx > MOTION_EPSILON;
+            case JUMP:
+                return dy < -MOTION_EPSILON;
+            default:
+                return false;
+        }
+    }
+
+    private static float distance(float x1, float y1, float x2, float y2) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // ===== RESULTADOS (para ClientPrediction) =====
+
+    synchronized float getLastError() {
+        return lastError;
+    }
+
+    synchronized float getLastCorrection() {
+        return lastCorrection;
+    }
+
+    synchronized int getLastReplayed() {
+        return lastReplayed;
+    }
+
+    synchronized long takeAckSample() {
+        long sample = ackSampleNanos;
+        ackSampleNanos = -1;
+        return sample;
+    }
+
+    public synchronized long getLastAckedSeq() {
+        return lastAckedSeq;
+    }
+
+    public synchronized int getPendingInputs() {
+        return pendingCount;
+    }
+}
@@ -0,0 +1,210 @@
+package iquick.gameclient;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Codificación binaria compacta (opcional) para PLAYER_UPDATE.
+ *
+ * Trama: [0xB1][longitud u16][payload], big-endian. El byte 0xB1 nunca inicia una
+ * línea JSON/UTF-8, así que las tramas binarias y las líneas de texto pueden
+ * convivir en el mismo stream.
+ *
+ * Payload (versión BINARY1):
+ *   u8  tipo (1 = PLAYER_UPDATE)
+ *   u8  flags: bit0 isPlayer2Active, bit1 trae player2, bit2 trae isBonusPhase,
+ *              bit3 isBonusPhase, bit4 trae bonusPlayerId
+ *   u8  playerAbove (0 = ninguno)
+ *   u8  bonusPlayerId
+ *   i32 bonusTimeRemaining
+ *   jugador (14 bytes): f32 x, f32 y, i32 score, u8 lives,
+ *                       u8 flags (onGround, jumping, attacking, invulnerable, alive, damaged)
+ *   u16 cantidad de enemigos; cada uno (11 bytes): u16 id, f32 x, f32 y, u8 tipo|activo(bit7)
+ *   u16 cantidad de frutas; cada una (13 bytes): u16 id, f32 x, f32 y, u8 tipo|activo(bit7), u16 puntos
+ *
+ * El tipo es el ordinal de EnemyKind / FruitKind (mismo orden que EnemyType / FruitType
+ * en el servidor). El id corto se traduce con EntityIds.resolveShort, igual que
+ * los GUID de JSON, así los ids de los dos formatos no se confunden.
+ *
+ * Todos los métodos son estáticos: la clase no guarda estado.
+ *
+ * Se negocia al conectar: el cliente envía HELLO y el servidor responde
+ * {"type":"PROTOCOL","encoding":"BINARY1"} si lo soporta; si no, se sigue usando JSON.
+ * El codificador de esta clase es la implementación de referencia del formato.
+ */
+public final class PlayerUpdateCodec {
+    public static final byte FRAME_MARKER = (byte) 0xB1;   // Primer byte de una trama binaria
+    public static final int FRAME_HEADER_SIZE = 3;          // Marcador + longitud u16
+    public static final int MAX_PAYLOAD_SIZE = 0xFFFF;
+    public static final String ENCODING = "BINARY1";
+    public static final String HELLO = "PROTOCOL " + ENCODING;  // Comando de negociación
+
+    public static final byte TYPE_PLAYER_UPDATE = 1;
+
+    private static final int PLAYER_SIZE = 14;
+    private static final int ENEMY_SIZE = 11;
+    private static final int FRUIT_SIZE = 13;
+    private static final int ACTIVE_BIT = 0x80;
+
+    private PlayerUpdateCodec() {
+    }
+
+    // ===== CODIFICADOR DE REFERENCIA =====
+
+    /**
+     * Calcula el tamaño de la trama completa para un mensaje
+     */
+    public static int frameSize(boolean withPlayer2, int enemyCount, int fruitCount) {
+        return FRAME_HEADER_SIZE + 8 + PLAYER_SIZE + (withPlayer2 ? PLAYER_SIZE : 0)
+                + 2 + enemyCount * ENEMY_SIZE + 2 + fruitCount * FRUIT_SIZE;
+    }
+
+    /**
+     * Escribe una trama PLAYER_UPDATE completa (el id de cada entidad se
+     * escribe como id corto)
+     * @param out Buffer de salida (debe tener espacio para frameSize(...))
+     * @param player2 Jugador 2, o null si no se envía
+     * @param state Valores generales del mensaje
+     */
+    public static void encode(ByteBuffer out, Player player1, Player player2, PlayerUpdateState state,
+                       List<Enemy> enemies, List<Fruit> fruits) {
+        out.order(ByteOrder.BIG_ENDIAN);
+        int start = out.position();
+        out.put(FRAME_MARKER);
+        out.putShort((short) 0); // Longitud, se completa al final
+
+        int flags = 0;
+        if (state.isPlayer2Active) flags |= 1;
+        if (player2 != null) flags |= 1 << 1;
+        if (state.hasBonusPhase) flags |= 1 << 2;
+        if (state.isBonusPhase) flags |= 1 << 3;
+        if (state.bonusPlayerId >= 0) flags |= 1 << 4;
+
+        out.put(TYPE_PLAYER_UPDATE);
+        out.put((byte) flags);
+        out.put((byte) state.playerAbove);
+        out.put((byte) Math.max(0, state.bonusPlayerId));
+        out.putInt(state.bonusTimeRemaining);
+
+        encodePlayer(out, player1);
+        if (player2 != null) {
+            encodePlayer(out, player2);
+        }
+
+        out.putShort((short) enemies.size());
+        for (Enemy enemy : enemies) {
+            out.putShort((short) (enemy.id & 0xFFFF));
+            out.putFloat(enemy.x);
+            out.putFloat(enemy.y);
+            out.put((byte) (enemy.kind.ordinal() | (enemy.isActive ? ACTIVE_BIT : 0)));
+        }
+
+        out.putShort((short) fruits.size());
+        for (Fruit fruit : fruits) {
+            out.putShort((short) (fruit.id & 0xFFFF));
+            out.putFloat(fruit.x);
+            out.putFloat(fruit.y);
+            out.put((byte) (fruit.kind.ordinal() | (fruit.isActive ? ACTIVE_BIT : 0)));
+            out.putShort((short) fruit.points);
+        }
+
+        int payloadLength = out.position() - start - FRAME_HEADER_SIZE;
+        if (payloadLength > MAX_PAYLOAD_SIZE) {
+            throw new IllegalArgumentException("PLAYER_UPDATE demasiado grande para una trama: " + payloadLength);
+        }
+        out.putShort(start + 1, (short) payloadLength);
+    }
+
+    private static void encodePlayer(ByteBuffer out, Player player) {
+        out.putFloat(player.x);
+        out.putFloat(player.y);
+        out.putInt(player.score);
+        out.put((byte) player.lives);
+
+        int flags = 0;
+        if (player.isOnGround) flags |= 1;
+        if (player.isJumping) flags |= 1 << 1;
+        if (player.isAttacking) flags |= 1 << 2;
+        if (player.isInvulnerable) flags |= 1 << 3;
+        if (player.isAlive) flags |= 1 << 4;
+        if (player.isDamaged) flags |= 1 << 5;
+        out.put((byte) flags);
+    }
+
+    // ===== DECODIFICADOR =====
+
+    /**
+     * Decodifica el payload de una trama PLAYER_UPDATE (sin marcador ni longitud)
+     * escribiendo directamente en los objetos del juego
+     * @param in Payload posicionado en el byte de tipo
+     * @param enemies Almacén de enemigos, después de begin()
+     * @param fruits Almacén de frutas, después de begin()
+     * @param ids Traduce los ids cortos a ids enteros
+     * @param state Recibe los valores generales del mensaje
+     */
+    public static void decode(ByteBuffer in, Player player1, Player player2,
+                              EntityStore<Enemy> enemies, EntityStore<Fruit> fruits,
+                              EntityIds ids, PlayerUpdateState state) {
+        in.order(ByteOrder.BIG_ENDIAN);
+        byte type = in.get();
+        if (type != TYPE_PLAYER_UPDATE) {
+            throw new IllegalArgumentException("Tipo de trama binaria desconocido: " + type);
+        }
+
+        int flags = in.get() & 0xFF;
+        state.reset();
+        state.isPlayer2Active = (flags & 1) != 0;
+        state.hasBonusPhase = (flags & (1 << 2)) != 0;
+        state.isBonusPhase = (flags & (1 << 3)) != 0;
+        state.playerAbove = in.get() & 0xFF;
+        int bonusPlayerId = in.get() & 0xFF;
+        state.bonusPlayerId = (flags & (1 << 4)) != 0 ? bonusPlayerId : -1;
+        state.bonusTimeRemaining = in.getInt();
+
+        decodePlayer(in, player1);
+        if ((flags & (1 << 1)) != 0) {
+            decodePlayer(in, player2);
+        }
+
+        int enemyCount = in.getShort() & 0xFFFF;
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = enemies.obtain();
+            enemy.id = ids.resolveShort(in.getShort() & 0xFFFF);
+            enemy.x = in.getFloat();
+            enemy.y = in.getFloat();
+            int kind = in.get() & 0xFF;
+            enemy.isActive = (kind & ACTIVE_BIT) != 0;
+            enemy.kind = EnemyKind.fromCode(kind & ~ACTIVE_BIT);
+            enemies.commit(enemy);
+        }
+
+        int fruitCount = in.getShort() & 0xFFFF;
+        for (int i = 0; i < fruitCount; i++) {
+            Fruit fruit = fruits.obtain();
+            fruit.id = ids.resolveShort(in.getShort() & 0xFFFF);
+            fruit.x = in.getFloat();
+            fruit.y = in.getFloat();
+            int kind = in.get() & 0xFF;
+            fruit.isActive = (kind & ACTIVE_BIT) != 0;
+            fruit.kind = FruitKind.fromCode(kind & ~ACTIVE_BIT);
+            fruit.points = in.getShort() & 0xFFFF;
+            fruits.commit(fruit);
+        }
+    }
+
+    private static void decodePlayer(ByteBuffer in, Player player) {
+        player.x = in.getFloat();
+        player.y = in.getFloat();
+        player.score = in.getInt();
+        player.lives = in.get() & 0xFF;
+
+        int flags = in.get() & 0xFF;
+        player.isOnGround = (flags & 1) != 0;
+        player.isJumping = (flags & (1 << 1)) != 0;
+        player.isAttacking = (flags & (1 << 2)) != 0;
+        player.isInvulnerable = (flags & (1 << 3)) != 0;
+        player.isAlive = (flags & (1 << 4)) != 0;
+        player.updateDamaged((flags & (1 << 5)) != 0);
+    }
+}
@@ -0,0 +1,31 @@
+package iquick.gameclient;
+
+/**
+ * Valores generales de un PLAYER_UPDATE (todo lo que no es Player, Enemy o Fruit).
+ * Los decodificadores JSON y binario lo llenan y ServerConnection lo aplica
+ * sobre GameClient; se reutiliza la misma instancia en cada mensaje.
+ */
+public final class PlayerUpdateState {
+    public boolean isPlayer2Active;
+    public int playerAbove;          // 1 o 2; 0 si ningún jugador está encima
+    public boolean hasBonusPhase;    // Si el mensaje incluía isBonusPhase
+    public boolean isBonusPhase;
+    public int bonusPlayerId;        // -1 si no viene en el mensaje
+    public int bonusTimeRemaining;   // -1 si no viene en el mensaje
+
+    public PlayerUpdateState() {
+        reset();
+    }
+
+    /**
+     * Restablece los valores por defecto antes de decodificar un mensaje
+     */
+    public void reset() {
+        this.isPlayer2Active = false;
+        this.playerAbove = 0;
+        this.hasBonusPhase = false;
+        this.isBonusPhase = false;
+        this.bonusPlayerId = -1;
+        this.bonusTimeRemaining = -1;
+    }
+}
@@ -1,23 +1,46 @@
 package iquick.gameclient;
 
-import com.google.gson.*;
-import java.io.*;
-import java.net.*;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.List;
-import javax.swing.SwingUtilities;
 
 /**
  * Clase que maneja la conexión cliente-servidor para un juego multijugador.
  * Se encarga de enviar/recibir mensajes JSON y actualizar el estado del juego.
+ * Los mensajes se decodifican en streaming (JsonReader) directamente sobre los objetos del juego.
  */
-public class ServerConnection {
+public final class ServerConnection {
+    private static final Log LOG = Log.get("net");
+    
     // Componentes de conexión de red
-    private Socket socket;           // Socket TCP para la conexión
-    private PrintWriter out;         // Stream de salida para enviar mensajes
-    private BufferedReader in;       // Stream de entrada para recibir mensajes
+    private Transport transport;     // Transporte TCP (NIO o bloqueante, ver ClientConfig)
+    private OutboundWriter writer;   // Hilo virtual que escribe en el socket (el EDT solo encola)
+    private volatile boolean binaryProtocol = false;  // true si el servidor aceptó PlayerUpdateCodec
+    private final PlayerUpdateState updateState = new PlayerUpdateState(); // Reutilizado en cada PLAYER_UPDATE
+    private EntityStore<Enemy> enemyStore;  // Enemigos reconciliados por id (instancias recicladas)
+    private EntityStore<Fruit> fruitStore;  // Frutas reconciliadas por id (instancias recicladas)
+    private final EntityIds entityIds = new EntityIds(); // Ids del servidor (JSON y binarios) -> ids enteros
     private Gson gson;              // Parser JSON de Google
     private GameClient gameClient;   // Referencia al cliente del juego
+    private WorldState world;        // Donde se publica cada snapshot del mundo (solo escribe este hilo)
+    private final EdtMailbox mailbox = new EdtMailbox(); // Entrega al EDT con "última gana" para estados completos
+    
+    // Estado del mapa del lado del lector (solo lo usa el hilo de red)
+    private int[][] currentMap;                  // Mapa del último snapshot publicado (sus filas no se modifican)
+    private int[][] stagingMap = new int[0][];   // Buffer reutilizable donde se lee cada MAP
+    private int[] rowScratch = new int[64];      // Buffer reutilizable para una fila
+    
+    // MAP pendiente de entregar al EDT (varios MAP seguidos se acumulan en una sola entrega)
+    private final Object pendingMapLock = new Object();
+    private int[][] pendingFullMap;              // Reemplazo completo pendiente, o null
+    private boolean pendingTileUpdate;           // Hay tiles modificados pendientes
     
     /**
      * Constructor que establece la conexión con el servidor
@@ -27,367 +50,792 @@ public class ServerConnection {
      */
     public ServerConnection(String host, int port, GameClient gameClient) throws IOException {
         this.gameClient = gameClient;
+        this.world = gameClient.getWorld();
+        this.enemyStore = newEnemyStore(world);
+        this.fruitStore = newFruitStore(world);
         this.gson = new Gson();
         
-        // Establecer conexión TCP
-        socket = new Socket(host, port);
-        out = new PrintWriter(socket.getOutputStream(), true);
-        in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+        // Establecer conexión TCP con el transporte configurado
+        if (ClientConfig.useNioTransport()) {
+            transport = new NioTransport(host, port, this::processServerMessage);
+        } else {
+            transport = new BlockingTransport(host, port, this::processServerMessage);
+        }
         
-        // Crear hilo separado para escuchar mensajes del servidor
-        Thread thread = new Thread(() -> {
-            try {
-                String line;
-                // Bucle infinito para recibir mensajes
-                while ((line = in.readLine()) != null) {
-                    processServerMessage(line);
-                }
-            } catch (IOException e) {
-                System.err.println("Error receiving from server: " + e.getMessage());
-            }
-        });
-        thread.setDaemon(true); // Hilo daemon (termina cuando termina la aplicación)
-        thread.start();
+        writer = new OutboundWriter(transport);
+        
+        // Las tramas binarias se aceptan solo si se va a pedir el protocolo binario
+        boolean negotiateBinary = ClientConfig.requestBinaryProtocol() && transport.supportsBinaryFrames();
+        if (negotiateBinary) {
+            transport.setFrameHandler(this::processBinaryFrame);
+        }
+        
+        // Iniciar el hilo que escucha mensajes del servidor y el que escribe
+        transport.start();
+        writer.start();
+        
+        // Pedir la codificación binaria; si el servidor no responde se sigue con JSON
+        if (negotiateBinary) {
+            writer.enqueue(PlayerUpdateCodec.HELLO);
+        }
     }
     
     /**
-     * Procesa los mensajes JSON recibidos del servidor
+     * Constructor sin conexión ni UI, para benchmarks del decodificador.
+     * Los mensajes se entregan con processServerMessage() y solo se publican en
+     * el WorldState: no hay transporte y no se entrega nada al EDT.
+     * @param world Donde se publica cada snapshot del mundo
+     */
+    ServerConnection(WorldState world) {
+        this.world = world;
+        this.enemyStore = newEnemyStore(world);
+        this.fruitStore = newFruitStore(world);
+        this.gson = new Gson();
+    }
+    
+    /**
+     * @return true si hay un cliente que notificar (false con el constructor sin UI)
+     */
+    private boolean hasUi() {
+        return gameClient != null;
+    }
+    
+    /**
+     * Procesa los mensajes JSON recibidos del servidor.
+     * Usa un JsonReader en modo streaming: lee el campo "type", despacha y cada
+     * procesador escribe los valores directamente en Player/Enemy/Fruit,
+     * sin construir el árbol JsonObject intermedio.
      * @param message Mensaje JSON como string
      */
-    private void processServerMessage(String message) {
+    void processServerMessage(String message) {
         try {
-            // Parsear JSON
-            JsonElement jsonElement = gson.fromJson(message, JsonElement.class);
-            if (!jsonElement.isJsonObject()) {
-                System.out.println("⚠️ Mensaje inesperado del servidor (no es JSON válido): " + jsonElement.toString());
+            JsonReader reader = new JsonReader(new StringReader(message));
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                LOG.warn("Mensaje inesperado del servidor (no es JSON válido)", "mensaje", message);
                 return;
             }
+            reader.beginObject();
 
-            JsonObject json = jsonElement.getAsJsonObject();
-            String type = json.get("type").getAsString();
+            // El servidor siempre envía "type" como primer campo
+            if (!reader.hasNext() || !reader.nextName().equals("type")) {
+                processReorderedMessage(message);
+                return;
+            }
+            String type = reader.nextString();
 
             // Switch para manejar diferentes tipos de mensajes
             switch (type) {
                 case "MAP": 
-                    processMap(json); 
+                    processMap(reader); 
                     break;
                 case "PLAYER_UPDATE": 
-                    processPlayerUpdate(json); 
+                    processPlayerUpdate(reader); 
                     break;
                 case "TILE_DESTROYED": 
-                    processTileDestroyed(json); 
+                    processTileDestroyed(reader); 
                     break;
                 case "TILE_REGENERATED": 
-                    processTileRegenerated(json); 
+                    processTileRegenerated(reader); 
                     break;
                 case "ATTACK_RESULT": 
-                    processAttackResult(json); 
+                    processAttackResult(reader); 
                     break;
                 case "GAME_OVER": 
-                    processGameOver(json); 
+                    processGameOver(reader); 
                     break;
                 case "PLAYER2_ACTIVATED":
-                    processPlayer2Activated(json);
+                    processPlayer2Activated(reader);
                     break;
                 case "BONUS_PHASE":
-                    processBonusPhase(json);
+                    processBonusPhase(reader);
+                    break;
+                case "PROTOCOL":
+                    processProtocol(reader);
                     break;
             }
         } catch (Exception e) {
-            System.err.println("Error procesando mensaje: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error procesando mensaje", e);
         }
     }
     
     /**
-     * Procesa la información del mapa del juego
-     * @param json Objeto JSON con datos del mapa
+     * Procesa una trama binaria (PLAYER_UPDATE codificado con PlayerUpdateCodec)
+     * @param frame Payload de la trama
      */
-    private void processMap(JsonObject json) {
-        int mapWidth = json.get("width").getAsInt();
-        int mapHeight = json.get("height").getAsInt();
-        JsonArray mapArray = json.getAsJsonArray("map");
-
-        // Crear matriz 2D del mapa
-        int[][] gameMap = new int[mapHeight][mapWidth];
-        for (int i = 0; i < mapHeight; i++) {
-            JsonArray row = mapArray.get(i).getAsJsonArray();
-            for (int j = 0; j < mapWidth; j++) {
-                gameMap[i][j] = row.get(j).getAsInt();
-            }
+    private void processBinaryFrame(ByteBuffer frame) {
+        try {
+            WorldSnapshot previous = world.current();
+            Player player1 = new Player(previous.player1);
+            Player player2 = new Player(previous.player2);
+            enemyStore.begin();
+            fruitStore.begin();
+            PlayerUpdateCodec.decode(frame, player1, player2, enemyStore, fruitStore, entityIds, updateState);
+            publishPlayerUpdate(previous, player1, player2);
+        } catch (Exception e) {
+            LOG.error("Error procesando trama binaria", e);
         }
-
-        // Actualizar en el hilo de la UI (thread-safe)
-        SwingUtilities.invokeLater(() -> 
-            gameClient.updateMap(gameMap, mapWidth, mapHeight));
     }
     
     /**
-     * Procesa actualizaciones de estado de los jugadores
-     * @param json Objeto JSON con datos de los jugadores
+     * Procesa la respuesta del servidor a la negociación de protocolo
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processPlayerUpdate(JsonObject json) {
-        // Actualizar Player 1
-        if (json.has("player1")) {
-            JsonObject player1Data = json.getAsJsonObject("player1");
-            Player player1 = gameClient.getPlayer1();
-            updatePlayerData(player1, player1Data);
+    private void processProtocol(JsonReader reader) throws IOException {
+        String encoding = readStringField(reader, "encoding");
+        binaryProtocol = PlayerUpdateCodec.ENCODING.equals(encoding);
+        LOG.info("Protocolo negociado", "encoding", binaryProtocol ? encoding : "JSON");
+    }
+    
+    /**
+     * Caso poco común: el campo "type" no viene primero.
+     * Se reordena el mensaje con el parser de árbol y se vuelve a procesar.
+     * @param message Mensaje JSON original
+     */
+    private void processReorderedMessage(String message) {
+        JsonObject json = gson.fromJson(message, JsonObject.class);
+        if (json == null || !json.has("type")) {
+            LOG.warn("Mensaje del servidor sin tipo", "mensaje", message);
+            return;
         }
 
-        // Verificar si Player 2 está activo
-        boolean isPlayer2Active = json.has("isPlayer2Active") && json.get("isPlayer2Active").getAsBoolean();
-        gameClient.setPlayer2Active(isPlayer2Active);
+        JsonObject reordered = new JsonObject();
+        reordered.add("type", json.remove("type"));
+        for (String key : json.keySet()) {
+            reordered.add(key, json.get(key));
+        }
+        processServerMessage(reordered.toString());
+    }
+    
+    /**
+     * Procesa la información del mapa del juego.
+     * El servidor reenvía el mapa completo después de cada cambio, así que se compara
+     * contra el mapa actual: si las dimensiones coinciden se reutiliza el mismo arreglo
+     * y solo se notifican los tiles que cambiaron.
+     * @param reader Lector posicionado después del campo "type"
+     */
+    private void processMap(JsonReader reader) throws IOException {
+        int width = -1;
+        int height = -1;
+        int rowCount = 0;
 
-        // Actualizar Player 2 si está activo
-        if (isPlayer2Active && json.has("player2") && !json.get("player2").isJsonNull()) {
-            JsonObject player2Data = json.getAsJsonObject("player2");
-            Player player2 = gameClient.getPlayer2();
-            updatePlayerData(player2, player2Data);
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "width":
+                    width = reader.nextInt();
+                    break;
+                case "height":
+                    height = reader.nextInt();
+                    break;
+                case "map":
+                    rowCount = readMapRows(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
 
-        // Determinar qué jugador está más arriba (para renderizado en capas)
-        final Integer playerAbove = json.has("playerAbove") && !json.get("playerAbove").isJsonNull() 
-            ? json.get("playerAbove").getAsInt() 
-            : null;
-        gameClient.setPlayerAbove(playerAbove);
+        // Las dimensiones pueden venir después del arreglo
+        final int mapHeight = height >= 0 ? height : rowCount;
+        final int mapWidth = width >= 0 ? width : (rowCount == 0 ? 0 : stagingMap[0].length);
+
+        boolean sameShape = rowCount == mapHeight
+                && hasWidth(stagingMap, rowCount, mapWidth)
+                && currentMap != null && currentMap.length == mapHeight
+                && hasWidth(currentMap, mapHeight, mapWidth);
+        if (!sameShape) {
+            // Cambio de dimensiones (por ejemplo al entrar a la fase bonus): reemplazo completo
+            int[][] gameMap = new int[mapHeight][];
+            for (int i = 0; i < mapHeight; i++) {
+                gameMap[i] = i < rowCount ? Arrays.copyOf(stagingMap[i], mapWidth) : new int[mapWidth];
+            }
+            currentMap = gameMap;
+            world.publish(world.current().withMap(gameMap, mapWidth, mapHeight));
 
-        // Manejar fase bonus del juego
-        if (json.has("isBonusPhase")) {
-            boolean isBonusPhase = json.get("isBonusPhase").getAsBoolean();
-            gameClient.setBonusPhase(isBonusPhase);
+            // Un mapa completo deja obsoletos los cambios de tiles anteriores
+            synchronized (pendingMapLock) {
+                pendingFullMap = gameMap;
+                pendingTileUpdate = false;
+            }
+            if (hasUi()) {
+                mailbox.postLatest(EdtMailbox.SLOT_MAP, this::deliverMap);
+            }
+            return;
+        }
 
-            if (isBonusPhase) {
-                // Actualizar ID del jugador en fase bonus
-                if (json.has("bonusPlayerId") && !json.get("bonusPlayerId").isJsonNull()) {
-                    int bonusPlayerId = json.get("bonusPlayerId").getAsInt();
-                    gameClient.setBonusPlayerId(bonusPlayerId);
+        // Mismas dimensiones: solo se copian las filas que cambiaron
+        boolean changed = applyDiff(stagingMap, mapWidth, mapHeight);
+        if (changed && hasUi()) {
+            synchronized (pendingMapLock) {
+                // Si hay un mapa completo pendiente ya incluye estos cambios
+                if (pendingFullMap == null) {
+                    pendingTileUpdate = true;
                 }
+            }
+            mailbox.postLatest(EdtMailbox.SLOT_MAP, this::deliverMap);
+        }
+    }
+    
+    /**
+     * Entrega en el EDT todo lo acumulado de los MAP recibidos desde la última entrega
+     */
+    private void deliverMap() {
+        int[][] fullMap;
+        boolean tilesChanged;
+        synchronized (pendingMapLock) {
+            fullMap = pendingFullMap;
+            tilesChanged = pendingTileUpdate;
+            pendingFullMap = null;
+            pendingTileUpdate = false;
+        }
 
-                // Actualizar tiempo restante de la fase bonus
-                if (json.has("bonusTimeRemaining")) {
-                    int bonusTimeRemaining = json.get("bonusTimeRemaining").getAsInt();
-                    gameClient.setBonusTimeRemaining(bonusTimeRemaining);
+        if (fullMap != null) {
+            gameClient.updateMap();
+        } else if (tilesChanged) {
+            gameClient.applyMapChanges();
+        }
+    }
+    
+    /**
+     * Lee el arreglo de filas del mapa ([[int, ...], ...]) sobre el buffer de staging,
+     * reutilizando sus filas cuando el ancho no cambia
+     * @param reader Lector posicionado en el arreglo "map"
+     * @return Cantidad de filas leídas
+     */
+    private int readMapRows(JsonReader reader) throws IOException {
+        int rows = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            int count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (count == rowScratch.length) {
+                    rowScratch = Arrays.copyOf(rowScratch, rowScratch.length * 2);
                 }
-            } else {
-                // Resetear valores cuando no hay fase bonus
-                gameClient.setBonusPlayerId(-1);
-                gameClient.setBonusTimeRemaining(0);
+                rowScratch[count++] = reader.nextInt();
+            }
+            reader.endArray();
+
+            if (rows == stagingMap.length) {
+                stagingMap = Arrays.copyOf(stagingMap, Math.max(16, rows * 2));
+            }
+            if (stagingMap[rows] == null || stagingMap[rows].length != count) {
+                stagingMap[rows] = new int[count];
+            }
+            System.arraycopy(rowScratch, 0, stagingMap[rows], 0, count);
+            rows++;
+        }
+        reader.endArray();
+        return rows;
+    }
+    
+    /**
+     * Verifica que las primeras filas de un mapa tengan el ancho indicado
+     */
+    private static boolean hasWidth(int[][] map, int rows, int width) {
+        for (int i = 0; i < rows; i++) {
+            if (map[i].length != width) return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Compara el mapa recibido con el mapa vigente y publica uno nuevo.
+     * Las filas del snapshot publicado no se tocan: cada fila con cambios se
+     * reemplaza por una copia y las demás se comparten con el mapa anterior.
+     * @return true si hubo cambios
+     */
+    private boolean applyDiff(int[][] incoming, int width, int height) {
+        int[][] next = null;
+        for (int y = 0; y < height; y++) {
+            int[] source = incoming[y];
+            // Arrays.mismatch compara bloques completos; las filas iguales se comparten
+            if (Arrays.mismatch(currentMap[y], 0, width, source, 0, width) < 0) continue;
+
+            if (next == null) {
+                next = currentMap.clone();
             }
+            next[y] = Arrays.copyOf(source, width);
         }
 
-        // Actualizar listas de enemigos y frutas
-        if (json.has("enemies")) {
-            updateEnemies(json.getAsJsonArray("enemies"));
+        if (next != null) {
+            currentMap = next;
+            world.publish(world.current().withMap(next, width, height));
         }
-        if (json.has("fruits")) {
-            updateFruits(json.getAsJsonArray("fruits"));
+        return next != null;
+    }
+    
+    /**
+     * Cambia un solo tile publicando un mapa nuevo (copia solo esa fila)
+     * @return true si el tile existía
+     */
+    private boolean setTile(int x, int y, int value) {
+        if (currentMap == null || y < 0 || y >= currentMap.length
+                || x < 0 || x >= currentMap[y].length) {
+            return false;
+        }
+        int[][] next = currentMap.clone();
+        next[y] = currentMap[y].clone();
+        next[y][x] = value;
+        currentMap = next;
+        WorldSnapshot previous = world.current();
+        world.publish(previous.withMap(next, previous.mapWidth, previous.mapHeight));
+        return true;
+    }
+    
+    /**
+     * Procesa actualizaciones de estado de los jugadores
+     * @param reader Lector posicionado después del campo "type"
+     */
+    private void processPlayerUpdate(JsonReader reader) throws IOException {
+        // Buffer trasero: jugadores nuevos a partir del snapshot vigente y entidades del pool
+        WorldSnapshot previous = world.current();
+        Player player1 = new Player(previous.player1);
+        Player player2 = new Player(previous.player2);
+        enemyStore.begin();
+        fruitStore.begin();
+        decodePlayerUpdate(reader, player1, player2, enemyStore, fruitStore, entityIds, updateState);
+        publishPlayerUpdate(previous, player1, player2);
+    }
+    
+    /**
+     * Crea el almacén de enemigos (reconciliados por id, movidos si cambia x/y)
+     */
+    static EntityStore<Enemy> newEnemyStore(WorldState world) {
+        return new EntityStore<>(world, Enemy::new, Enemy::reset, enemy -> enemy.id,
+                (a, b) -> a.x == b.x && a.y == b.y, enemy -> enemy.x, enemy -> enemy.y);
+    }
+    
+    /**
+     * Crea el almacén de frutas (reconciliadas por id, movidas si cambia x/y)
+     */
+    static EntityStore<Fruit> newFruitStore(WorldState world) {
+        return new EntityStore<>(world, Fruit::new, Fruit::reset, fruit -> fruit.id,
+                (a, b) -> a.x == b.x && a.y == b.y, fruit -> fruit.x, fruit -> fruit.y);
+    }
+    
+    /**
+     * Decodifica un PLAYER_UPDATE en formato JSON escribiendo directamente en los objetos del juego
+     * @param reader Lector posicionado después del campo "type"
+     * @param enemies Almacén de enemigos, después de begin()
+     * @param fruits Almacén de frutas, después de begin()
+     * @param ids Traducción de los ids del servidor a enteros
+     * @param state Recibe los valores generales del mensaje (bonus, player 2, etc.)
+     */
+    static void decodePlayerUpdate(JsonReader reader, Player player1, Player player2,
+                                   EntityStore<Enemy> enemies, EntityStore<Fruit> fruits,
+                                   EntityIds ids, PlayerUpdateState state) throws IOException {
+        state.reset();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "player1":
+                    // Actualizar Player 1
+                    if (!skipNull(reader)) {
+                        updatePlayerData(player1, reader);
+                    }
+                    break;
+                case "player2":
+                    // El servidor envía null cuando Player 2 no está activo
+                    if (!skipNull(reader)) {
+                        updatePlayerData(player2, reader);
+                    }
+                    break;
+                case "isPlayer2Active":
+                    state.isPlayer2Active = reader.nextBoolean();
+                    break;
+                case "playerAbove":
+                    state.playerAbove = skipNull(reader) ? 0 : reader.nextInt();
+                    break;
+                case "isBonusPhase":
+                    state.hasBonusPhase = true;
+                    state.isBonusPhase = reader.nextBoolean();
+                    break;
+                case "bonusPlayerId":
+                    state.bonusPlayerId = skipNull(reader) ? -1 : reader.nextInt();
+                    break;
+                case "bonusTimeRemaining":
+                    state.bonusTimeRemaining = skipNull(reader) ? -1 : reader.nextInt();
+                    break;
+                case "enemies":
+                    updateEnemies(enemies, ids, reader);
+                    break;
+                case "fruits":
+                    updateFruits(fruits, ids, reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
         }
-        
-        // Actualizar UI en el hilo apropiado
-        SwingUtilities.invokeLater(() -> {
-            gameClient.getGamePanel().setPlayerAbove(playerAbove);
-            gameClient.repaintGame();
-        });
+    }
+    
+    /**
+     * Publica el snapshot de un PLAYER_UPDATE ya decodificado (JSON o binario)
+     * @param previous Snapshot del que se partió al decodificar
+     */
+    private void publishPlayerUpdate(WorldSnapshot previous, Player player1, Player player2) {
+        long sequence = previous.sequence + 1;
+        EntityChanges<Enemy> enemies = enemyStore.finish(previous.sequence, sequence);
+        EntityChanges<Fruit> fruits = fruitStore.finish(previous.sequence, sequence);
+        // Los ids que ya no vienen se liberan: no están en el índice nuevo, así que
+        // reutilizarlos desde el próximo mensaje es un spawn normal
+        List<Enemy> goneEnemies = enemies.getDespawned();
+        for (int i = 0; i < goneEnemies.size(); i++) {
+            entityIds.release(goneEnemies.get(i).id);
+        }
+        List<Fruit> goneFruits = fruits.getDespawned();
+        for (int i = 0; i < goneFruits.size(); i++) {
+            entityIds.release(goneFruits.get(i).id);
+        }
+
+        // Un solo cambio de referencia: el EDT ve el mensaje completo o el anterior, nunca mezclado
+        WorldSnapshot snapshot = previous.withPlayerUpdate(player1, player2, enemies, fruits, updateState);
+        world.publish(snapshot);
+        if (!hasUi()) return;
+
+        // Corregir la predicción local con las posiciones autoritativas
+        gameClient.getPrediction().reconcile(snapshot);
+        gameClient.getEnemyInterpolator().record(snapshot);
+
+        // Actualizar UI en el hilo apropiado (solo importa el PLAYER_UPDATE más reciente)
+        mailbox.postLatest(EdtMailbox.SLOT_PLAYER_UPDATE, gameClient::repaintGame);
     }
     
     /**
      * Procesa eventos de inicio/fin de fase bonus
-     * @param json Objeto JSON con información de la fase bonus
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processBonusPhase(JsonObject json) {
-        String action = json.get("action").getAsString();
+    private void processBonusPhase(JsonReader reader) throws IOException {
+        String action = readStringField(reader, "action");
+        if (action == null) return;
 
         switch (action) {
             case "START":
-                System.out.println("¡Fase bonus iniciada!");
+                LOG.info("Fase bonus iniciada");
                 break;
             case "END":
-                System.out.println("¡Fase bonus terminada!");
+                LOG.info("Fase bonus terminada");
                 break;
         }
 
-        SwingUtilities.invokeLater(() -> gameClient.repaintGame());
+        if (hasUi()) {
+            mailbox.postLatest(EdtMailbox.SLOT_REPAINT, gameClient::repaintGame);
+        }
     }
     
     /**
      * Actualiza los datos de un jugador específico
      * @param player Objeto Player a actualizar
-     * @param data JSON con los nuevos datos del jugador
-     */
-    private void updatePlayerData(Player player, JsonObject data) {
-        // Datos básicos de posición y estado
-        player.x = data.get("x").getAsFloat();
-        player.y = data.get("y").getAsFloat();
-        player.isOnGround = data.get("isOnGround").getAsBoolean();
-        player.isJumping = data.get("isJumping").getAsBoolean();
-        player.isAttacking = data.get("isAttacking").getAsBoolean();
-
-        // Datos opcionales (verificar existencia antes de leer)
-        if (data.has("lives")) {
-            player.lives = data.get("lives").getAsInt();
-        }
-        if (data.has("score")) {
-            player.score = data.get("score").getAsInt();
-        }
-        if (data.has("isInvulnerable")) {
-            player.isInvulnerable = data.get("isInvulnerable").getAsBoolean();
-        }
-        if (data.has("isAlive")) {
-            player.isAlive = data.get("isAlive").getAsBoolean();
-        }
-        if (data.has("isDamaged")) {
-            boolean wasDamaged = player.isDamaged;
-            player.isDamaged = data.get("isDamaged").getAsBoolean();
-            // Registrar tiempo del daño para efectos visuales
-            if (player.isDamaged && !wasDamaged) {
-                player.damageTime = System.currentTimeMillis();
+     * @param reader Lector posicionado en el objeto del jugador
+     */
+    private static void updatePlayerData(Player player, JsonReader reader) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                // Datos básicos de posición y estado
+                case "x":
+                    player.x = (float) reader.nextDouble();
+                    break;
+                case "y":
+                    player.y = (float) reader.nextDouble();
+                    break;
+                case "isOnGround":
+                    player.isOnGround = reader.nextBoolean();
+                    break;
+                case "isJumping":
+                    player.isJumping = reader.nextBoolean();
+                    break;
+                case "isAttacking":
+                    player.isAttacking = reader.nextBoolean();
+                    break;
+                // Datos opcionales
+                case "lives":
+                    player.lives = reader.nextInt();
+                    break;
+                case "score":
+                    player.score = reader.nextInt();
+                    break;
+                case "isInvulnerable":
+                    player.isInvulnerable = reader.nextBoolean();
+                    break;
+                case "isAlive":
+                    player.isAlive = reader.nextBoolean();
+                    break;
+                case "isDamaged":
+                    // Registra también el tiempo del daño para efectos visuales
+                    player.updateDamaged(reader.nextBoolean());
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
+        reader.endObject();
     }
     
     /**
-     * Actualiza la lista de enemigos desde el servidor
-     * @param array Array JSON con datos de enemigos
+     * Actualiza los enemigos desde el servidor
+     * @param enemies Almacén donde se reconcilian los enemigos por id
+     * @param ids Traducción de los ids del servidor a enteros
+     * @param reader Lector posicionado en el arreglo "enemies"
      */
-    private void updateEnemies(JsonArray array) {
-        List<Enemy> enemies = gameClient.getEnemies();
-        enemies.clear(); // Limpiar lista existente
+    private static void updateEnemies(EntityStore<Enemy> enemies, EntityIds ids, JsonReader reader) throws IOException {
+        if (skipNull(reader)) return;
 
-        // Reconstruir lista con datos del servidor
-        for (JsonElement e : array) {
-            JsonObject obj = e.getAsJsonObject();
-            Enemy enemy = new Enemy();
-            enemy.id = obj.get("id").getAsString();
-            enemy.x = obj.get("x").getAsFloat();
-            enemy.y = obj.get("y").getAsFloat();
-            enemy.isActive = obj.get("isActive").getAsBoolean();
-
-            // Obtener tipo de enemigo (para diferentes sprites/comportamientos)
-            if (obj.has("enemyType")) {
-                enemy.enemyType = obj.get("enemyType").getAsString();
+        // Llenar instancias recicladas con datos del servidor
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Enemy enemy = enemies.obtain();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        enemy.id = ids.resolve(reader.nextString());
+                        break;
+                    case "x":
+                        enemy.x = (float) reader.nextDouble();
+                        break;
+                    case "y":
+                        enemy.y = (float) reader.nextDouble();
+                        break;
+                    case "isActive":
+                        enemy.isActive = reader.nextBoolean();
+                        break;
+                    case "enemyType":
+                        // Tipo de enemigo (para diferentes sprites/comportamientos)
+                        enemy.kind = EnemyKind.fromWire(reader.nextString());
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Enemigo decodificado", "id", enemy.id, "tipo", enemy.kind);
             }
-            System.out.println("ENEMY TYPE: " + enemy.enemyType);
-            enemies.add(enemy);
+            enemies.commit(enemy);
         }
+        reader.endArray();
     }
     
     /**
-     * Actualiza la lista de frutas (power-ups/puntos) desde el servidor
-     * @param array Array JSON con datos de frutas
+     * Actualiza las frutas (power-ups/puntos) desde el servidor
+     * @param fruits Almacén donde se reconcilian las frutas por id
+     * @param ids Traducción de los ids del servidor a enteros
+     * @param reader Lector posicionado en el arreglo "fruits"
      */
-    private void updateFruits(JsonArray array) {
-        List<Fruit> fruits = gameClient.getFruits();
-        fruits.clear(); // Limpiar lista existente
+    private static void updateFruits(EntityStore<Fruit> fruits, EntityIds ids, JsonReader reader) throws IOException {
+        if (skipNull(reader)) return;
 
-        // Reconstruir lista con datos del servidor
-        for (JsonElement e : array) {
-            JsonObject obj = e.getAsJsonObject();
-            Fruit fruit = new Fruit();
-            fruit.id = obj.get("id").getAsString();
-            fruit.x = obj.get("x").getAsFloat();
-            fruit.y = obj.get("y").getAsFloat();
-            fruit.isActive = obj.get("isActive").getAsBoolean();
-
-            // Datos específicos de frutas
-            if (obj.has("fruitType")) {
-                fruit.fruitType = obj.get("fruitType").getAsString();
-            }
-            if (obj.has("points")) {
-                fruit.points = obj.get("points").getAsInt();
+        // Llenar instancias recicladas con datos del servidor
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Fruit fruit = fruits.obtain();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "id":
+                        fruit.id = ids.resolve(reader.nextString());
+                        break;
+                    case "x":
+                        fruit.x = (float) reader.nextDouble();
+                        break;
+                    case "y":
+                        fruit.y = (float) reader.nextDouble();
+                        break;
+                    case "isActive":
+                        fruit.isActive = reader.nextBoolean();
+                        break;
+                    // Datos específicos de frutas
+                    case "fruitType":
+                        fruit.kind = FruitKind.fromWire(reader.nextString());
+                        break;
+                    case "points":
+                        fruit.points = reader.nextInt();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
             }
-
-            fruits.add(fruit);
+            reader.endObject();
+            fruits.commit(fruit);
         }
+        reader.endArray();
     }
 
     /**
      * Procesa la destrucción de un tile del mapa
-     * @param json JSON con coordenadas del tile destruido
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processTileDestroyed(JsonObject json) {
-        int x = json.get("x").getAsInt();
-        int y = json.get("y").getAsInt();
-        
-        // Registrar tile destruido y actualizar mapa
-        gameClient.addDestroyedTile(x, y);
-        gameClient.updateMapTile(x, y, 0); // 0 = espacio vacío
+    private void processTileDestroyed(JsonReader reader) throws IOException {
+        int[] xy = readTileCoordinates(reader);
         
-        SwingUtilities.invokeLater(() -> gameClient.repaintGame());
+        // Actualizar mapa y registrar el tile destruido (en el EDT, en orden con los demás eventos)
+        if (setTile(xy[0], xy[1], 0) && hasUi()) { // 0 = espacio vacío
+            mailbox.post(() -> {
+                gameClient.addDestroyedTile(xy[0], xy[1]);
+                gameClient.repaintGame();
+            });
+        }
     }
     
     /**
      * Procesa la regeneración de un tile del mapa
-     * @param json JSON con coordenadas del tile regenerado
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processTileRegenerated(JsonObject json) {
-        int x = json.get("x").getAsInt();
-        int y = json.get("y").getAsInt();
-        
-        // Quitar de lista de destruidos y restaurar en mapa
-        gameClient.removeDestroyedTile(x, y);
-        gameClient.updateMapTile(x, y, 1); // 1 = tile sólido
+    private void processTileRegenerated(JsonReader reader) throws IOException {
+        int[] xy = readTileCoordinates(reader);
         
-        SwingUtilities.invokeLater(() -> gameClient.repaintGame());
+        // Restaurar en mapa y quitar de lista de destruidos (en el EDT, en orden con los demás eventos)
+        if (setTile(xy[0], xy[1], 1) && hasUi()) { // 1 = tile sólido
+            mailbox.post(() -> {
+                gameClient.removeDestroyedTile(xy[0], xy[1]);
+                gameClient.repaintGame();
+            });
+        }
     }
     
     /**
      * Procesa el resultado de un ataque
-     * @param json JSON con información del resultado
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processAttackResult(JsonObject json) {
-        boolean hit = json.get("hit").getAsBoolean();
+    private void processAttackResult(JsonReader reader) throws IOException {
+        boolean hit = false;
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("hit")) {
+                hit = reader.nextBoolean();
+            } else {
+                reader.skipValue();
+            }
+        }
         if (hit) {
-            System.out.println("¡Ataque exitoso!");
+            LOG.info("Ataque exitoso");
         }
     }
     
     /**
      * Procesa el fin del juego
-     * @param json JSON con mensaje de game over
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processGameOver(JsonObject json) {
-        String message = json.get("message").getAsString();
-        System.out.println("Game Over: " + message);
+    private void processGameOver(JsonReader reader) throws IOException {
+        String message = readStringField(reader, "message");
+        LOG.info("Game Over", "mensaje", message);
         
-        SwingUtilities.invokeLater(() -> gameClient.showGameOver());
+        if (!hasUi()) return;
+        mailbox.post(() -> gameClient.showGameOver());
     }
     
     /**
      * Procesa la activación del segundo jugador
-     * @param json JSON con resultado de la activación
+     * @param reader Lector posicionado después del campo "type"
      */
-    private void processPlayer2Activated(JsonObject json) {
-        boolean success = json.has("success") && json.get("success").getAsBoolean();
+    private void processPlayer2Activated(JsonReader reader) throws IOException {
+        boolean success = false;
+        String reason = "Razón desconocida";
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "success":
+                    success = reader.nextBoolean();
+                    break;
+                case "reason":
+                    reason = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+
         if (success) {
-            System.out.println("Player 2 activado exitosamente!");
-            SwingUtilities.invokeLater(() -> {
-                gameClient.setPlayer2Active(true);
-                gameClient.repaintGame();
-            });
+            LOG.info("Player 2 activado");
+            world.publish(world.current().withPlayer2Active(true));
+            if (hasUi()) {
+                mailbox.post(gameClient::repaintGame);
+            }
         } else {
-            String reason = json.has("reason") ? json.get("reason").getAsString() : "Razón desconocida";
-            System.out.println("No se pudo activar Player 2: " + reason);
+            LOG.warn("No se pudo activar Player 2", "razon", reason);
         }
     }
     
+    // ===== UTILIDADES DE LECTURA STREAMING =====
+    
     /**
-     * Envía un mensaje al servidor
-     * @param msg Mensaje a enviar (normalmente JSON)
+     * Lee los campos "x" e "y" de un mensaje de tile
+     * @return Arreglo {x, y}
+     */
+    private int[] readTileCoordinates(JsonReader reader) throws IOException {
+        int[] xy = new int[2];
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "x":
+                    xy[0] = reader.nextInt();
+                    break;
+                case "y":
+                    xy[1] = reader.nextInt();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        return xy;
+    }
+    
+    /**
+     * Lee el valor string de un campo, ignorando el resto del objeto
+     * @return Valor del campo o null si no existe
+     */
+    private String readStringField(JsonReader reader, String field) throws IOException {
+        String value = null;
+        while (reader.hasNext()) {
+            if (reader.nextName().equals(field)) {
+                value = skipNull(reader) ? null : reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Consume el valor si es null
+     * @return true si el valor era null (y ya fue consumido)
      */
-    public void send(String msg) {
-        if (socket != null && !socket.isClosed()) {
-            out.println(msg);
-            out.flush(); // Asegurar que se envíe inmediatamente
+    private static boolean skipNull(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return true;
         }
+        return false;
+    }
+    
+    /**
+     * Envía un mensaje al servidor sin esperar al siguiente tick.
+     * Solo lo encola en el escritor asíncrono: nunca bloquea al llamador.
+     * @param msg Mensaje a enviar (normalmente JSON)
+     * @return Si sale como comando nuevo, reemplazó a un movimiento pendiente o se descartó
+     */
+    public OutboundWriter.Result send(String msg) {
+        return writer.enqueue(msg);
+    }
+    
+    /**
+     * Obtiene el escritor asíncrono (profundidad de cola, latencia encolado-a-socket, descartes)
+     * @return Escritor de comandos salientes
+     */
+    public OutboundWriter getOutboundWriter() {
+        return writer;
+    }
+    
+    /**
+     * Obtiene el buzón hacia el EDT (actualizaciones descartadas y retraso del EDT)
+     * @return Buzón de actualizaciones de la UI
+     */
+    public EdtMailbox getMailbox() {
+        return mailbox;
     }
     
     /**
      * Cierra la conexión con el servidor
      */
     public void close() throws IOException {
-        if (socket != null && !socket.isClosed()) {
-            socket.close();
-        }
+        writer.close();
+        transport.close();
     }
     
     /**
@@ -395,6 +843,22 @@ public class ServerConnection {
      * @return true si está conectado, false si no
      */
     public boolean isConnected() {
-        return socket != null && !socket.isClosed();
+        return transport.isConnected();
+    }
+    
+    /**
+     * Verifica si el servidor aceptó la codificación binaria de PLAYER_UPDATE
+     * @return true si se negoció PlayerUpdateCodec, false si se usa JSON
+     */
+    public boolean isBinaryProtocol() {
+        return binaryProtocol;
+    }
+    
+    /**
+     * Obtiene el transporte en uso (para comparar contadores entre implementaciones)
+     * @return Transporte activo
+     */
+    public Transport getTransport() {
+        return transport;
     }
 }
\ No newline at end of file
@@ -0,0 +1,222 @@
+package iquick.gameclient;
+
+import java.util.Arrays;
+
+/**
+ * Índice espacial de entidades en una grilla uniforme de celdas de
+ * BUCKET_TILES x BUCKET_TILES tiles.
+ *
+ * Guarda por cada entidad su posición (en tiles) y el índice con que se
+ * agregó, que es su índice en la lista de entidades del mensaje. Las celdas se
+ * ubican en una tabla de tamaño potencia de dos por hash de sus coordenadas,
+ * así que el índice no depende del tamaño del mapa y no reserva memoria para
+ * las zonas vacías; cada entrada recuerda su celda para descartar las
+ * colisiones del hash.
+ *
+ * Lo llena EntityStore mientras se decodifica cada PLAYER_UPDATE y queda
+ * dentro del EntityChanges del snapshot: una vez publicado no se modifica y
+ * puede consultarse desde cualquier hilo (cada uno con sus propios Hits).
+ */
+public class SpatialGrid {
+    public static final int BUCKET_TILES = 4;           // Lado de una celda, en tiles
+    private static final int MIN_TABLE = 16;
+    private static final int END = -1;                  // Fin de la lista de una celda
+    private static final int LINEAR_CELL_COST = 4;      // Una celda cuesta como revisar ~4 entidades
+
+    private int[] heads = new int[MIN_TABLE];           // Hash de celda -> primera entrada
+    private int mask = MIN_TABLE - 1;
+    private int[] next = new int[MIN_TABLE];            // Siguiente entrada de la misma lista
+    private int[] cellXs = new int[MIN_TABLE];          // Celda de cada entrada
+    private int[] cellYs = new int[MIN_TABLE];
+    private float[] xs = new float[MIN_TABLE];          // Posición de cada entrada
+    private float[] ys = new float[MIN_TABLE];
+    private int size = 0;
+
+    /**
+     * Índices encontrados por una consulta (se reutiliza entre consultas)
+     */
+    public static final class Hits {
+        private int[] indices = new int[64];
+        private int size = 0;
+
+        /**
+         * @return Cantidad de entidades encontradas
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return Índice (en la lista de entidades) del resultado i
+         */
+        public int get(int i) {
+            return indices[i];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int index) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+            }
+            indices[size++] = index;
+        }
+    }
+
+    public SpatialGrid() {
+        Arrays.fill(heads, END);
+    }
+
+    /**
+     * Vacía el índice (conserva los arreglos para el próximo mensaje)
+     */
+    public void clear() {
+        Arrays.fill(heads, END);
+        size = 0;
+    }
+
+    /**
+     * Agrega una entidad
+     * @param x Posición en tiles
+     * @param y Posición en tiles
+     * @return Índice de la entidad (las entidades se numeran en el orden en que se agregan)
+     */
+    public int add(float x, float y) {
+        if (size == next.length) {
+            grow();
+        }
+        int index = size++;
+        xs[index] = x;
+        ys[index] = y;
+        cellXs[index] = cell(x);
+        cellYs[index] = cell(y);
+        if (size > heads.length) {
+            rehash(heads.length * 2);
+        } else {
+            link(index);
+        }
+        return index;
+    }
+
+    /**
+     * @return Cantidad de entidades
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Entidades cuya posición está dentro de un rectángulo (bordes incluidos)
+     * @param minX Rectángulo en tiles
+     * @param hits Recibe los índices, en el orden en que se agregaron
+     */
+    public void queryRect(float minX, float minY, float maxX, float maxY, Hits hits) {
+        hits.clear();
+        if (size == 0 || maxX < minX || maxY < minY) return;
+        int cellX0 = cell(minX);
+        int cellY0 = cell(minY);
+        int cellX1 = cell(maxX);
+        int cellY1 = cell(maxY);
+        long cells = (long) (cellX1 - cellX0 + 1) * (cellY1 - cellY0 + 1);
+        if (cells * LINEAR_CELL_COST >= size) {
+            // Pocas entidades por celda: es más barato revisarlas todas
+            for (int i = 0; i < size; i++) {
+                if (inside(i, minX, minY, maxX, maxY)) {
+                    hits.add(i);
+                }
+            }
+            return;
+        }
+        for (int cellY = cellY0; cellY <= cellY1; cellY++) {
+            for (int cellX = cellX0; cellX <= cellX1; cellX++) {
+                for (int i = heads[hash(cellX, cellY) & mask]; i != END; i = next[i]) {
+                    if (cellXs[i] == cellX && cellYs[i] == cellY && inside(i, minX, minY, maxX, maxY)) {
+                        hits.add(i);
+                    }
+                }
+            }
+        }
+        // Mismo orden que la lista, para que el dibujo no cambie qué entidad queda encima
+        Arrays.sort(hits.indices, 0, hits.size);
+    }
+
+    /**
+     * Entidades a una distancia (en tiles) de un punto
+     * @param hits Recibe los índices, en el orden en que se agregaron
+     */
+    public void queryRadius(float x, float y, float radius, Hits hits) {
+        queryRect(x - radius, y - radius, x + radius, y + radius, hits);
+        float radius2 = radius * radius;
+        int kept = 0;
+        for (int k = 0; k < hits.size; k++) {
+            int i = hits.indices[k];
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            if (dx * dx + dy * dy <= radius2) {
+                hits.indices[kept++] = i;
+            }
+        }
+        hits.size = kept;
+    }
+
+    /**
+     * Entidades que ocupan un punto: cada una cubre el tile [x, x + 1) x [y, y + 1)
+     * desde su posición, igual que su sprite
+     * @param hits Recibe los índices, en el orden en que se agregaron
+     */
+    public void queryPoint(float x, float y, Hits hits) {
+        queryRect(x - 1, y - 1, x, y, hits);
+        int kept = 0;
+        for (int k = 0; k < hits.size; k++) {
+            int i = hits.indices[k];
+            if (xs[i] > x - 1 && ys[i] > y - 1) {
+                hits.indices[kept++] = i;
+            }
+        }
+        hits.size = kept;
+    }
+
+    private boolean inside(int i, float minX, float minY, float maxX, float maxY) {
+        float x = xs[i];
+        float y = ys[i];
+        return x >= minX && x <= maxX && y >= minY && y <= maxY;
+    }
+
+    private static int cell(float position) {
+        return (int) Math.floor(position / BUCKET_TILES);
+    }
+
+    private static int hash(int cellX, int cellY) {
+        int h = cellX * 0x9E3779B1 + cellY * 0x85EBCA77;
+        return h ^ (h >>> 16);
+    }
+
+    private void link(int index) {
+        int slot = hash(cellXs[index], cellYs[index]) & mask;
+        next[index] = heads[slot];
+        heads[slot] = index;
+    }
+
+    private void grow() {
+        int capacity = next.length * 2;
+        next = Arrays.copyOf(next, capacity);
+        cellXs = Arrays.copyOf(cellXs, capacity);
+        cellYs = Arrays.copyOf(cellYs, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+    }
+
+    /**
+     * Agranda la tabla de celdas y vuelve a ubicar todas las entradas
+     */
+    private void rehash(int tableSize) {
+        heads = new int[tableSize];
+        mask = tableSize - 1;
+        Arrays.fill(heads, END);
+        for (int i = 0; i < size; i++) {
+            link(i);
+        }
+    }
+}
@@ -13,11 +13,6 @@ public class SpectatorClient extends JFrame implements GameObserver {
     // Panel que mostrará el estado visual del juego
     private GamePanel spectatorPanel;
     
-    // Variables para almacenar información del mapa del juego
-    private int[][] gameMap;
-    private int mapWidth;
-    private int mapHeight;
-    
     // Referencia al cliente principal del juego para acceder a su estado
     private final GameClient gameClient;
 
@@ -32,32 +27,21 @@ public class SpectatorClient extends JFrame implements GameObserver {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE); // Cierra solo esta ventana al cerrar
         setLocationRelativeTo(null); // Centra la ventana en pantalla
         
-        // Crear GamePanel espejo, compartiendo las mismas referencias de datos del juego principal
+        // Crear GamePanel espejo que lee los mismos snapshots publicados que el juego principal
         // Esto permite que el espectador vea exactamente lo mismo que el juego original
         this.spectatorPanel = new GamePanel(
-            gameClient.getPlayer1(),      // Referencia al jugador 1
-            gameClient.getPlayer2(),      // Referencia al jugador 2
-            gameClient.getDestroyedTiles(), // Lista de tiles destruidos
-            gameClient.getEnemies(),      // Lista de enemigos
-            gameClient.getFruits()        // Lista de frutas
+            gameClient.getWorld(),          // Estado del mundo (jugadores, enemigos, frutas, mapa)
+            gameClient.getDestroyedTiles()  // Lista de tiles destruidos
         );
+        spectatorPanel.setEnemyInterpolator(gameClient.getEnemyInterpolator());
         
         // Guardar referencia al cliente del juego
         this.gameClient = gameClient;
         
         // Configurar el estado inicial del panel espectador
+        // (el resto del estado se lee del snapshot en cada frame)
         spectatorPanel.setConnectionStatus(true); // Marcar como conectado
         
-        // Sincronizar todos los estados relevantes del juego principal
-        spectatorPanel.setBonusPhase(gameClient.isBonusPhase());
-        spectatorPanel.setBonusPlayerId(gameClient.getBonusPlayerId());
-        spectatorPanel.setBonusTimeRemaining(gameClient.getBonusTimeRemaining());
-        spectatorPanel.setPlayer2Active(gameClient.isPlayer2Active());
-        spectatorPanel.setPlayerAbove(gameClient.getPlayerAbove());
-        
-        // Actualizar el mapa del juego en el panel espectador
-        spectatorPanel.updateMap(gameClient.getGameMap(), gameClient.getMapWidth(), gameClient.getMapHeight());
-        
         // Agregar el panel a la ventana
         add(spectatorPanel);
         
@@ -72,24 +56,12 @@ public class SpectatorClient extends JFrame implements GameObserver {
     /**
      * Método implementado de la interfaz GameObserver
      * Se ejecuta cada vez que hay una actualización en el estado del juego
-     * Utiliza SwingUtilities.invokeLater para asegurar que las actualizaciones
-     * de la interfaz gráfica se ejecuten en el hilo de eventos de Swing
+     * El panel toma el último snapshot publicado al dibujar, así que basta con
+     * pedir el redibujado de lo que cambió (seguro desde cualquier hilo)
      */
     @Override
     public void onGameStateUpdate() {
-        SwingUtilities.invokeLater(() -> {
-            // Sincronizar todos los estados del juego con el panel espectador
-            spectatorPanel.setBonusPhase(gameClient.isBonusPhase());
-            spectatorPanel.setBonusPlayerId(gameClient.getBonusPlayerId());
-            spectatorPanel.setBonusTimeRemaining(gameClient.getBonusTimeRemaining());
-            spectatorPanel.setPlayer2Active(gameClient.isPlayer2Active());
-            spectatorPanel.setPlayerAbove(gameClient.getPlayerAbove());
-            
-            // Actualizar el mapa del juego
-            spectatorPanel.updateMap(gameClient.getGameMap(), gameClient.getMapWidth(), gameClient.getMapHeight());
-            
-            // Forzar el redibujado del panel para mostrar los cambios
-            spectatorPanel.repaint();
-        });
+        // Redibujar solo las zonas del panel que cambiaron
+        spectatorPanel.repaintChanged();
     }
 }
\ No newline at end of file
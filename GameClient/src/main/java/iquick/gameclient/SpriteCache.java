@@ -0,0 +1,228 @@
+package iquick.gameclient;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+
+/**
+ * Copias de los sprites ya escaladas al tamaño en que se dibujan.
+ *
+ * drawImage(img, x, y, w, h, null) escala la imagen original en cada frame
+ * (un camino lento que no se acelera). Aquí cada sprite se registra una vez
+ * con su tamaño y se guarda escalado en una imagen compatible con la pantalla;
+ * en modo "volatile" además se copia a una VolatileImage (memoria de video).
+ *
+ * La VolatileImage se valida antes de cada dibujo: si el sistema perdió su
+ * contenido se vuelve a copiar y si ya no es compatible (por ejemplo la
+ * ventana pasó a otra pantalla) se crea de nuevo. Si cambia la
+ * GraphicsConfiguration del destino se regeneran todas las copias.
+ *
+ * Solo la usa el EDT.
+ */
+public class SpriteCache {
+    public static final int NONE = -1;     // Sprite sin imagen (no se dibuja)
+
+    /**
+     * Cómo se dibujan los sprites
+     */
+    public enum Mode {
+        SCALED,     // Escalar el original en cada dibujo (comportamiento anterior)
+        BUFFERED,   // Copia pre-escalada en una BufferedImage compatible
+        VOLATILE;   // Copia pre-escalada en una VolatileImage (si no hay pantalla, BUFFERED)
+
+        static Mode parse(String value) {
+            if ("scaled".equalsIgnoreCase(value)) return SCALED;
+            if ("buffered".equalsIgnoreCase(value)) return BUFFERED;
+            return VOLATILE;
+        }
+    }
+
+    private final Mode mode;
+    private Image[] sources = new Image[8];
+    private int[] widths = new int[8];
+    private int[] heights = new int[8];
+    private BufferedImage[] scaled = new BufferedImage[8];
+    private VolatileImage[] volatiles = new VolatileImage[8];
+    private int count = 0;
+    private GraphicsConfiguration config;    // Configuración con la que se crearon las copias
+
+    // Métricas
+    private long rebuilds = 0;               // Copias regeneradas por cambio de configuración
+    private long restores = 0;               // VolatileImage con contenido perdido
+    private long recreated = 0;              // VolatileImage incompatibles creadas de nuevo
+
+    public SpriteCache() {
+        this(Mode.parse(ClientConfig.SPRITES));
+    }
+
+    public SpriteCache(Mode mode) {
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Registra un sprite con el tamaño en que se dibuja
+     * @param source Imagen original (cargada), o null
+     * @return Identificador para draw(), o NONE si no hay imagen
+     */
+    public int register(Image source, int width, int height) {
+        if (source == null) return NONE;
+        if (count == sources.length) {
+            int capacity = count * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            scaled = Arrays.copyOf(scaled, capacity);
+            volatiles = Arrays.copyOf(volatiles, capacity);
+        }
+        sources[count] = source;
+        widths[count] = width;
+        heights[count] = height;
+        return count++;
+    }
+
+    /**
+     * Dibuja un sprite en su tamaño registrado
+     * @param config Configuración gráfica del destino (null en modo headless)
+     */
+    public void draw(Graphics2D g2d, int sprite, int x, int y, GraphicsConfiguration config) {
+        if (sprite == NONE) return;
+        if (mode == Mode.SCALED) {
+            g2d.drawImage(sources[sprite], x, y, widths[sprite], heights[sprite], null);
+            return;
+        }
+        checkConfig(config);
+        if (mode == Mode.VOLATILE && config != null) {
+            g2d.drawImage(validVolatile(sprite), x, y, null);
+        } else {
+            g2d.drawImage(scaled(sprite), x, y, null);
+        }
+    }
+
+    /**
+     * @return Copia escalada en memoria del sprite, para dibujar sobre otras imágenes
+     *         (por ejemplo los bloques de TileLayerCache), o null si es NONE
+     */
+    public Image getScaled(int sprite, GraphicsConfiguration config) {
+        if (sprite == NONE) return null;
+        checkConfig(config);
+        return scaled(sprite);
+    }
+
+    /**
+     * Descarta todas las copias (se regeneran al volver a dibujar)
+     */
+    public void clear() {
+        for (int i = 0; i < count; i++) {
+            if (scaled[i] != null) {
+                scaled[i].flush();
+                scaled[i] = null;
+            }
+            if (volatiles[i] != null) {
+                volatiles[i].flush();
+                volatiles[i] = null;
+            }
+        }
+    }
+
+    private void checkConfig(GraphicsConfiguration current) {
+        if (current != config) {
+            // Otra pantalla u otra profundidad de color: las copias no son compatibles
+            if (config != null) {
+                rebuilds++;
+            }
+            clear();
+            config = current;
+        }
+    }
+
+    private BufferedImage scaled(int sprite) {
+        BufferedImage image = scaled[sprite];
+        if (image == null) {
+            int width = widths[sprite];
+            int height = heights[sprite];
+            image = config != null
+                    ? config.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                    : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            try {
+                // Mismo escalado que drawImage(img, x, y, w, h) sobre el panel
+                g.drawImage(sources[sprite], 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            scaled[sprite] = image;
+        }
+        return image;
+    }
+
+    /**
+     * @return VolatileImage del sprite con contenido válido
+     */
+    private VolatileImage validVolatile(int sprite) {
+        VolatileImage image = volatiles[sprite];
+        if (image == null) {
+            image = createVolatile(sprite);
+        }
+        // Se repite mientras el contenido se pierda durante la copia
+        for (int attempt = 0; attempt < 3; attempt++) {
+            int status = image.validate(config);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                image.flush();
+                image = createVolatile(sprite);
+                recreated++;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                copyToVolatile(sprite, image);
+                restores++;
+            }
+            if (!image.contentsLost()) break;
+        }
+        return image;
+    }
+
+    private VolatileImage createVolatile(int sprite) {
+        VolatileImage image = config.createCompatibleVolatileImage(
+                widths[sprite], heights[sprite], Transparency.TRANSLUCENT);
+        copyToVolatile(sprite, image);
+        volatiles[sprite] = image;
+        return image;
+    }
+
+    private void copyToVolatile(int sprite, VolatileImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);   // Reemplazar también los píxeles transparentes
+            g.drawImage(scaled(sprite), 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // ===== MÉTRICAS =====
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    public long getRestores() {
+        return restores;
+    }
+
+    public long getRecreated() {
+        return recreated;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("modo=%s sprites=%d regeneraciones=%d restauradas=%d recreadas=%d",
+                mode, count, rebuilds, restores, recreated);
+    }
+}
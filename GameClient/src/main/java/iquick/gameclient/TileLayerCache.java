@@ -0,0 +1,358 @@
+package iquick.gameclient;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Capa del mapa pre-dibujada en bloques de CHUNK_TILES x CHUNK_TILES tiles.
+ *
+ * Cada bloque se dibuja una vez en una imagen compatible y en cada frame solo
+ * se copian los bloques que tocan la cámara (unos pocos drawImage en lugar de
+ * uno por tile). Un bloque se vuelve a dibujar solo si cambió algún tile suyo:
+ * las filas del mapa de un snapshot nunca se modifican (ServerConnection copia
+ * la fila que cambia), así que basta comparar las referencias de sus filas y,
+ * si alguna es otra, comparar el tramo de columnas del bloque. Esto cubre los
+ * MAP incrementales, los mapas completos y TILE_DESTROYED/TILE_REGENERATED.
+ *
+ * Los bloques lejos de la cámara liberan su imagen, que se reutiliza.
+ * Solo la usa el EDT.
+ */
+public class TileLayerCache {
+    static final int CHUNK_TILES = 16;                  // Tiles por lado de un bloque
+    private static final int MAX_FREE_IMAGES = 16;       // Imágenes guardadas para reutilizar
+
+    private static final Color BONUS_BLINK = new Color(255, 255, 255, 100);
+
+    private final int tileSize;
+    private final int chunkPixels;
+    private final SpriteCache sprites;
+    private final int tileSolidSprite;
+
+    // Bloques del mapa actual (fila de bloques * columnas + columna), null si nunca se dibujó
+    private Chunk[] chunks = new Chunk[0];
+    private int chunkColumns = 0;
+    private int chunkRows = 0;
+    private int mapWidth = -1;
+    private int mapHeight = -1;
+    private boolean bonusPhase = false;                  // Los tiles bonus se ven distinto en la fase bonus
+    private boolean visibleBonusTiles = false;           // El último draw mostró tiles que parpadean
+
+    private final ArrayList<Chunk> resident = new ArrayList<>(); // Bloques con imagen
+    private final ArrayDeque<BufferedImage> freeImages = new ArrayDeque<>();
+    private GraphicsConfiguration imageConfig;           // Configuración con la que se crearon las imágenes
+
+    // Métricas
+    private long chunksRendered = 0;
+    private long chunksDrawn = 0;
+
+    /**
+     * Bloque de tiles con su imagen
+     */
+    private static final class Chunk {
+        final int column;
+        final int row;
+        final int[][] rows = new int[CHUNK_TILES][];     // Filas del mapa con las que se dibujó
+        BufferedImage image;
+        boolean valid;
+        int[] bonusTiles = new int[8];                   // Tiles bonus (x, y locales) para el parpadeo
+        int bonusCount = 0;
+
+        Chunk(int column, int row) {
+            this.column = column;
+            this.row = row;
+        }
+    }
+
+    /**
+     * @param tileSize Tamaño de un tile en píxeles
+     * @param sprites Sprites pre-escalados
+     * @param tileSolidSprite Sprite de los tiles sólidos (registrado con tileSize)
+     */
+    public TileLayerCache(int tileSize, SpriteCache sprites, int tileSolidSprite) {
+        this.tileSize = tileSize;
+        this.chunkPixels = CHUNK_TILES * tileSize;
+        this.sprites = sprites;
+        this.tileSolidSprite = tileSolidSprite;
+    }
+
+    /**
+     * Dibuja la parte visible del mapa
+     * @param g2d Gráficos ya trasladados por la cámara
+     * @param frame Snapshot que se está dibujando (con mapa)
+     * @param left X de la cámara en píxeles del mundo
+     * @param top Y de la cámara
+     * @param width Ancho visible
+     * @param height Alto visible
+     * @param blink Fase del parpadeo de los tiles bonus (fuera de la fase bonus)
+     * @param config Configuración gráfica del destino (null en modo headless)
+     */
+    public void draw(Graphics2D g2d, WorldSnapshot frame, int left, int top, int width, int height,
+                     boolean blink, GraphicsConfiguration config) {
+        int[][] map = frame.map;
+        if (frame.mapWidth != mapWidth || frame.mapHeight != mapHeight) {
+            resize(frame.mapWidth, frame.mapHeight);
+        }
+        if (frame.isBonusPhase != bonusPhase) {
+            bonusPhase = frame.isBonusPhase;
+            invalidateAll();
+        }
+        if (config != imageConfig) {
+            // Otra pantalla: las imágenes guardadas ya no son compatibles
+            clear();
+            imageConfig = config;
+        }
+
+        // Bloques que tocan la cámara (incluye el borde de 1 px que sobresale del bloque anterior)
+        int startColumn = Math.max(0, Math.floorDiv(left - 1, chunkPixels));
+        int endColumn = Math.min(chunkColumns - 1, Math.floorDiv(left + width, chunkPixels));
+        int startRow = Math.max(0, Math.floorDiv(top - 1, chunkPixels));
+        int endRow = Math.min(chunkRows - 1, Math.floorDiv(top + height, chunkPixels));
+
+        // Parpadeo de los tiles bonus fuera de la fase bonus
+        blink = blink && !bonusPhase;
+        visibleBonusTiles = false;
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int index = row * chunkColumns + column;
+                Chunk chunk = chunks[index];
+                if (chunk == null) {
+                    chunk = new Chunk(column, row);
+                    chunks[index] = chunk;
+                }
+                if (chunk.image == null || !chunk.valid || !isCurrent(chunk, map)) {
+                    render(chunk, map);
+                }
+                int drawX = column * chunkPixels;
+                int drawY = row * chunkPixels;
+                g2d.drawImage(chunk.image, drawX, drawY, null);
+                chunksDrawn++;
+
+                visibleBonusTiles |= chunk.bonusCount > 0;
+                if (blink && chunk.bonusCount > 0) {
+                    g2d.setColor(BONUS_BLINK);
+                    for (int i = 0; i < chunk.bonusCount; i += 2) {
+                        g2d.fillRect(drawX + chunk.bonusTiles[i] * tileSize,
+                                drawY + chunk.bonusTiles[i + 1] * tileSize, tileSize, tileSize);
+                    }
+                }
+            }
+        }
+
+        evict(startColumn - 1, endColumn + 1, startRow - 1, endRow + 1);
+    }
+
+    /**
+     * Descarta todas las imágenes (por ejemplo al cambiar de pantalla)
+     */
+    public void clear() {
+        for (int i = 0; i < resident.size(); i++) {
+            Chunk chunk = resident.get(i);
+            chunk.image.flush();
+            chunk.image = null;
+            chunk.valid = false;
+        }
+        resident.clear();
+        freeImages.clear();
+    }
+
+    /**
+     * Cambian las dimensiones del mapa: ningún bloque sirve
+     */
+    private void resize(int width, int height) {
+        releaseAll();
+        mapWidth = width;
+        mapHeight = height;
+        chunkColumns = (width + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunkRows = (height + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunks = new Chunk[chunkColumns * chunkRows];
+    }
+
+    private void invalidateAll() {
+        for (int i = 0; i < resident.size(); i++) {
+            resident.get(i).valid = false;
+        }
+    }
+
+    /**
+     * @return true si ningún tile del bloque cambió desde que se dibujó
+     */
+    private boolean isCurrent(Chunk chunk, int[][] map) {
+        int firstRow = chunk.row * CHUNK_TILES;
+        int rowCount = Math.min(CHUNK_TILES, mapHeight - firstRow);
+        int from = chunk.column * CHUNK_TILES;
+        int to = Math.min(from + CHUNK_TILES, mapWidth);
+        for (int i = 0; i < rowCount; i++) {
+            int[] row = map[firstRow + i];
+            if (row == chunk.rows[i]) continue;
+            // Fila reemplazada: puede haber cambiado fuera de este bloque
+            if (Arrays.mismatch(row, from, to, chunk.rows[i], from, to) >= 0) {
+                return false;
+            }
+            chunk.rows[i] = row;
+        }
+        return true;
+    }
+
+    /**
+     * Dibuja los tiles del bloque en su imagen
+     */
+    private void render(Chunk chunk, int[][] map) {
+        if (chunk.image == null) {
+            chunk.image = freeImages.isEmpty() ? newImage() : freeImages.poll();
+            resident.add(chunk);
+        }
+        chunksRendered++;
+
+        Graphics2D g = chunk.image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, chunk.image.getWidth(), chunk.image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Image tileSolidImg = sprites.getScaled(tileSolidSprite, imageConfig);
+
+            chunk.bonusCount = 0;
+            int firstRow = chunk.row * CHUNK_TILES;
+            int firstColumn = chunk.column * CHUNK_TILES;
+            int rowCount = Math.min(CHUNK_TILES, mapHeight - firstRow);
+            int columnCount = Math.min(CHUNK_TILES, mapWidth - firstColumn);
+            for (int y = 0; y < rowCount; y++) {
+                int[] row = map[firstRow + y];
+                chunk.rows[y] = row;
+                for (int x = 0; x < columnCount; x++) {
+                    int drawX = x * tileSize;
+                    int drawY = y * tileSize;
+
+                    switch (row[firstColumn + x]) {
+                        case 1: // Bloque sólido normal
+                            if (tileSolidImg != null) {
+                                g.drawImage(tileSolidImg, drawX, drawY, null);
+                            }
+                            g.setColor(Color.WHITE);
+                            g.drawRect(drawX, drawY, tileSize, tileSize);
+                            break;
+
+                        case 2: // Bloque bonus (activa fase especial)
+                            if (bonusPhase) {
+                                // Durante fase bonus: apariencia normal
+                                g.setColor(Color.ORANGE);
+                                g.fillRect(drawX, drawY, tileSize, tileSize);
+                                g.setColor(Color.YELLOW);
+                            } else {
+                                // Fuera de fase bonus: efecto llamativo (el parpadeo se dibuja por frame)
+                                g.setColor(Color.MAGENTA);
+                                g.fillRect(drawX, drawY, tileSize, tileSize);
+                                g.setColor(Color.CYAN);
+                                addBonusTile(chunk, x, y);
+                            }
+                            g.drawRect(drawX, drawY, tileSize, tileSize);
+                            break;
+                    }
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        chunk.valid = true;
+    }
+
+    private static void addBonusTile(Chunk chunk, int x, int y) {
+        if (chunk.bonusCount + 2 > chunk.bonusTiles.length) {
+            chunk.bonusTiles = Arrays.copyOf(chunk.bonusTiles, chunk.bonusTiles.length * 2);
+        }
+        chunk.bonusTiles[chunk.bonusCount++] = x;
+        chunk.bonusTiles[chunk.bonusCount++] = y;
+    }
+
+    /**
+     * Imagen de un bloque; 1 px más grande para el borde de los tiles de la última fila y columna
+     */
+    private BufferedImage newImage() {
+        int size = chunkPixels + 1;
+        if (imageConfig != null) {
+            return imageConfig.createCompatibleImage(size, size, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Libera las imágenes de los bloques fuera del rango dado (en bloques)
+     */
+    private void evict(int minColumn, int maxColumn, int minRow, int maxRow) {
+        for (int i = resident.size() - 1; i >= 0; i--) {
+            Chunk chunk = resident.get(i);
+            if (chunk.column < minColumn || chunk.column > maxColumn
+                    || chunk.row < minRow || chunk.row > maxRow) {
+                release(chunk);
+                // El orden de resident no importa: se mueve el último a este lugar
+                int last = resident.size() - 1;
+                resident.set(i, resident.get(last));
+                resident.remove(last);
+            }
+        }
+    }
+
+    private void releaseAll() {
+        for (int i = 0; i < resident.size(); i++) {
+            release(resident.get(i));
+        }
+        resident.clear();
+    }
+
+    private void release(Chunk chunk) {
+        if (freeImages.size() < MAX_FREE_IMAGES) {
+            freeImages.add(chunk.image);
+        } else {
+            chunk.image.flush();
+        }
+        chunk.image = null;
+        chunk.valid = false;
+        Arrays.fill(chunk.rows, null);
+    }
+
+    /**
+     * @return true si en el último frame se vieron tiles bonus que parpadean
+     */
+    public boolean hasVisibleBonusTiles() {
+        return visibleBonusTiles;
+    }
+
+    // ===== MÉTRICAS =====
+
+    /**
+     * @return Bloques dibujados de nuevo (al aparecer o cambiar algún tile)
+     */
+    public long getChunksRendered() {
+        return chunksRendered;
+    }
+
+    /**
+     * @return Bloques copiados a pantalla
+     */
+    public long getChunksDrawn() {
+        return chunksDrawn;
+    }
+
+    /**
+     * @return Bloques con imagen en memoria
+     */
+    public int getResidentChunks() {
+        return resident.size();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("bloquesDibujados=%d bloquesCopiados=%d residentes=%d",
+                chunksRendered, chunksDrawn, resident.size());
+    }
+}
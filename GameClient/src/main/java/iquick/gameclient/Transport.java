@@ -0,0 +1,66 @@
+package iquick.gameclient;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Transporte de red usado por ServerConnection.
+ * Existen dos implementaciones intercambiables (ver ClientConfig.TRANSPORT):
+ * BlockingTransport (Socket + BufferedReader) y NioTransport (SocketChannel).
+ * Cada mensaje recibido (una línea de texto) se entrega al manejador indicado al crearlo.
+ */
+public interface Transport {
+
+    /**
+     * Inicia el hilo lector que entrega los mensajes del servidor
+     */
+    void start();
+
+    /**
+     * Envía un mensaje al servidor (se agrega el salto de línea)
+     * @param msg Mensaje a enviar
+     */
+    void send(String msg);
+
+    /**
+     * Escribe varios mensajes ya separados por '\n' con una sola escritura/flush
+     * @param lines Mensajes terminados en '\n'
+     */
+    void write(CharSequence lines);
+
+    /**
+     * Cierra la conexión con el servidor
+     */
+    void close() throws IOException;
+
+    /**
+     * @return true si la conexión sigue abierta
+     */
+    boolean isConnected();
+
+    /**
+     * @return true si el transporte puede recibir tramas binarias (ver PlayerUpdateCodec)
+     */
+    default boolean supportsBinaryFrames() {
+        return false;
+    }
+
+    /**
+     * Registra el receptor de tramas binarias. Debe llamarse antes de start().
+     * Los transportes sin tramas binarias (supportsBinaryFrames() false) lo ignoran.
+     * @param frameHandler Recibe el payload de cada trama (válido solo durante la llamada)
+     */
+    default void setFrameHandler(Consumer<ByteBuffer> frameHandler) {
+    }
+
+    /**
+     * @return Cantidad de mensajes completos recibidos
+     */
+    long getMessagesReceived();
+
+    /**
+     * @return Cantidad de bytes leídos del socket
+     */
+    long getBytesReceived();
+}
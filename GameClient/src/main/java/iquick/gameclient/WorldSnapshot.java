@@ -0,0 +1,124 @@
+package iquick.gameclient;
+
+import java.util.List;
+
+/**
+ * Estado completo del mundo en un instante, tal como lo envió el servidor.
+ * Es inmutable una vez publicado: el hilo de red arma uno nuevo (buffer trasero)
+ * con cada mensaje y lo publica en WorldState con un solo cambio de referencia;
+ * el renderizado y los espectadores solo leen el snapshot publicado (buffer frontal).
+ *
+ * Los objetos Player, Enemy y Fruit y las filas del mapa que contiene no se
+ * modifican mientras el snapshot pueda estar en uso; las entidades vuelven al
+ * pool de EntityStore solo cuando ningún WorldState.Reader tiene tomado el snapshot.
+ */
+public final class WorldSnapshot {
+    // Snapshot inicial, antes de recibir el primer mensaje del servidor
+    public static final WorldSnapshot EMPTY = new WorldSnapshot(0, new Player(), new Player(),
+            false, 0, false, -1, 0, EntityChanges.empty(), EntityChanges.empty(), null, 0, 0);
+
+    public final long sequence;           // Número de snapshot (crece con cada publicación)
+    public final long createdAt;          // System.nanoTime() al armarlo
+    public final Player player1;
+    public final Player player2;
+    public final boolean isPlayer2Active;
+    public final int playerAbove;         // 1 o 2; 0 si ningún jugador está encima
+    public final boolean isBonusPhase;
+    public final int bonusPlayerId;       // -1 si no hay fase bonus
+    public final int bonusTimeRemaining;
+    public final List<Enemy> enemies;     // Lista no modificable
+    public final List<Fruit> fruits;      // Lista no modificable
+    public final EntityChanges<Enemy> enemyChanges;  // Enemigos aparecidos/movidos/desaparecidos
+    public final EntityChanges<Fruit> fruitChanges;  // Frutas aparecidas/movidas/desaparecidas
+    public final int[][] map;             // null hasta recibir el primer MAP
+    public final int mapWidth;
+    public final int mapHeight;
+
+    private WorldSnapshot(long sequence, Player player1, Player player2,
+                          boolean isPlayer2Active, int playerAbove,
+                          boolean isBonusPhase, int bonusPlayerId, int bonusTimeRemaining,
+                          EntityChanges<Enemy> enemyChanges, EntityChanges<Fruit> fruitChanges,
+                          int[][] map, int mapWidth, int mapHeight) {
+        this.sequence = sequence;
+        this.createdAt = System.nanoTime();
+        this.player1 = player1;
+        this.player2 = player2;
+        this.isPlayer2Active = isPlayer2Active;
+        this.playerAbove = playerAbove;
+        this.isBonusPhase = isBonusPhase;
+        this.bonusPlayerId = bonusPlayerId;
+        this.bonusTimeRemaining = bonusTimeRemaining;
+        this.enemies = enemyChanges.getItems();
+        this.fruits = fruitChanges.getItems();
+        this.enemyChanges = enemyChanges;
+        this.fruitChanges = fruitChanges;
+        this.map = map;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+    }
+
+    /**
+     * Crea el snapshot siguiente con los datos de un PLAYER_UPDATE
+     * @param player1 Jugador 1 recién decodificado (objeto nuevo)
+     * @param player2 Jugador 2 recién decodificado (objeto nuevo)
+     * @param enemies Enemigos del mensaje y cambios (de EntityStore)
+     * @param fruits Frutas del mensaje y cambios (de EntityStore)
+     * @param state Valores generales del mensaje
+     */
+    public WorldSnapshot withPlayerUpdate(Player player1, Player player2,
+                                          EntityChanges<Enemy> enemies, EntityChanges<Fruit> fruits,
+                                          PlayerUpdateState state) {
+        boolean bonusPhase = isBonusPhase;
+        int bonusPlayer = bonusPlayerId;
+        int bonusTime = bonusTimeRemaining;
+
+        // Manejar fase bonus del juego
+        if (state.hasBonusPhase) {
+            bonusPhase = state.isBonusPhase;
+            if (state.isBonusPhase) {
+                // Actualizar ID del jugador y tiempo restante de la fase bonus
+                if (state.bonusPlayerId >= 0) {
+                    bonusPlayer = state.bonusPlayerId;
+                }
+                if (state.bonusTimeRemaining >= 0) {
+                    bonusTime = state.bonusTimeRemaining;
+                }
+            } else {
+                // Resetear valores cuando no hay fase bonus
+                bonusPlayer = -1;
+                bonusTime = 0;
+            }
+        }
+
+        return new WorldSnapshot(sequence + 1, player1, player2,
+                state.isPlayer2Active, state.playerAbove,
+                bonusPhase, bonusPlayer, bonusTime,
+                enemies, fruits, map, mapWidth, mapHeight);
+    }
+
+    /**
+     * Crea el snapshot siguiente con otro mapa
+     * @param map Mapa nuevo (las filas sin cambios pueden compartirse con el anterior)
+     */
+    public WorldSnapshot withMap(int[][] map, int mapWidth, int mapHeight) {
+        return new WorldSnapshot(sequence + 1, player1, player2, isPlayer2Active, playerAbove,
+                isBonusPhase, bonusPlayerId, bonusTimeRemaining, enemyChanges, fruitChanges,
+                map, mapWidth, mapHeight);
+    }
+
+    /**
+     * Crea el snapshot siguiente con Player 2 activado o desactivado
+     */
+    public WorldSnapshot withPlayer2Active(boolean active) {
+        return new WorldSnapshot(sequence + 1, player1, player2, active, playerAbove,
+                isBonusPhase, bonusPlayerId, bonusTimeRemaining, enemyChanges, fruitChanges,
+                map, mapWidth, mapHeight);
+    }
+
+    /**
+     * @return Edad del snapshot en nanosegundos
+     */
+    public long getAgeNanos() {
+        return System.nanoTime() - createdAt;
+    }
+}
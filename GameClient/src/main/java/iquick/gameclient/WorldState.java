@@ -0,0 +1,95 @@
+package iquick.gameclient;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Punto de publicación del estado del mundo.
+ * El hilo de red es el único que publica; el EDT (GamePanel, SpectatorClient,
+ * GameClient) lee el último snapshot sin tomar ningún lock.
+ *
+ * Quien recorre las entidades de un snapshot durante un rato (por ejemplo un frame
+ * completo) lo toma con un Reader: mientras lo tenga, EntityStore no recicla
+ * los objetos de ese snapshot.
+ */
+public class WorldState {
+    private static final long IDLE = Long.MAX_VALUE;   // Lector sin snapshot tomado
+
+    private final AtomicReference<WorldSnapshot> current = new AtomicReference<>(WorldSnapshot.EMPTY);
+    private final CopyOnWriteArrayList<Reader> readers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Lector registrado. Cada lector usa un solo hilo a la vez.
+     */
+    public class Reader {
+        private volatile long inUse = IDLE;   // Secuencia del snapshot tomado
+
+        /**
+         * Toma el último snapshot publicado; sus objetos no se reciclan hasta release()
+         * @return Snapshot vigente (nunca null)
+         */
+        public WorldSnapshot acquire() {
+            WorldSnapshot snapshot = current.get();
+            inUse = snapshot.sequence;
+            // Si se publicó otro entre la lectura y el anuncio, el anuncio pudo llegar tarde
+            WorldSnapshot latest;
+            while ((latest = current.get()) != snapshot) {
+                snapshot = latest;
+                inUse = snapshot.sequence;
+            }
+            return snapshot;
+        }
+
+        /**
+         * Libera el snapshot tomado con acquire()
+         */
+        public void release() {
+            inUse = IDLE;
+        }
+
+        /**
+         * Quita el lector del registro (por ejemplo al cerrar una ventana de espectador)
+         */
+        public void close() {
+            inUse = IDLE;
+            readers.remove(this);
+        }
+    }
+
+    /**
+     * @return Último snapshot publicado (nunca null)
+     */
+    public WorldSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Publica un snapshot nuevo con un solo cambio de referencia
+     * @param snapshot Snapshot completo, que no se vuelve a modificar
+     */
+    public void publish(WorldSnapshot snapshot) {
+        current.set(snapshot);
+    }
+
+    /**
+     * Registra un lector nuevo
+     * @return Lector para tomar y liberar snapshots
+     */
+    public Reader newReader() {
+        Reader reader = new Reader();
+        readers.add(reader);
+        return reader;
+    }
+
+    /**
+     * @return Secuencia del snapshot más antiguo tomado por algún lector,
+     *         o Long.MAX_VALUE si ninguno tiene un snapshot tomado
+     */
+    public long getOldestSequenceInUse() {
+        long oldest = IDLE;
+        for (Reader reader : readers) {
+            oldest = Math.min(oldest, reader.inUse);
+        }
+        return oldest;
+    }
+}
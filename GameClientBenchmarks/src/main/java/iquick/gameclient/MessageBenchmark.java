@@ -0,0 +1,331 @@
+package iquick.gameclient;
+
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Costo de procesar un mensaje del servidor con ServerConnection.processServerMessage:
+ * decodificación y aplicación al estado (mapa, almacenes de entidades y
+ * publicación del snapshot). Usa el constructor sin conexión ni UI, así que no
+ * hay socket ni EDT.
+ *
+ * Cada caso repite un ciclo corto de mensajes para que el estado cambie en cada
+ * mensaje (el servidor reenvía el mapa completo después de cada cambio):
+ * - map: mapa real del servidor (grabado) con un tile que se destruye y vuelve
+ * - map-switch: alterna el mapa normal y el de la fase bonus (reemplazo completo)
+ * - map-stress: mapa sintético de 500x2000 con un tile que cambia
+ * - player-update / player-update-bonus: PLAYER_UPDATE grabados de una partida
+ * - player-update-200 / player-update-10000: sintéticos, con todas las entidades moviéndose
+ * - tile-destroyed: TILE_DESTROYED sobre los tiles sólidos del mapa real
+ * - bonus-phase: BONUS_PHASE de inicio y fin
+ *
+ * Los mensajes grabados (corpus/*.json) tienen el formato exacto de
+ * ClientHandler (System.Text.Json, campos en el mismo orden).
+ *
+ * Reporta mensajes/s (throughput), latencia por mensaje con percentiles
+ * (latency) y, con el perfilador de GC, bytes por mensaje (gc.alloc.rate.norm).
+ *
+ * Uso (desde GameClientBenchmarks, después de mvn -f ../GameClient install):
+ *   mvn package && java -jar target/benchmarks.jar MessageBenchmark -prof gc
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g", "-Diquick.log.level=WARN"})
+@State(Scope.Thread)
+public class MessageBenchmark {
+    private static final String CORPUS = "/iquick/gameclient/corpus/";
+    private static final String SESSION_ID = "3f9c2a71-5be0-4d0e-9a47-c1e8d2f60b95";
+    private static final long GUID_PREFIX = 0x5EEDL;    // Parte alta de los GUID sintéticos
+
+    @Param({"map", "map-switch", "map-stress", "player-update", "player-update-bonus",
+            "player-update-200", "player-update-10000", "tile-destroyed", "bonus-phase"})
+    public String corpus;
+
+    private ServerConnection connection;
+    private String[] messages;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        messages = createMessages(corpus);
+        WorldState world = new WorldState();
+        connection = new ServerConnection(world);
+        // Todos los casos parten de una partida con el mapa cargado
+        connection.processServerMessage(load("map-base.json"));
+        // Un ciclo completo antes de medir: los almacenes ya tienen sus instancias
+        for (String message : messages) {
+            connection.processServerMessage(message);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void throughput() {
+        process();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void latency() {
+        process();
+    }
+
+    private void process() {
+        connection.processServerMessage(messages[next]);
+        next = next + 1 == messages.length ? 0 : next + 1;
+    }
+
+    // ===== CORPUS =====
+
+    private static String[] createMessages(String corpus) throws IOException {
+        switch (corpus) {
+            case "map": {
+                int[][] map = parseMap(load("map-base.json"));
+                int[][] broken = copy(map);
+                broken[1][3] = 0;
+                return new String[] {mapMessage(broken), mapMessage(map)};
+            }
+            case "map-switch":
+                return new String[] {load("map-bonus.json"), load("map-base.json")};
+            case "map-stress": {
+                int[][] map = syntheticMap(500, 2000);
+                int[][] broken = copy(map);
+                broken[999][250] = 0;
+                return new String[] {mapMessage(map), mapMessage(broken)};
+            }
+            case "player-update":
+                return new String[] {load("player-update.json")};
+            case "player-update-bonus":
+                return new String[] {load("player-update-bonus.json")};
+            case "player-update-200":
+                return playerUpdates(200);
+            case "player-update-10000":
+                return playerUpdates(10_000);
+            case "tile-destroyed":
+                return tileDestroyed(parseMap(load("map-base.json")));
+            case "bonus-phase":
+                return new String[] {bonusPhase("START"), bonusPhase("END")};
+            default:
+                throw new IllegalArgumentException("Corpus desconocido: " + corpus);
+        }
+    }
+
+    /**
+     * Lee un mensaje grabado (una línea de JSON)
+     */
+    private static String load(String name) {
+        try (InputStream in = MessageBenchmark.class.getResourceAsStream(CORPUS + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Falta el mensaje grabado " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Mapa de un mensaje MAP (para armar variantes del grabado)
+     */
+    private static int[][] parseMap(String message) {
+        WorldState world = new WorldState();
+        new ServerConnection(world).processServerMessage(message);
+        return world.current().map;
+    }
+
+    private static int[][] copy(int[][] map) {
+        int[][] copy = new int[map.length][];
+        for (int i = 0; i < map.length; i++) {
+            copy[i] = map[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Mapa con plataformas cada 5 filas y paredes a los costados
+     */
+    private static int[][] syntheticMap(int width, int height) {
+        int[][] map = new int[height][width];
+        for (int y = 0; y < height; y++) {
+            map[y][0] = 1;
+            map[y][width - 1] = 1;
+            if (y % 5 == 4) {
+                for (int x = 0; x < width; x++) {
+                    map[y][x] = x % 16 == 7 ? 0 : (x % 23 == 0 ? 2 : 1);
+                }
+            }
+        }
+        return map;
+    }
+
+    /**
+     * MAP con los mismos campos y orden que ClientHandler.SendMapToClient
+     */
+    private static String mapMessage(int[][] map) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name("type").value("MAP");
+        writer.name("sessionId").value(SESSION_ID);
+        writer.name("map").beginArray();
+        for (int[] row : map) {
+            writer.beginArray();
+            for (int tile : row) {
+                writer.value(tile);
+            }
+            writer.endArray();
+        }
+        writer.endArray();
+        writer.name("width").value(map[0].length);
+        writer.name("height").value(map.length);
+        writer.endObject();
+        writer.flush();
+        return out.toString();
+    }
+
+    /**
+     * Dos PLAYER_UPDATE con las mismas entidades en posiciones distintas
+     * (la mitad enemigos y la mitad frutas), como ClientHandler.SendGameStateToClient
+     */
+    private static String[] playerUpdates(int entityCount) throws IOException {
+        String[] updates = new String[2];
+        for (int frame = 0; frame < updates.length; frame++) {
+            float offset = frame * 0.25f;
+            StringWriter out = new StringWriter();
+            JsonWriter writer = new JsonWriter(out);
+            writer.setSerializeNulls(true);
+            writer.beginObject();
+            writer.name("type").value("PLAYER_UPDATE");
+            writer.name("sessionId").value(SESSION_ID);
+            writer.name("player1");
+            writePlayer(writer, 6.5f + offset, 27f);
+            writer.name("player2");
+            writePlayer(writer, 17f - offset, 31f);
+            writer.name("isPlayer2Active").value(true);
+            writer.name("playerAbove").value(1);
+            writer.name("isBonusPhase").value(false);
+            writer.name("bonusPlayerId").nullValue();
+            writer.name("bonusTimeRemaining").value(0);
+
+            List<String> kinds = new ArrayList<>();
+            for (EnemyKind kind : EnemyKind.values()) {
+                if (kind != EnemyKind.FRUIT) {
+                    kinds.add(kind.getWireName());
+                }
+            }
+            writer.name("enemies").beginArray();
+            for (int i = 0; i < entityCount; i += 2) {
+                writer.beginObject();
+                writer.name("id").value(new UUID(GUID_PREFIX, i).toString());
+                writer.name("x").value(1 + (i * 0.37f + offset) % 24);
+                writer.name("y").value(31 - (i % 30));
+                writer.name("isActive").value(true);
+                writer.name("enemyType").value(kinds.get(i / 2 % kinds.size()));
+                writer.endObject();
+            }
+            writer.endArray();
+
+            FruitKind[] fruitKinds = FruitKind.values();
+            writer.name("fruits").beginArray();
+            for (int i = 1; i < entityCount; i += 2) {
+                FruitKind kind = fruitKinds[i / 2 % fruitKinds.length];
+                writer.beginObject();
+                writer.name("id").value(new UUID(GUID_PREFIX, i).toString());
+                writer.name("x").value(1 + (i * 0.5f + offset) % 24);
+                writer.name("y").value(4 * (i % 8) + 3);
+                writer.name("isActive").value(true);
+                writer.name("fruitType").value(kind.getWireName());
+                writer.name("points").value(100 * (kind.ordinal() + 1));
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+            writer.flush();
+            updates[frame] = out.toString();
+        }
+        return updates;
+    }
+
+    private static void writePlayer(JsonWriter writer, float x, float y) throws IOException {
+        writer.beginObject();
+        writer.name("x").value(x);
+        writer.name("y").value(y);
+        writer.name("isOnGround").value(true);
+        writer.name("isJumping").value(false);
+        writer.name("isAttacking").value(false);
+        writer.name("lives").value(3);
+        writer.name("score").value(1200);
+        writer.name("isInvulnerable").value(false);
+        writer.name("isAlive").value(true);
+        writer.endObject();
+    }
+
+    /**
+     * Un TILE_DESTROYED por cada tile sólido del mapa
+     */
+    private static String[] tileDestroyed(int[][] map) throws IOException {
+        List<String> messages = new ArrayList<>();
+        for (int y = 0; y < map.length; y++) {
+            for (int x = 0; x < map[y].length; x++) {
+                if (map[y][x] != 1) continue;
+                StringWriter out = new StringWriter();
+                JsonWriter writer = new JsonWriter(out);
+                writer.beginObject();
+                writer.name("type").value("TILE_DESTROYED");
+                writer.name("sessionId").value(SESSION_ID);
+                writer.name("x").value(x);
+                writer.name("y").value(y);
+                writer.endObject();
+                writer.flush();
+                messages.add(out.toString());
+            }
+        }
+        return messages.toArray(new String[0]);
+    }
+
+    private static String bonusPhase(String action) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name("type").value("BONUS_PHASE");
+        writer.name("sessionId").value(SESSION_ID);
+        writer.name("action").value(action);
+        writer.endObject();
+        writer.flush();
+        return out.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MessageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
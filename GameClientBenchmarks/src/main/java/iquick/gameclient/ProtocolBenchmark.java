@@ -0,0 +1,233 @@
+package iquick.gameclient;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Comparación de la decodificación de PLAYER_UPDATE entre JSON (formato del
+ * servidor actual) y PlayerUpdateCodec, de 0 a 1000 entidades (la mitad
+ * enemigos y la mitad frutas). Cada decodificación termina en los almacenes y
+ * la publicación del snapshot, igual que en ServerConnection. No necesita el
+ * servidor C#: los mensajes se generan aquí.
+ *
+ * Reporta mensajes/s; el tamaño de cada mensaje en los dos formatos se
+ * imprime al preparar cada caso.
+ *
+ * Uso (desde GameClientBenchmarks, después de mvn -f ../GameClient install):
+ *   mvn package && java -jar target/benchmarks.jar ProtocolBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Diquick.log.level=WARN"})
+@State(Scope.Thread)
+public class ProtocolBenchmark {
+    private static final long GUID_PREFIX = 0x5EEDL;    // Parte alta de los GUID sintéticos
+
+    @Param({"0", "10", "50", "200", "1000"})
+    public int entities;
+
+    private String json;
+    private ByteBuffer payload;
+
+    // Destino de la decodificación (igual que en ServerConnection: almacenes + publicación)
+    private final Player target1 = new Player();
+    private final Player target2 = new Player();
+    private final PlayerUpdateState targetState = new PlayerUpdateState();
+    private final EntityIds targetIds = new EntityIds();
+    private WorldState world;
+    private EntityStore<Enemy> targetEnemies;
+    private EntityStore<Fruit> targetFruits;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        Player player1 = samplePlayer(2.5f, 31f);
+        Player player2 = samplePlayer(17.25f, 28f);
+        PlayerUpdateState state = new PlayerUpdateState();
+        state.isPlayer2Active = true;
+        state.playerAbove = 2;
+        state.hasBonusPhase = true;
+        state.bonusTimeRemaining = 0;
+        List<Enemy> enemies = new ArrayList<>();
+        List<Fruit> fruits = new ArrayList<>();
+        for (int i = 0; i < entities; i++) {
+            if (i % 2 == 0) {
+                Enemy enemy = new Enemy();
+                enemy.id = i;
+                enemy.x = i * 0.37f;
+                enemy.y = 30f - (i % 20);
+                enemy.kind = EnemyKind.fromCode(i % 3);
+                enemies.add(enemy);
+            } else {
+                Fruit fruit = new Fruit();
+                fruit.id = i;
+                fruit.x = i * 0.5f;
+                fruit.y = 12f;
+                fruit.isActive = true;
+                fruit.kind = FruitKind.BANANA;
+                fruit.points = 300;
+                fruits.add(fruit);
+            }
+        }
+
+        json = toServerJson(player1, player2, state, enemies, fruits);
+        ByteBuffer frame = ByteBuffer.allocate(PlayerUpdateCodec.frameSize(true, enemies.size(), fruits.size()));
+        PlayerUpdateCodec.encode(frame, player1, player2, state, enemies, fruits);
+        payload = frame.duplicate().flip().position(PlayerUpdateCodec.FRAME_HEADER_SIZE).slice();
+
+        int jsonBytes = json.getBytes(StandardCharsets.UTF_8).length + 1; // + '\n'
+        int binaryBytes = frame.position();
+        System.out.printf("%d entidades: JSON %d bytes, binario %d bytes (%.2fx)%n",
+                entities, jsonBytes, binaryBytes, (double) jsonBytes / binaryBytes);
+
+        world = new WorldState();
+        targetEnemies = ServerConnection.newEnemyStore(world);
+        targetFruits = ServerConnection.newFruitStore(world);
+    }
+
+    @Benchmark
+    public WorldSnapshot json() throws IOException {
+        JsonReader reader = new JsonReader(new StringReader(json));
+        reader.beginObject();
+        reader.nextName();
+        reader.nextString(); // "type"
+        targetEnemies.begin();
+        targetFruits.begin();
+        ServerConnection.decodePlayerUpdate(reader, target1, target2, targetEnemies, targetFruits, targetIds, targetState);
+        return publish();
+    }
+
+    @Benchmark
+    public WorldSnapshot binary() {
+        targetEnemies.begin();
+        targetFruits.begin();
+        PlayerUpdateCodec.decode(payload.rewind(), target1, target2, targetEnemies, targetFruits, targetIds, targetState);
+        return publish();
+    }
+
+    /**
+     * Publica el resultado como lo hace ServerConnection, para que los almacenes reciclen
+     */
+    private WorldSnapshot publish() {
+        WorldSnapshot previous = world.current();
+        long sequence = previous.sequence + 1;
+        world.publish(previous.withPlayerUpdate(target1, target2,
+                targetEnemies.finish(previous.sequence, sequence),
+                targetFruits.finish(previous.sequence, sequence), targetState));
+        return world.current();
+    }
+
+    private static Player samplePlayer(float x, float y) {
+        Player player = new Player();
+        player.x = x;
+        player.y = y;
+        player.isOnGround = true;
+        player.score = 1200;
+        return player;
+    }
+
+    /**
+     * Genera el PLAYER_UPDATE con los mismos campos y orden que ClientHandler.SendGameStateToClient
+     */
+    private static String toServerJson(Player player1, Player player2, PlayerUpdateState state,
+                                       List<Enemy> enemies, List<Fruit> fruits) throws IOException {
+        StringWriter out = new StringWriter();
+        JsonWriter writer = new JsonWriter(out);
+        writer.setSerializeNulls(true);
+        writer.beginObject();
+        writer.name("type").value("PLAYER_UPDATE");
+        writer.name("sessionId").value(UUID.randomUUID().toString());
+        writer.name("player1");
+        writePlayer(writer, player1);
+        writer.name("player2");
+        writePlayer(writer, player2);
+        writer.name("isPlayer2Active").value(state.isPlayer2Active);
+        writer.name("playerAbove").value(state.playerAbove);
+        writer.name("isBonusPhase").value(state.isBonusPhase);
+        writer.name("bonusPlayerId").nullValue();
+        writer.name("bonusTimeRemaining").value(state.bonusTimeRemaining);
+
+        writer.name("enemies").beginArray();
+        for (Enemy enemy : enemies) {
+            writer.beginObject();
+            writer.name("id").value(guid(enemy.id));
+            writer.name("x").value(enemy.x);
+            writer.name("y").value(enemy.y);
+            writer.name("isActive").value(enemy.isActive);
+            writer.name("enemyType").value(enemy.kind.getWireName());
+            writer.endObject();
+        }
+        writer.endArray();
+
+        writer.name("fruits").beginArray();
+        for (Fruit fruit : fruits) {
+            writer.beginObject();
+            writer.name("id").value(guid(fruit.id));
+            writer.name("x").value(fruit.x);
+            writer.name("y").value(fruit.y);
+            writer.name("isActive").value(fruit.isActive);
+            writer.name("fruitType").value(fruit.kind.getWireName());
+            writer.name("points").value(fruit.points);
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        return out.toString();
+    }
+
+    /**
+     * GUID en texto para un id, como los que envía el servidor
+     */
+    private static String guid(int id) {
+        return new UUID(GUID_PREFIX, id).toString();
+    }
+
+    private static void writePlayer(JsonWriter writer, Player player) throws IOException {
+        writer.beginObject();
+        writer.name("x").value(player.x);
+        writer.name("y").value(player.y);
+        writer.name("isOnGround").value(player.isOnGround);
+        writer.name("isJumping").value(player.isJumping);
+        writer.name("isAttacking").value(player.isAttacking);
+        writer.name("lives").value(player.lives);
+        writer.name("score").value(player.score);
+        writer.name("isInvulnerable").value(player.isInvulnerable);
+        writer.name("isAlive").value(player.isAlive);
+        writer.endObject();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProtocolBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
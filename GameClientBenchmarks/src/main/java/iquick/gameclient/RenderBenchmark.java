@@ -0,0 +1,207 @@
+package iquick.gameclient;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Costo de dibujar un frame completo de GamePanel sobre una imagen (sin
+ * ventana), con mapas sintéticos de 50x20 a 2000x5000 tiles y de 0 a 10k
+ * enemigos y frutas repartidos por todo el mapa. La vista es la del juego
+ * (1100x400 píxeles).
+ *
+ * - staticCamera: el mismo snapshot en cada frame (lo que cuesta redibujar)
+ * - scrolling: el jugador sube y baja, así que la cámara se mueve y el mapa
+ *   en caché tiene que rearmarse en las filas nuevas
+ *
+ * Reporta ns por frame y, con el perfilador de GC, bytes por frame
+ * (gc.alloc.rate.norm). Es la línea base para comparar cambios al dibujo.
+ *
+ * Uso (desde GameClientBenchmarks, después de mvn -f ../GameClient install):
+ *   mvn package && java -jar target/benchmarks.jar RenderBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx2g"})
+@State(Scope.Thread)
+public class RenderBenchmark {
+    private static final int VIEW_WIDTH = 1100;
+    private static final int VIEW_HEIGHT = 400;
+    private static final int SCROLL_FRAMES = 64;        // Snapshots distintos del recorrido de la cámara
+    private static final float SCROLL_TILES = 0.5f;     // Cuánto sube el jugador por frame
+
+    @Param({"50x20", "200x500", "2000x5000"})
+    public String map;
+
+    @Param({"0", "100", "1000", "10000"})
+    public int entities;
+
+    private WorldState world;
+    private GamePanel panel;
+    private BufferedImage image;
+    private Graphics2D g2d;
+    private WorldSnapshot[] scroll;
+    private WorldSnapshot still;
+    private int frame = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        int separator = map.indexOf('x');
+        int width = Integer.parseInt(map.substring(0, separator));
+        int height = Integer.parseInt(map.substring(separator + 1));
+        Random random = new Random(42);
+
+        world = new WorldState();
+        world.publish(world.current().withMap(createMap(width, height, random), width, height));
+
+        EntityStore<Enemy> enemyStore = ServerConnection.newEnemyStore(world);
+        EntityStore<Fruit> fruitStore = ServerConnection.newFruitStore(world);
+        float[] enemyXs = new float[entities];
+        float[] enemyYs = new float[entities];
+        float[] fruitXs = new float[entities];
+        float[] fruitYs = new float[entities];
+        for (int i = 0; i < entities; i++) {
+            enemyXs[i] = random.nextFloat() * (width - 1);
+            enemyYs[i] = random.nextFloat() * (height - 1);
+            fruitXs[i] = random.nextFloat() * (width - 1);
+            fruitYs[i] = random.nextFloat() * (height - 1);
+        }
+
+        // Los snapshots del recorrido se publican una y otra vez: un lector tomado mientras
+        // se arman evita que los almacenes reciclen las entidades de los primeros
+        WorldState.Reader hold = world.newReader();
+        hold.acquire();
+
+        // Jugador centrado en el mapa; el recorrido lo mueve verticalmente alrededor del centro
+        scroll = new WorldSnapshot[SCROLL_FRAMES];
+        for (int i = 0; i < SCROLL_FRAMES; i++) {
+            int step = i < SCROLL_FRAMES / 2 ? i : SCROLL_FRAMES - i;
+            float y = height / 2f - step * SCROLL_TILES;
+            scroll[i] = nextUpdate(width / 2f, Math.max(0, y), enemyStore, fruitStore,
+                    enemyXs, enemyYs, fruitXs, fruitYs);
+        }
+        hold.close();
+        still = scroll[0];
+
+        panel = new GamePanel(world, new DestroyedTiles());
+        panel.setConnectionStatus(true);
+        image = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g2d = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        panel.releaseResources();
+        g2d.dispose();
+        image.flush();
+    }
+
+    @Benchmark
+    public BufferedImage staticCamera() {
+        world.publish(still);
+        panel.paintTo(g2d, VIEW_WIDTH, VIEW_HEIGHT, null);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage scrolling() {
+        world.publish(scroll[frame]);
+        frame = (frame + 1) % SCROLL_FRAMES;
+        panel.paintTo(g2d, VIEW_WIDTH, VIEW_HEIGHT, null);
+        return image;
+    }
+
+    /**
+     * Mapa con plataformas cada 5 filas (con huecos) y algunos tiles de bonus
+     */
+    private static int[][] createMap(int width, int height, Random random) {
+        int[][] tiles = new int[height][width];
+        for (int y = 4; y < height; y += 5) {
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(8) != 0) {
+                    tiles[y][x] = random.nextInt(20) == 0 ? 2 : 1;
+                }
+            }
+        }
+        // Piso completo
+        for (int x = 0; x < width; x++) {
+            tiles[height - 1][x] = 1;
+        }
+        return tiles;
+    }
+
+    /**
+     * Publica un PLAYER_UPDATE como lo haría ServerConnection y devuelve el snapshot
+     */
+    private WorldSnapshot nextUpdate(float playerX, float playerY,
+                                     EntityStore<Enemy> enemyStore, EntityStore<Fruit> fruitStore,
+                                     float[] enemyXs, float[] enemyYs, float[] fruitXs, float[] fruitYs) {
+        WorldSnapshot previous = world.current();
+        long sequence = previous.sequence + 1;
+        EnemyKind[] enemyKinds = EnemyKind.values();
+        FruitKind[] fruitKinds = FruitKind.values();
+
+        enemyStore.begin();
+        for (int i = 0; i < entities; i++) {
+            Enemy enemy = enemyStore.obtain();
+            enemy.id = i + 1;
+            enemy.x = enemyXs[i];
+            enemy.y = enemyYs[i];
+            enemy.kind = enemyKinds[i % (enemyKinds.length - 1)];    // Sin FRUIT
+            enemyStore.commit(enemy);
+        }
+        fruitStore.begin();
+        for (int i = 0; i < entities; i++) {
+            Fruit fruit = fruitStore.obtain();
+            fruit.id = i + 1;
+            fruit.x = fruitXs[i];
+            fruit.y = fruitYs[i];
+            fruit.isActive = true;
+            fruit.kind = fruitKinds[i % fruitKinds.length];
+            fruitStore.commit(fruit);
+        }
+
+        Player player1 = new Player();
+        player1.x = playerX;
+        player1.y = playerY;
+        player1.isAlive = true;
+        player1.lives = 3;
+        Player player2 = new Player();
+        PlayerUpdateState state = new PlayerUpdateState();
+        state.playerAbove = 1;
+
+        WorldSnapshot snapshot = previous.withPlayerUpdate(player1, player2,
+                enemyStore.finish(previous.sequence, sequence),
+                fruitStore.finish(previous.sequence, sequence), state);
+        world.publish(snapshot);
+        return snapshot;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RenderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,146 @@
+package iquick.gameclient;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Comparación de las consultas de culling y cercanía antes (recorrer todas las
+ * entidades) y después (SpatialGrid), de 10 a 100k entidades repartidas en un
+ * mapa alto de 40x5000 tiles. La vista es la del panel (1100x400 píxeles).
+ * build mide cuánto cuesta armar el índice, que se paga en cada PLAYER_UPDATE.
+ *
+ * Reporta ns por operación. Cada consulta usa la siguiente de 1024 posiciones
+ * fijas, así que todas las variantes consultan las mismas zonas.
+ *
+ * Uso (desde GameClientBenchmarks, después de mvn -f ../GameClient install):
+ *   mvn package && java -jar target/benchmarks.jar SpatialBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpatialBenchmark {
+    private static final int MAP_WIDTH = 40;
+    private static final int MAP_HEIGHT = 5000;
+    private static final float VIEW_WIDTH = 1100 / 30f;         // Vista en tiles
+    private static final float VIEW_HEIGHT = 400 / 30f;
+    private static final float RADIUS = 2f;                     // Radio de las consultas de cercanía
+    private static final int QUERIES = 1024;                    // Posiciones de consulta distintas
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int entities;
+
+    private float[] xs;
+    private float[] ys;
+    private float[] queryXs;
+    private float[] queryYs;
+    private final SpatialGrid grid = new SpatialGrid();
+    private final SpatialGrid.Hits hits = new SpatialGrid.Hits();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        xs = new float[entities];
+        ys = new float[entities];
+        for (int i = 0; i < entities; i++) {
+            xs[i] = random.nextFloat() * MAP_WIDTH;
+            ys[i] = random.nextFloat() * MAP_HEIGHT;
+        }
+        queryXs = new float[QUERIES];
+        queryYs = new float[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queryXs[i] = random.nextFloat() * (MAP_WIDTH - VIEW_WIDTH);
+            queryYs[i] = random.nextFloat() * (MAP_HEIGHT - VIEW_HEIGHT);
+        }
+        build();
+    }
+
+    /**
+     * Armar el índice como lo hace EntityStore con cada mensaje
+     */
+    @Benchmark
+    public SpatialGrid build() {
+        grid.clear();
+        for (int i = 0; i < entities; i++) {
+            grid.add(xs[i], ys[i]);
+        }
+        return grid;
+    }
+
+    /**
+     * Culling de la vista recorriendo todas las entidades (como antes)
+     */
+    @Benchmark
+    public int viewLinear() {
+        int q = next++ & (QUERIES - 1);
+        float left = queryXs[q] - 1;
+        float top = queryYs[q] - 1;
+        float right = queryXs[q] + VIEW_WIDTH;
+        float bottom = queryYs[q] + VIEW_HEIGHT;
+        int found = 0;
+        for (int i = 0; i < entities; i++) {
+            if (xs[i] >= left && xs[i] <= right && ys[i] >= top && ys[i] <= bottom) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int viewGrid() {
+        int q = next++ & (QUERIES - 1);
+        grid.queryRect(queryXs[q] - 1, queryYs[q] - 1, queryXs[q] + VIEW_WIDTH, queryYs[q] + VIEW_HEIGHT, hits);
+        return hits.size();
+    }
+
+    /**
+     * Cercanía alrededor de un punto (colisiones) recorriendo todas las entidades
+     */
+    @Benchmark
+    public int radiusLinear() {
+        int q = next++ & (QUERIES - 1);
+        float x = queryXs[q];
+        float y = queryYs[q];
+        int found = 0;
+        for (int i = 0; i < entities; i++) {
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            if (dx * dx + dy * dy <= RADIUS * RADIUS) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int radiusGrid() {
+        int q = next++ & (QUERIES - 1);
+        grid.queryRadius(queryXs[q], queryYs[q], RADIUS, hits);
+        return hits.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SpatialBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,147 @@
+package iquick.gameclient;
+
+import javax.swing.ImageIcon;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Comparación del dibujo de sprites antes (SCALED: escalar el original en cada
+ * drawImage) y después (BUFFERED y VOLATILE: copias pre-escaladas de SpriteCache).
+ * Dibuja los sprites del juego a sus tamaños reales sobre una superficie de
+ * 1100x400: una VolatileImage si hay pantalla, o una BufferedImage en headless.
+ *
+ * Reporta ns por frame; dividir por sprites para el costo por sprite.
+ *
+ * Uso (desde GameClientBenchmarks, después de mvn -f ../GameClient install):
+ *   mvn package && java -jar target/benchmarks.jar SpriteBenchmark
+ * Con -jvmArgsAppend -Djava.awt.headless=true se mide siempre sobre BufferedImage.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Diquick.log.level=WARN"})
+@State(Scope.Thread)
+public class SpriteBenchmark {
+    private static final int WIDTH = 1100;
+    private static final int HEIGHT = 400;
+    private static final String[] ASSETS = {
+        "tileSolidImg.png", "POPO.jpg", "NANA.png", "foca.png",
+        "naranja.png", "banano.png", "berenjena.png", "lechuga.jpg"
+    };
+    private static final int[] SIZES = {30, 30, 30, 25, 25, 25, 25, 25};
+
+    @Param({"SCALED", "BUFFERED", "VOLATILE"})
+    public SpriteCache.Mode mode;
+
+    @Param({"10", "100", "1000"})
+    public int sprites;
+
+    private GraphicsConfiguration config;
+    private SpriteCache cache;
+    private int[] spriteIds;
+    private int[] xs;
+    private int[] ys;
+    private VolatileImage screen;
+    private BufferedImage offscreen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        System.out.println("destino: " + (config == null ? "BufferedImage (headless)" : "VolatileImage"));
+
+        cache = new SpriteCache(mode);
+        List<Integer> registered = new ArrayList<>();
+        for (int i = 0; i < ASSETS.length; i++) {
+            int sprite = cache.register(load(ASSETS[i]), SIZES[i], SIZES[i]);
+            if (sprite != SpriteCache.NONE) {
+                registered.add(sprite);
+            }
+        }
+
+        // Posiciones y sprites fijos para que todos los modos dibujen lo mismo
+        Random random = new Random(42);
+        spriteIds = new int[sprites];
+        xs = new int[sprites];
+        ys = new int[sprites];
+        for (int i = 0; i < sprites; i++) {
+            spriteIds[i] = registered.get(random.nextInt(registered.size()));
+            xs[i] = random.nextInt(WIDTH - 30);
+            ys[i] = random.nextInt(HEIGHT - 30);
+        }
+
+        screen = config == null ? null : config.createCompatibleVolatileImage(WIDTH, HEIGHT);
+        offscreen = config == null ? new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB) : null;
+    }
+
+    @TearDown(Level.Iteration)
+    public void sync() {
+        // Esperar a que la superficie termine lo encolado
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (screen != null) {
+            screen.flush();
+        }
+        cache.clear();
+    }
+
+    @Benchmark
+    public void frame() {
+        if (screen != null) {
+            screen.validate(config);
+        }
+        Graphics2D g2d = screen != null ? screen.createGraphics() : offscreen.createGraphics();
+        try {
+            g2d.setColor(Color.WHITE);
+            g2d.fillRect(0, 0, WIDTH, HEIGHT);
+            for (int i = 0; i < sprites; i++) {
+                cache.draw(g2d, spriteIds[i], xs[i], ys[i], config);
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    private static Image load(String asset) {
+        URL url = SpriteBenchmark.class.getResource("/iquick/gameclient/assets/" + asset);
+        return url == null ? null : new ImageIcon(url).getImage();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SpriteBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
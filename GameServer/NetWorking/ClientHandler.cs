@@ -30,6 +30,9 @@ namespace PlatformGameServer.Networking
         {
             byte[] message = new byte[4096];
             int bytesRead;
+            // El cliente puede enviar varios comandos por escritura (uno por linea),
+            // y una linea puede quedar partida entre dos lecturas
+            string pending = "";
 
             while (true)
             {
@@ -49,10 +52,18 @@ namespace PlatformGameServer.Networking
                     break;
                 }
 
-                string clientMessage = Encoding.UTF8.GetString(message, 0, bytesRead);
-                Console.WriteLine($"Sesión {gameSession?.SessionId}: Mensaje del cliente: {clientMessage}");
-                
-                gameSession?.HandlePlayerInput(clientMessage.Trim());
+                pending += Encoding.UTF8.GetString(message, 0, bytesRead);
+
+                int newline;
+                while ((newline = pending.IndexOf('\n')) >= 0)
+                {
+                    string clientMessage = pending.Substring(0, newline).Trim();
+                    pending = pending.Substring(newline + 1);
+                    if (clientMessage.Length == 0) continue;
+
+                    Console.WriteLine($"Sesión {gameSession?.SessionId}: Mensaje del cliente: {clientMessage}");
+                    gameSession?.HandlePlayerInput(clientMessage);
+                }
             }
 
             if (gameSession != null)